@@ -0,0 +1,39 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.service.AccountNumberGenerator;
+import com.bank.app.account_service.service.BlockAccountNumberGenerator;
+import com.bank.app.account_service.service.RandomAccountNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing one account number, without the database round trips each generator adds:
+ * an existence check per candidate for the random generator, a lease per block for the block generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+
+    @Param({"random", "block"})
+    public String generator;
+
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accountNumberGenerator = "random".equals(generator)
+                ? new RandomAccountNumberGenerator(candidate -> false, 10)
+                : new BlockAccountNumberGenerator(InMemoryRepositories.accountNumberBlocks(), new NoOpTransactionManager(), 1000, true);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextAccountNumber() {
+        return accountNumberGenerator.nextAccountNumber();
+    }
+}
@@ -0,0 +1,181 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.AccountNumberBlock;
+import com.bank.app.account_service.entity.LedgerCheckpoint;
+import com.bank.app.account_service.repo.AccountBalanceSlotRepository;
+import com.bank.app.account_service.repo.AccountNumberBlockRepository;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.bank.app.account_service.repo.LedgerCheckpointRepository;
+import com.bank.app.account_service.repo.OutboxEventRepository;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories, so the service hot paths can be benchmarked without a
+ * database. Only the methods the benchmarked code calls are implemented; anything else fails loudly.
+ * Written transactions and outbox events are counted, not kept, so long runs do not fill the heap.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static AccountRepository accounts() {
+        Map<String, Account> byNumber = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return proxy(AccountRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                Account account = (Account) args[0];
+                if (account.getId() == null) {
+                    account.setId(ids.incrementAndGet());
+                }
+                byNumber.put(account.getAccountNumber(), account);
+                yield account;
+            }
+            case "saveAll" -> {
+                List<Account> saved = new ArrayList<>();
+                for (Object account : (Iterable<?>) args[0]) {
+                    saved.add((Account) account);
+                    byNumber.put(((Account) account).getAccountNumber(), (Account) account);
+                }
+                yield saved;
+            }
+            case "findByAccountNumber", "findByAccountNumberForUpdate" -> Optional.ofNullable(byNumber.get((String) args[0]));
+            case "existsByAccountNumber" -> byNumber.containsKey((String) args[0]);
+            case "findAllByAccountNumberForUpdate" -> {
+                List<Account> found = new ArrayList<>();
+                for (Object accountNumber : (Collection<?>) args[0]) {
+                    Account account = byNumber.get((String) accountNumber);
+                    if (account != null) {
+                        found.add(account);
+                    }
+                }
+                yield found;
+            }
+            case "creditBalance" -> update(byNumber.get((String) args[0]), (BigDecimal) args[1], false);
+            case "debitBalance" -> update(byNumber.get((String) args[0]), (BigDecimal) args[1], true);
+            case "adjustBalance" -> {
+                Account account = byNumber.get((String) args[0]);
+                if (account == null) {
+                    yield 0;
+                }
+                synchronized (account) {
+                    account.setBalance(account.getBalance().plus(Money.of((BigDecimal) args[1])));
+                }
+                yield 1;
+            }
+            case "deleteAll" -> {
+                byNumber.clear();
+                yield null;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static TransactionRepository transactions() {
+        return countingRepository(TransactionRepository.class);
+    }
+
+    static TransferJournalRepository transferJournal() {
+        return countingRepository(TransferJournalRepository.class);
+    }
+
+    static AccountBalanceSlotRepository balanceSlots() {
+        return proxy(AccountBalanceSlotRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "countSlotRows", "lockBalances" -> List.of();
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static OutboxEventRepository outbox() {
+        return countingRepository(OutboxEventRepository.class);
+    }
+
+    static LedgerCheckpointRepository ledgerCheckpoints() {
+        Map<String, LedgerCheckpoint> checkpoints = new ConcurrentHashMap<>();
+        return proxy(LedgerCheckpointRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById", "findForUpdate" -> Optional.ofNullable(checkpoints.get((String) args[0]));
+            case "save" -> {
+                LedgerCheckpoint checkpoint = (LedgerCheckpoint) args[0];
+                checkpoints.put(checkpoint.getNodeId(), checkpoint);
+                yield checkpoint;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    static AccountNumberBlockRepository accountNumberBlocks() {
+        Map<String, AccountNumberBlock> blocks = new ConcurrentHashMap<>();
+        return proxy(AccountNumberBlockRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findForUpdate" -> Optional.ofNullable(blocks.get((String) args[0]));
+            case "save", "saveAndFlush" -> {
+                AccountNumberBlock block = (AccountNumberBlock) args[0];
+                blocks.put(block.getName(), block);
+                yield block;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    private static int update(Account account, BigDecimal amount, boolean debit) {
+        if (account == null) {
+            return 0;
+        }
+        Money money = Money.of(amount);
+        synchronized (account) {
+            if (debit && account.getBalance().isLessThan(money)) {
+                return 0;
+            }
+            account.setBalance(debit ? account.getBalance().minus(money) : account.getBalance().plus(money));
+            return 1;
+        }
+    }
+
+    private static <T> T countingRepository(Class<T> type) {
+        AtomicLong rows = new AtomicLong();
+        return proxy(type, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> {
+                rows.incrementAndGet();
+                yield args[0];
+            }
+            case "saveAll" -> {
+                List<Object> saved = new ArrayList<>();
+                ((Iterable<?>) args[0]).forEach(saved::add);
+                rows.addAndGet(saved.size());
+                yield saved;
+            }
+            case "insertAll" -> {
+                rows.addAndGet(((List<?>) args[0]).size());
+                yield null;
+            }
+            case "count" -> rows.get();
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    private static Object unsupported(Object proxy, String name, Object[] args) {
+        return switch (name) {
+            case "toString" -> "InMemoryRepository@" + System.identityHashCode(proxy);
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(name + " is not implemented by the in-memory repository");
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
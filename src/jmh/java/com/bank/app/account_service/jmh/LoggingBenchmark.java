@@ -0,0 +1,132 @@
+package com.bank.app.account_service.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.bank.app.account_service.logging.SuccessPathSamplingFilter;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging cost of one successful transaction request: the six INFO lines written by TransactionController,
+ * AccountServiceImpl and AccountEventProducer, with a trace id in the MDC.
+ * <ul>
+ *     <li>SYNC_TEXT: the previous setup, the Spring Boot text pattern written on the request thread.</li>
+ *     <li>ASYNC_JSON: logback-spring.xml without sampling, JSON lines written by an AsyncAppender.</li>
+ *     <li>ASYNC_JSON_SAMPLED: logback-spring.xml with the default success-path sample rate of 0.1.</li>
+ * </ul>
+ * Output goes to a discarding stream, so the numbers are CPU cost only; a real console makes SYNC_TEXT slower still.
+ * When the writer thread falls behind, the async setups drop INFO lines as configured, which is part of what they buy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    public enum LogSetup {
+        SYNC_TEXT, ASYNC_JSON, ASYNC_JSON_SAMPLED
+    }
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [traceId=%X{traceId}, spanId=%X{spanId}] --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param
+    public LogSetup setup;
+
+    private final AtomicLong traceIds = new AtomicLong();
+    private LoggerContext context;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private Logger producerLogger;
+    private final String accountNumber = "2024123456";
+    private final BigDecimal amount = new BigDecimal("100.00");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new LoggerContext();
+        Appender<ILoggingEvent> appender = outputAppender(setup == LogSetup.SYNC_TEXT ? patternEncoder() : jsonEncoder());
+        if (setup != LogSetup.SYNC_TEXT) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(appender);
+            async.start();
+            appender = async;
+        }
+        if (setup == LogSetup.ASYNC_JSON_SAMPLED) {
+            SuccessPathSamplingFilter filter = new SuccessPathSamplingFilter();
+            filter.setContext(context);
+            filter.addSample("com.bank.app.account_service=0.1");
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(appender);
+        controllerLogger = context.getLogger("com.bank.app.account_service.controller.TransactionController");
+        serviceLogger = context.getLogger("com.bank.app.account_service.service.impl.AccountServiceImpl");
+        producerLogger = context.getLogger("com.bank.app.account_service.service.AccountEventProducer");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+        MDC.clear();
+    }
+
+    @Benchmark
+    public void successfulTransaction() {
+        MDC.put("traceId", Long.toHexString(traceIds.incrementAndGet() * 0x9E3779B97F4A7C15L));
+        MDC.put("spanId", "53995c3f42cd8ad8");
+        controllerLogger.info("Performing transaction for account: {}", accountNumber);
+        serviceLogger.info("Processing transaction for account: {}", accountNumber);
+        producerLogger.info("Queueing {} message for account number: {}", "CREDIT", accountNumber);
+        serviceLogger.info("Transaction successful for account: {}", accountNumber);
+        controllerLogger.info("Transaction performed successfully for account: {}", accountNumber);
+        serviceLogger.info("Transfer successful: {} transferred from {} to {}", amount, accountNumber, accountNumber);
+        MDC.remove("spanId");
+        MDC.remove("traceId");
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.setCustomFields("{\"application\":\"account-service\"}");
+        encoder.start();
+        return encoder;
+    }
+
+    private Appender<ILoggingEvent> outputAppender(Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
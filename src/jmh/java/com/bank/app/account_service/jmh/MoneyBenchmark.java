@@ -0,0 +1,94 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.entity.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic of a transfer (funds check, debit, credit) on BigDecimal and on {@link Money}, starting from the
+ * BigDecimal amount of the request as AccountServiceImpl does. Run with {@code -prof gc} for the allocation rate:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="Money -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("12.34");
+    private BigDecimal fromDecimal;
+    private BigDecimal toDecimal;
+    private Money fromMoney;
+    private Money toMoney;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        fromDecimal = new BigDecimal("1000000000.00");
+        toDecimal = new BigDecimal("0.00");
+        fromMoney = Money.parse("1000000000.00");
+        toMoney = Money.ZERO;
+    }
+
+    @Benchmark
+    public boolean transferBigDecimal() {
+        if (fromDecimal.compareTo(amount) < 0) {
+            swapDecimal();
+        }
+        fromDecimal = fromDecimal.subtract(amount);
+        toDecimal = toDecimal.add(amount);
+        return fromDecimal.signum() > 0;
+    }
+
+    @Benchmark
+    public boolean transferMoney() {
+        Money money = Money.of(amount);
+        if (fromMoney.isLessThan(money)) {
+            swapMoney();
+        }
+        fromMoney = fromMoney.minus(money);
+        toMoney = toMoney.plus(money);
+        return fromMoney.signum() > 0;
+    }
+
+    /**
+     * Arithmetic only, for amounts already held as Money (batch items, balances read from the database).
+     */
+    @Benchmark
+    public long transferMoneyMinorUnits() {
+        long minor = 1234;
+        long from = fromMoney.minorUnits();
+        if (from < minor) {
+            swapMoney();
+            from = fromMoney.minorUnits();
+        }
+        fromMoney = Money.ofMinor(Math.subtractExact(from, minor));
+        toMoney = Money.ofMinor(Math.addExact(toMoney.minorUnits(), minor));
+        return fromMoney.minorUnits();
+    }
+
+    @Benchmark
+    public BigDecimal balanceToEventBigDecimal() {
+        return fromDecimal;
+    }
+
+    @Benchmark
+    public BigDecimal balanceToEventMoney() {
+        return fromMoney.toBigDecimal();
+    }
+
+    private void swapDecimal() {
+        BigDecimal from = fromDecimal;
+        fromDecimal = toDecimal;
+        toDecimal = from;
+    }
+
+    private void swapMoney() {
+        Money from = fromMoney;
+        fromMoney = toMoney;
+        toMoney = from;
+    }
+}
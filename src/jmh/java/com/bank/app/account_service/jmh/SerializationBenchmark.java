@@ -0,0 +1,118 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON mapping of the REST payloads and the work of building transaction event payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Account account;
+    private Transaction transaction;
+    private TransactionRequest transactionRequest;
+    private String accountJson;
+    private String transactionRequestJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        // Same configuration as the ObjectMapper Spring Boot builds for the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        account = Account.builder()
+                .id(42L)
+                .accountNumber("2024123456")
+                .accountType("SAVINGS")
+                .balance(Money.parse("1234.56"))
+                .dateOpened(LocalDate.of(2024, 1, 15))
+                .userId(7L)
+                .userName("Jane Doe")
+                .email("jane.doe@example.com")
+                .phoneNumber("+1-555-0100")
+                .build();
+        transaction = new Transaction("2024123456", "CREDIT", Money.parse("100.00"), Money.parse("1334.56"));
+        transaction.setId(1000L);
+        transactionRequest = new TransactionRequest();
+        transactionRequest.setAccountNumber("2024123456");
+        transactionRequest.setType(TransactionType.CREDIT);
+        transactionRequest.setAmount(new BigDecimal("100.00"));
+        transactionRequest.setUserName("Jane Doe");
+        transactionRequest.setEmail("jane.doe@example.com");
+        accountJson = objectMapper.writeValueAsString(account);
+        transactionRequestJson = objectMapper.writeValueAsString(transactionRequest);
+    }
+
+    @Benchmark
+    public String serializeAccount() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(account);
+    }
+
+    @Benchmark
+    public Account deserializeAccount() throws JsonProcessingException {
+        return objectMapper.readValue(accountJson, Account.class);
+    }
+
+    @Benchmark
+    public String serializeTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(transaction);
+    }
+
+    @Benchmark
+    public TransactionRequest deserializeTransactionRequest() throws JsonProcessingException {
+        return objectMapper.readValue(transactionRequestJson, TransactionRequest.class);
+    }
+
+    /**
+     * Event payload as AccountServiceImpl builds it: a reflective copy followed by the per-event fields.
+     */
+    @Benchmark
+    public TransactionRequest buildEventWithCopyProperties() {
+        TransactionRequest event = new TransactionRequest();
+        BeanUtils.copyProperties(transactionRequest, event);
+        event.setBalanceAfterTransaction(transaction.getBalanceAfterTransaction().toBigDecimal());
+        return event;
+    }
+
+    /**
+     * The same payload built with plain setters, as a baseline for the reflective copy.
+     */
+    @Benchmark
+    public TransactionRequest buildEventWithSetters() {
+        TransactionRequest event = new TransactionRequest();
+        event.setAccountNumber(transactionRequest.getAccountNumber());
+        event.setFromAccount(transactionRequest.getFromAccount());
+        event.setToAccount(transactionRequest.getToAccount());
+        event.setType(transactionRequest.getType());
+        event.setAmount(transactionRequest.getAmount());
+        event.setUserName(transactionRequest.getUserName());
+        event.setEmail(transactionRequest.getEmail());
+        event.setBalanceAfterTransaction(transaction.getBalanceAfterTransaction().toBigDecimal());
+        return event;
+    }
+
+    /**
+     * Full outbox payload: building the event and serializing it to the JSON stored in the outbox row.
+     */
+    @Benchmark
+    public String buildAndSerializeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(buildEventWithCopyProperties());
+    }
+}
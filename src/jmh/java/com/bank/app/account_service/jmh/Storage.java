@@ -0,0 +1,136 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.AccountServiceApplication;
+import com.bank.app.account_service.ledger.JpaLedgerStore;
+import com.bank.app.account_service.ledger.LedgerEngine;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.bank.app.account_service.service.AccountCache;
+import com.bank.app.account_service.service.AccountEventProducer;
+import com.bank.app.account_service.service.AccountExistenceFilter;
+import com.bank.app.account_service.service.AccountService;
+import com.bank.app.account_service.service.BlockAccountNumberGenerator;
+import com.bank.app.account_service.service.HotAccountBalances;
+import com.bank.app.account_service.service.TransactionMetrics;
+import com.bank.app.account_service.service.TransferEngine;
+import com.bank.app.account_service.service.impl.AccountServiceImpl;
+import com.bank.app.account_service.service.impl.LedgerAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Where the benchmarked service keeps its data.
+ * <ul>
+ *     <li>IN_MEMORY: the service wired by hand over {@link InMemoryRepositories}; measures the Java code alone.</li>
+ *     <li>LEDGER: IN_MEMORY behind the in-memory ledger, with its journal fsynced to a temporary directory.</li>
+ *     <li>H2: the full application context on the embedded H2 database of the test profile, Kafka not needed.</li>
+ * </ul>
+ */
+public enum Storage {
+    IN_MEMORY {
+        @Override
+        Fixture start() {
+            AccountRepository accountRepository = InMemoryRepositories.accounts();
+            AccountService accountService = inMemoryService(accountRepository, new NoOpTransactionManager(), new SimpleMeterRegistry());
+            return new Fixture(accountService, accountRepository, null, null, null);
+        }
+    },
+    LEDGER {
+        @Override
+        Fixture start() {
+            AccountRepository accountRepository = InMemoryRepositories.accounts();
+            PlatformTransactionManager transactionManager = new NoOpTransactionManager();
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            AccountServiceImpl delegate = inMemoryService(accountRepository, transactionManager, meterRegistry);
+
+            JpaLedgerStore store = new JpaLedgerStore("benchmark", accountRepository,
+                    InMemoryRepositories.transactions(),
+                    InMemoryRepositories.transferJournal(),
+                    InMemoryRepositories.ledgerCheckpoints(),
+                    eventProducer(),
+                    new AccountCache(new ConcurrentMapCacheManager(AccountCache.ACCOUNTS_BY_NUMBER, AccountCache.ACCOUNTS_BY_USER)),
+                    new HotAccountBalances(accountRepository, InMemoryRepositories.balanceSlots(), transactionManager, meterRegistry, 64, 1000),
+                    transactionManager);
+            try {
+                Path directory = Files.createTempDirectory("ledger-benchmark");
+                LedgerEngine ledger = new LedgerEngine(store, directory, 256, 64L << 20, 1000, 50, 1000, 5000, 100,
+                        100_000, meterRegistry);
+                ledger.start();
+                AccountService accountService = new LedgerAccountService(delegate, ledger, new TransactionMetrics(meterRegistry));
+                return new Fixture(accountService, accountRepository, null, ledger, meterRegistry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+    H2 {
+        @Override
+        Fixture start() {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                    .run();
+            return new Fixture(context.getBean(AccountService.class), context.getBean(AccountRepository.class), context, null, null);
+        }
+    };
+
+    abstract Fixture start();
+
+    private static AccountServiceImpl inMemoryService(AccountRepository accountRepository,
+                                                      PlatformTransactionManager transactionManager,
+                                                      SimpleMeterRegistry meterRegistry) {
+        return new AccountServiceImpl(accountRepository,
+                InMemoryRepositories.transactions(),
+                InMemoryRepositories.transferJournal(),
+                eventProducer(),
+                new TransferEngine(accountRepository, transactionManager, meterRegistry, 3, 0),
+                new AccountCache(new ConcurrentMapCacheManager(AccountCache.ACCOUNTS_BY_NUMBER, AccountCache.ACCOUNTS_BY_USER)),
+                new AccountExistenceFilter(accountRepository, transactionManager, meterRegistry, 1_000_000, 0.01, 500, 0),
+                new BlockAccountNumberGenerator(InMemoryRepositories.accountNumberBlocks(), transactionManager, 1000, true),
+                new TransactionMetrics(meterRegistry),
+                new HotAccountBalances(accountRepository, InMemoryRepositories.balanceSlots(), transactionManager, meterRegistry, 64, 1000));
+    }
+
+    private static AccountEventProducer eventProducer() {
+        AccountEventProducer eventProducer = new AccountEventProducer();
+        ReflectionTestUtils.setField(eventProducer, "outboxEventRepository", InMemoryRepositories.outbox());
+        ReflectionTestUtils.setField(eventProducer, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        return eventProducer;
+    }
+
+    /**
+     * A running service and the repository used to seed it. The ledger's meters are kept to report the journal's
+     * group commit factor, records per fsync, when the trial ends.
+     */
+    record Fixture(AccountService accountService, AccountRepository accountRepository, ConfigurableApplicationContext context,
+                   LedgerEngine ledger, MeterRegistry ledgerMeters) {
+        void close() {
+            if (context != null) {
+                context.close();
+            }
+            if (ledger != null) {
+                try {
+                    ledger.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                double records = ledgerMeters.get("account.ledger.journal.records").functionCounter().count();
+                double fsyncs = ledgerMeters.get("account.ledger.journal.fsyncs").functionCounter().count();
+                System.out.printf("Ledger journal: %.0f records in %.0f fsyncs (%.1f records per fsync)%n",
+                        records, fsyncs, fsyncs == 0 ? 0 : records / fsyncs);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.app.account_service.jmh;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths: single credits and withdrawals, transfers and account opening, on either storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransactionProcessingBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final Money OPENING_BALANCE = Money.parse("1000000000.00");
+
+    @Param({"IN_MEMORY", "LEDGER", "H2"})
+    public Storage storage;
+
+    private Storage.Fixture fixture;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = storage.start();
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.valueOf(2024000000L + i);
+            fixture.accountRepository().save(Account.builder()
+                    .accountNumber(accountNumbers[i])
+                    .accountType("SAVINGS")
+                    .balance(OPENING_BALANCE)
+                    .dateOpened(LocalDate.now())
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String credit() {
+        return fixture.accountService().processTransaction(request(TransactionType.CREDIT));
+    }
+
+    @Benchmark
+    public String withdraw() {
+        try {
+            return fixture.accountService().processTransaction(request(TransactionType.WITHDRAW));
+        } catch (InsufficientFundsException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNTS);
+        TransactionRequest request = new TransactionRequest();
+        request.setFromAccount(accountNumbers[from]);
+        request.setToAccount(accountNumbers[(from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS]);
+        request.setAmount(BigDecimal.ONE);
+        try {
+            return fixture.accountService().processTransactions(request);
+        } catch (InsufficientFundsException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Account openAccount() {
+        Account account = new Account();
+        account.setUserId(1L);
+        account.setAccountType("SAVINGS");
+        account.setUserName("Benchmark User");
+        account.setEmail("benchmark@example.com");
+        return fixture.accountService().openAccount(account);
+    }
+
+    private TransactionRequest request(TransactionType type) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+        request.setType(type);
+        request.setAmount(BigDecimal.ONE);
+        request.setUserName("Benchmark User");
+        request.setEmail("benchmark@example.com");
+        return request;
+    }
+}
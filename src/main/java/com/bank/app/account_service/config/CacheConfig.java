@@ -0,0 +1,13 @@
+package com.bank.app.account_service.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring Boot cache auto-configuration. The Caffeine caches themselves (names, size, TTL)
+ * are defined by the spring.cache.* properties, which also registers their metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
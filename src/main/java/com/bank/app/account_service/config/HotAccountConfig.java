@@ -0,0 +1,17 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.service.HotAccountBalances;
+import com.bank.app.account_service.service.HotAccountsEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "account.hot-accounts.endpoint.enabled", havingValue = "true", matchIfMissing = true)
+public class HotAccountConfig {
+
+    @Bean
+    public HotAccountsEndpoint hotAccountsEndpoint(HotAccountBalances hotAccountBalances) {
+        return new HotAccountsEndpoint(hotAccountBalances);
+    }
+}
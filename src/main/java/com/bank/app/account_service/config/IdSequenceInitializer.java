@@ -0,0 +1,49 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the transactions id sequence past the existing rows.
+ * <p>
+ * Transaction ids used to come from AUTO_INCREMENT. On MySQL, Hibernate emulates the new sequence with a
+ * one-row table that starts at 1, so without this step the first inserts after the upgrade would reuse
+ * existing ids. On databases with native sequences the table does not exist and nothing is done.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the schema has been updated before the sequence is aligned.
+    public IdSequenceInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        align("transactions_seq", "transactions", Transaction.ID_ALLOCATION_SIZE);
+    }
+
+    private void align(String sequenceTable, String table, int allocationSize) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            // The pooled optimizer hands out [next_val - allocationSize + 1, next_val] for the first block it reads.
+            long floor = (maxId == null ? 0 : maxId) + allocationSize + 1;
+            int updated = jdbcTemplate.update("update " + sequenceTable + " set next_val = ? where next_val < ?", floor, floor);
+            if (updated > 0) {
+                logger.info("Moved {} to {} past the existing {} rows", sequenceTable, floor, table);
+            }
+        } catch (DataAccessException e) {
+            logger.debug("{} is not a sequence table, nothing to align", sequenceTable, e);
+        }
+    }
+}
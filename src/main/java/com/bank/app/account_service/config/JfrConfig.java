@@ -0,0 +1,27 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.monitoring.JfrEndpoint;
+import com.bank.app.account_service.monitoring.TransactionEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class JfrConfig {
+
+    // Applies even without the endpoint: the events are also recorded by recordings started on the command line.
+    public JfrConfig(@Value("${account.jfr.account-hash-key:}") String accountHashKey) {
+        TransactionEvent.useHashKey(accountHashKey);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "account.jfr.endpoint.enabled", havingValue = "true", matchIfMissing = true)
+    public JfrEndpoint jfrEndpoint(@Value("${account.jfr.directory:${java.io.tmpdir}/account-service-jfr}") String directory,
+                                   @Value("${account.jfr.max-duration-seconds:900}") long maxDurationSeconds) {
+        return new JfrEndpoint(Path.of(directory), Duration.ofSeconds(maxDurationSeconds));
+    }
+}
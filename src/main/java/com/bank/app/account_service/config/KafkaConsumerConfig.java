@@ -0,0 +1,150 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.service.AccountEventProducer;
+import com.bank.core.entity.TransactionRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consumer side of the transaction command topic, enabled with {@code account.kafka.commands.enabled=true}.
+ * Commands are keyed by account number, so all commands of an account are on one partition and are handled by one
+ * listener thread in offset order; different partitions are processed concurrently.
+ * <p>
+ * Not available together with the in-memory ledger ({@code account.ledger.enabled}): a redelivered batch is only
+ * harmless because its balance updates rolled back with the database transaction, and ledger mutations do not.
+ */
+@EnableKafka
+@Configuration
+@ConditionalOnProperty(name = "account.kafka.commands.enabled", havingValue = "true")
+public class KafkaConsumerConfig {
+
+    public static final String COMMAND_CONTAINER_FACTORY = "transactionCommandContainerFactory";
+    public static final String DEAD_LETTER_SUFFIX = ".DLT";
+
+    @Value("${spring.kafka.bootstrap-servers:kafka:9092}")
+    private String bootstrapServers;
+
+    @Value("${account.kafka.commands.topic:transaction-command-topic}")
+    private String commandTopic;
+
+    @Value("${account.kafka.commands.partitions:6}")
+    private int commandTopicPartitions;
+
+    @Value("${account.kafka.topics.transaction.partitions:3}")
+    private int resultTopicPartitions;
+
+    @Value("${account.kafka.topics.replication-factor:1}")
+    private short replicationFactor;
+
+    @Value("${account.kafka.commands.group-id:account-service-commands}")
+    private String groupId;
+
+    @Value("${account.kafka.commands.concurrency:6}")
+    private int concurrency;
+
+    @Value("${account.kafka.commands.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${account.kafka.commands.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${account.kafka.commands.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${account.ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    @PostConstruct
+    public void checkLedgerDisabled() {
+        if (ledgerEnabled) {
+            throw new IllegalStateException("account.kafka.commands.enabled cannot be combined with account.ledger.enabled: "
+                    + "ledger mutations are not rolled back with the command batch, so redelivered commands would be applied twice");
+        }
+    }
+
+    @Bean
+    public NewTopic transactionCommandTopic() {
+        return new NewTopic(commandTopic, commandTopicPartitions, replicationFactor);
+    }
+
+    // Same partition count as the command topic: a failed command goes to the dead letter partition of its own number.
+    @Bean
+    public NewTopic transactionCommandDeadLetterTopic() {
+        return new NewTopic(commandTopic + DEAD_LETTER_SUFFIX, commandTopicPartitions, replicationFactor);
+    }
+
+    @Bean
+    public NewTopic transactionResultTopic() {
+        return new NewTopic(AccountEventProducer.RESULT_TOPIC, resultTopicPartitions, replicationFactor);
+    }
+
+    private Map<String, Object> commandConsumerConfig() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // A command that cannot be deserialized arrives as a null value and is answered with an INVALID_REQUEST result
+        // instead of blocking its partition.
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, TransactionRequest.class.getName());
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return props;
+    }
+
+    @Bean
+    public ConsumerFactory<String, TransactionRequest> commandConsumerFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultKafkaConsumerFactory<String, TransactionRequest> factory = new DefaultKafkaConsumerFactory<>(commandConsumerConfig());
+        // Exposes the Kafka client metrics (records-lag-max, fetch-rate, ...) as kafka.consumer.*
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerConsumerListener<>(registry)));
+        return factory;
+    }
+
+    @Bean(name = COMMAND_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionRequest> transactionCommandContainerFactory(
+            ConsumerFactory<String, TransactionRequest> commandConsumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<String, TransactionRequest> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(commandConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        // Offsets of a batch are committed once, by the listener's acknowledgment after the database commit.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // A poll spans every partition assigned to the consumer; one batch per partition keeps a failing command from
+        // rolling back and redelivering the commands of other partitions.
+        factory.getContainerProperties().setSubBatchPerPartition(true);
+        // The listener reports the failing command by its index: the commands before it are committed, it is redelivered
+        // with the rest of the batch up to max-attempts times, and then published to the dead letter topic.
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, record.partition()));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, new FixedBackOff(retryBackoffMs, Math.max(0, maxAttempts - 1))));
+        return factory;
+    }
+}
@@ -1,12 +1,17 @@
 package com.bank.app.account_service.config;
 
+import com.bank.app.account_service.service.AccountEventProducer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -14,33 +19,87 @@ import java.util.HashMap;
 import java.util.Map;
 @Configuration
 public class KafkaProducerConfig {
+
+    @Value("${account.kafka.topics.account.partitions:3}")
+    private int accountTopicPartitions;
+
+    @Value("${account.kafka.topics.transaction.partitions:3}")
+    private int transactionTopicPartitions;
+
+    @Value("${account.kafka.topics.replication-factor:1}")
+    private short replicationFactor;
+
+    @Value("${spring.kafka.bootstrap-servers:kafka:9092}")
+    private String bootstrapServers;
+
+    @Value("${account.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${account.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${account.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${account.kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value("${account.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${account.kafka.producer.max-in-flight-requests-per-connection:5}")
+    private int maxInFlightRequestsPerConnection;
+
+    @Value("${account.kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${account.kafka.producer.delivery-timeout-ms:120000}")
+    private int deliveryTimeoutMs;
+
     @Bean
     public NewTopic createTopic(){
-        return new NewTopic("account-service-topic", 3, (short) 1);
+        return new NewTopic("account-service-topic", accountTopicPartitions, replicationFactor);
     }
     @Bean
     public NewTopic transactionTopic() {
-        return new NewTopic("transaction-service-topic", 3, (short) 1);
+        return new NewTopic("transaction-service-topic", transactionTopicPartitions, replicationFactor);
+    }
+    @Bean
+    public NewTopic transactionSubmissionTopic() {
+        return new NewTopic(AccountEventProducer.SUBMISSION_TOPIC, transactionTopicPartitions, replicationFactor);
     }
     @Bean
     public Map<String,Object> producerConfig(){
         Map<String,Object> props=new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG,
-                "kafka:9092");
+                bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG,
                 StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
                 JsonSerializer.class);
+        // Throughput profile: events are batched per partition and compressed, while idempotence with acks=all
+        // keeps per-key ordering even with several requests in flight.
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequestsPerConnection);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String,Object> producerFactory(){
-        return new DefaultKafkaProducerFactory<>(producerConfig());
+    public ProducerFactory<String,Object> producerFactory(ObjectProvider<MeterRegistry> meterRegistry){
+        DefaultKafkaProducerFactory<String,Object> factory = new DefaultKafkaProducerFactory<>(producerConfig());
+        // Exposes the Kafka client metrics (record-send-rate, request-latency-avg, record-error-rate, ...) as kafka.producer.*
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerProducerListener<>(registry)));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String,Object> kafkaTemplate(){
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String,Object> kafkaTemplate(ProducerFactory<String,Object> producerFactory){
+        return new KafkaTemplate<>(producerFactory);
     }
 }
@@ -0,0 +1,64 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.ledger.JpaLedgerStore;
+import com.bank.app.account_service.ledger.LedgerEngine;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.bank.app.account_service.repo.LedgerCheckpointRepository;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.bank.app.account_service.service.AccountCache;
+import com.bank.app.account_service.service.AccountEventProducer;
+import com.bank.app.account_service.service.HotAccountBalances;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "account.ledger.enabled", havingValue = "true")
+public class LedgerConfig {
+
+    @Bean
+    public JpaLedgerStore jpaLedgerStore(@Value("${account.ledger.node-id:${spring.application.name}}") String nodeId,
+                                         AccountRepository accountRepository,
+                                         TransactionRepository transactionRepository,
+                                         TransferJournalRepository transferJournalRepository,
+                                         LedgerCheckpointRepository ledgerCheckpointRepository,
+                                         AccountEventProducer accountEventProducer,
+                                         AccountCache accountCache,
+                                         HotAccountBalances hotAccountBalances,
+                                         PlatformTransactionManager transactionManager) {
+        return new JpaLedgerStore(nodeId, accountRepository, transactionRepository, transferJournalRepository,
+                ledgerCheckpointRepository, accountEventProducer, accountCache, hotAccountBalances, transactionManager);
+    }
+
+    // Started before any request is served: recovery replays the journal into the database first.
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public LedgerEngine ledgerEngine(JpaLedgerStore jpaLedgerStore,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${account.ledger.directory:data/ledger}") String directory,
+                                     @Value("${account.ledger.stripes:256}") int stripes,
+                                     @Value("${account.ledger.journal.segment-bytes:67108864}") long segmentBytes,
+                                     @Value("${account.ledger.journal.max-batch:1000}") int journalBatchSize,
+                                     @Value("${account.ledger.flush.interval-ms:50}") long flushIntervalMillis,
+                                     @Value("${account.ledger.flush.batch-size:1000}") int flushBatchSize,
+                                     @Value("${account.ledger.durable-timeout-ms:5000}") long durableTimeoutMillis,
+                                     @Value("${account.ledger.flush.max-attempts:100}") int flushMaxAttempts,
+                                     @Value("${account.ledger.flush.max-backlog:100000}") int maxBacklog) {
+        return new LedgerEngine(jpaLedgerStore, Path.of(directory), stripes, segmentBytes, journalBatchSize,
+                flushIntervalMillis, flushBatchSize, durableTimeoutMillis, flushMaxAttempts, maxBacklog, meterRegistry);
+    }
+
+    @Bean
+    public HealthIndicator ledgerHealthIndicator(LedgerEngine ledgerEngine) {
+        return () -> (ledgerEngine.isHealthy() ? Health.up() : Health.down())
+                .withDetail("backlog", ledgerEngine.backlog())
+                .build();
+    }
+}
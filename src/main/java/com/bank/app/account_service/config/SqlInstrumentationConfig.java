@@ -0,0 +1,65 @@
+package com.bank.app.account_service.config;
+
+import com.bank.app.account_service.monitoring.EntityLoadInterceptor;
+import com.bank.app.account_service.monitoring.SqlSessionEventListener;
+import com.bank.app.account_service.monitoring.SqlStatementInspector;
+import com.bank.app.account_service.monitoring.SqlStatistics;
+import com.bank.app.account_service.monitoring.SqlStatisticsFilter;
+import com.bank.app.account_service.monitoring.SqlStatsEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL instrumentation: per-endpoint statement counts, entity loads, flushes and JDBC time, slow query logging and
+ * detection of requests issuing too many statements, exposed as {@code account.sql.*} metrics and {@code /actuator/sqlstats}.
+ * Replaces {@code spring.jpa.show-sql}, which logs every statement without timing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public SqlStatistics sqlStatistics(MeterRegistry meterRegistry,
+                                       @Value("${account.sql.max-statements-per-request:20}") int maxStatementsPerRequest,
+                                       @Value("${account.sql.slow-query-threshold-ms:100}") long slowQueryThresholdMillis) {
+        SqlStatistics sqlStatistics = new SqlStatistics(meterRegistry, maxStatementsPerRequest,
+                TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis));
+        sqlStatistics.trackTasks();
+        return sqlStatistics;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlInstrumentationHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadInterceptor());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlSessionEventListener.class.getName());
+            // Session factory totals for the actuator endpoint and the hibernate.* metrics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlStatistics sqlStatistics,
+                                                                           @Value("${account.sql.slow-query-threshold-ms:100}") long slowQueryThresholdMillis) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(sqlStatistics, TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public SqlStatsEndpoint sqlStatsEndpoint(SqlStatistics sqlStatistics, EntityManagerFactory entityManagerFactory) {
+        return new SqlStatsEndpoint(sqlStatistics, entityManagerFactory);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.app.account_service.config;
+
+import brave.Tracer;
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import com.bank.app.account_service.tracing.AdaptiveSampler;
+import com.bank.app.account_service.tracing.InvestigatedAccountTagger;
+import com.bank.app.account_service.tracing.TailSamplingSpanHandler;
+import com.bank.app.account_service.tracing.TraceSamplingEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import zipkin2.Span;
+import zipkin2.reporter.Reporter;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Adaptive trace sampling, replacing {@code management.tracing.sampling.probability}: new traces are sampled by
+ * probability under a rate limit, and spans of unsampled traces are still reported when they end with an error,
+ * are slow, or concern an account under investigation. The rules can be changed at runtime through
+ * {@code /actuator/tracesampling}.
+ */
+@Configuration
+@ConditionalOnEnabledTracing
+@ConditionalOnProperty(name = "account.tracing.sampler.enabled", havingValue = "true", matchIfMissing = true)
+public class TraceSamplingConfig {
+
+    /** Replaces the probability sampler of the Brave auto-configuration. */
+    @Bean
+    public AdaptiveSampler adaptiveSampler(@Value("${account.tracing.sampler.probability:0.1}") float probability,
+                                           @Value("${account.tracing.sampler.traces-per-second:100}") int tracesPerSecond,
+                                           @Value("${account.tracing.sampler.latency-threshold-ms:500}") long latencyThresholdMillis,
+                                           @Value("${account.tracing.sampler.sample-errors:true}") boolean sampleErrors,
+                                           @Value("${account.tracing.sampler.accounts:}") Set<String> accounts,
+                                           MeterRegistry meterRegistry) {
+        return new AdaptiveSampler(new AdaptiveSampler.Rules(probability, tracesPerSecond,
+                Duration.ofMillis(latencyThresholdMillis), sampleErrors, accounts), meterRegistry);
+    }
+
+    /** Records spans of unsampled traces locally so that the tail rules can see them; they are still not reported. */
+    @Bean
+    public TracingCustomizer alwaysSampleLocalTracingCustomizer() {
+        return builder -> builder.alwaysSampleLocal();
+    }
+
+    @Bean
+    public TailSamplingSpanHandler tailSamplingSpanHandler(AdaptiveSampler adaptiveSampler,
+                                                           ObjectProvider<Reporter<Span>> spanReporter,
+                                                           MeterRegistry meterRegistry) {
+        Reporter<Span> reporter = spanReporter.getIfAvailable();
+        SpanHandler reportingHandler = reporter == null
+                ? SpanHandler.NOOP
+                : ZipkinSpanHandler.newBuilder(reporter).alwaysReportSpans(true).build();
+        return new TailSamplingSpanHandler(adaptiveSampler, reportingHandler, meterRegistry);
+    }
+
+    @Bean
+    public InvestigatedAccountTagger investigatedAccountTagger(AdaptiveSampler adaptiveSampler, Tracer tracer) {
+        return new InvestigatedAccountTagger(adaptiveSampler, tracer);
+    }
+
+    @Bean
+    public WebMvcConfigurer investigatedAccountInterceptorConfigurer(InvestigatedAccountTagger investigatedAccountTagger) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(investigatedAccountTagger);
+            }
+        };
+    }
+
+    @Bean
+    public TraceSamplingEndpoint traceSamplingEndpoint(AdaptiveSampler adaptiveSampler) {
+        return new TraceSamplingEndpoint(adaptiveSampler);
+    }
+}
@@ -1,21 +1,35 @@
 package com.bank.app.account_service.controller;
 
+import com.bank.app.account_service.dto.TransactionPage;
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.dto.TransactionSubmission;
 import com.bank.app.account_service.entity.Transaction;
 import com.bank.app.account_service.exception.AccountNotFoundException;
 import com.bank.app.account_service.exception.InsufficientFundsException;
-import com.bank.app.account_service.repo.TransactionRepository;
 import com.bank.app.account_service.service.AccountService;
+import com.bank.app.account_service.service.AsyncTransactionSubmitter;
+import com.bank.app.account_service.service.GroupCommitter;
+import com.bank.app.account_service.service.TransactionExportService;
+import com.bank.app.account_service.service.TransactionHistoryService;
 import com.bank.core.entity.TransactionRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/account")
@@ -25,12 +39,26 @@ public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     private final AccountService accountService;
-    private final TransactionRepository transactionRepository;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionExportService transactionExportService;
+
+    @Value("${account.transactions.batch.max-size:5000}")
+    private int maxBatchSize = 5000;
+
+    // Only present when account.group-commit.enabled=true
+    private final GroupCommitter groupCommitter;
+
+    // Absent when account.async.enabled=false
+    private final AsyncTransactionSubmitter asyncTransactionSubmitter;
 
     @Autowired
-    public TransactionController(AccountService accountService, TransactionRepository transactionRepository) {
+    public TransactionController(AccountService accountService, TransactionHistoryService transactionHistoryService, TransactionExportService transactionExportService,
+                                 Optional<GroupCommitter> groupCommitter, Optional<AsyncTransactionSubmitter> asyncTransactionSubmitter) {
         this.accountService = accountService;
-        this.transactionRepository = transactionRepository;
+        this.transactionHistoryService = transactionHistoryService;
+        this.transactionExportService = transactionExportService;
+        this.groupCommitter = groupCommitter.orElse(null);
+        this.asyncTransactionSubmitter = asyncTransactionSubmitter.orElse(null);
     }
 
     /**
@@ -43,17 +71,23 @@ public class TransactionController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction performed successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Account not found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Group commit queue full, retry later")
     })
     public ResponseEntity<String> performTransaction(@RequestBody TransactionRequest transactionRequest) {
         logger.info("Performing transaction for account: {}", transactionRequest.getAccountNumber());
         try {
-            String result = accountService.processTransaction(transactionRequest);
+            String result = groupCommitter != null
+                    ? groupCommitter.process(transactionRequest)
+                    : accountService.processTransaction(transactionRequest);
             logger.info("Transaction performed successfully for account: {}", transactionRequest.getAccountNumber());
             return ResponseEntity.ok(result);
         } catch (AccountNotFoundException | InsufficientFundsException | IllegalArgumentException e) {
             logger.error("Error performing transaction for account: {}", transactionRequest.getFromAccount(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Group commit queue full, rejecting transaction for account: {}", transactionRequest.getAccountNumber());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Unexpected error performing transaction for account: {}", transactionRequest.getFromAccount(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred");
@@ -87,6 +121,80 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Submit a transaction (credit or withdraw) for asynchronous processing.
+     * @param transactionRequest The transaction request details.
+     * @return A 202 response with the transaction id and a Location header pointing at its status.
+     */
+    @PostMapping("/transaction/async")
+    @Operation(summary = "Submit a transaction", description = "Validate and queue a credit or withdrawal, returning before it is applied", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Transaction accepted, see its status"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input or account not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Asynchronous submission disabled"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Submission queue full, retry later")
+    })
+    public ResponseEntity<?> submitTransaction(@RequestBody TransactionRequest transactionRequest) {
+        logger.info("Submitting transaction for account: {}", transactionRequest.getAccountNumber());
+        return submit(() -> asyncTransactionSubmitter.submitTransaction(transactionRequest));
+    }
+
+    /**
+     * Submit a transfer between accounts for asynchronous processing.
+     * @param transactionRequest The transaction request details.
+     * @return A 202 response with the transaction id and a Location header pointing at its status.
+     */
+    @PostMapping("/transactions/async")
+    @Operation(summary = "Submit a transfer", description = "Validate and queue a transfer, returning before it is applied", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Transfer accepted, see its status"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input or account not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Asynchronous submission disabled"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Submission queue full, retry later")
+    })
+    public ResponseEntity<?> submitTransfer(@RequestBody TransactionRequest transactionRequest) {
+        logger.info("Submitting transfer from account: {}", transactionRequest.getFromAccount());
+        return submit(() -> asyncTransactionSubmitter.submitTransfer(transactionRequest));
+    }
+
+    /**
+     * Get the status of an asynchronously submitted transaction.
+     * @param transactionId The transaction id returned on submission.
+     * @return A response entity with the status.
+     */
+    @GetMapping("/transactions/async/{transactionId}")
+    @Operation(summary = "Get the status of a submitted transaction", description = "PENDING until processed, then SUCCEEDED, REJECTED or FAILED", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Status fetched successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Unknown or expired transaction id")
+    })
+    public ResponseEntity<TransactionSubmission> getSubmissionStatus(@PathVariable String transactionId) {
+        if (asyncTransactionSubmitter == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return asyncTransactionSubmitter.status(transactionId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Perform a batch of transactions (credits and withdrawals) in one database transaction.
+     * @param transactionRequests The transaction requests, applied in order.
+     * @return A response entity with one result per request.
+     */
+    @PostMapping("/transactions/batch")
+    @Operation(summary = "Perform a batch of transactions", description = "Apply credits and withdrawals in one database transaction and report the result of each", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed, see the status of each item"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<TransactionResult>> performTransactionBatch(@RequestBody List<TransactionRequest> transactionRequests) {
+        if (transactionRequests == null || transactionRequests.isEmpty() || transactionRequests.size() > maxBatchSize) {
+            logger.warn("Rejected transaction batch of size {}", transactionRequests == null ? 0 : transactionRequests.size());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        logger.info("Performing batch of {} transactions", transactionRequests.size());
+        List<TransactionResult> results = accountService.processTransactionBatch(transactionRequests);
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * Get transactions by account number.
      * @param accountNumber The account number.
@@ -99,7 +207,7 @@ public class TransactionController {
     })
     public ResponseEntity<List<Transaction>> getTransactions(@PathVariable String accountNumber) {
         logger.info("Fetching transactions for account number: {}", accountNumber);
-        List<Transaction> transactions = transactionRepository.findByAccountNumber(accountNumber);
+        List<Transaction> transactions = transactionHistoryService.getAll(accountNumber);
         if (transactions == null || transactions.isEmpty()) {
             logger.warn("No transactions found for account number: {}", accountNumber);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -107,4 +215,67 @@ public class TransactionController {
         logger.info("Transactions fetched successfully for account number: {}", accountNumber);
         return ResponseEntity.ok(transactions);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get one page of transactions by account number, newest first.
+     * @param accountNumber The account number.
+     * @param limit The maximum number of transactions to return.
+     * @param cursor The next-page cursor returned by the previous call, omitted for the first page.
+     * @return A response entity with the page and the cursor of the next page.
+     */
+    @GetMapping("/transaction/{accountNumber}/page")
+    @Operation(summary = "Get a page of transactions by account number", description = "Keyset-paginated transaction history, newest first", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions fetched successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit or cursor")
+    })
+    public ResponseEntity<TransactionPage> getTransactionPage(@PathVariable String accountNumber,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String cursor) {
+        logger.info("Fetching transaction page for account number: {}", accountNumber);
+        TransactionPage page = transactionHistoryService.getPage(accountNumber, limit, cursor);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Export all transactions of an account as NDJSON or CSV, streamed row by row.
+     * @param accountNumber The account number.
+     * @param format The export format (ndjson or csv).
+     * @return A streaming response with the transactions, oldest first.
+     */
+    @GetMapping("/transaction/{accountNumber}/export")
+    @Operation(summary = "Export transactions by account number", description = "Streams the full transaction history as NDJSON or CSV", responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions streamed successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable String accountNumber,
+                                                                    @RequestParam(defaultValue = "ndjson") String format) {
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.fromName(format);
+        logger.info("Starting transaction export for account number: {}", accountNumber);
+        StreamingResponseBody body = outputStream -> transactionExportService.export(accountNumber, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + accountNumber + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<?> submit(Supplier<TransactionSubmission> submission) {
+        if (asyncTransactionSubmitter == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Asynchronous submission is disabled");
+        }
+        try {
+            TransactionSubmission pending = submission.get();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/account/transactions/async/" + pending.getTransactionId()))
+                    .body(pending);
+        } catch (AccountNotFoundException | IllegalArgumentException e) {
+            logger.error("Rejected transaction submission: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Asynchronous transaction queue full, rejecting submission");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.app.account_service.dto;
+
+import com.bank.app.account_service.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one transaction command consumed from Kafka, published on the result topic keyed by account number.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionCommandResult {
+    private String commandId;                   // topic-partition@offset of the command
+    private String accountNumber;
+    private TransactionResult.Status status;
+    private String message;
+    private Money balanceAfterTransaction; // Only set on success
+
+    public static TransactionCommandResult of(String commandId, TransactionResult result) {
+        return new TransactionCommandResult(commandId, result.getAccountNumber(), result.getStatus(), result.getMessage(),
+                result.getBalanceAfterTransaction());
+    }
+}
@@ -0,0 +1,39 @@
+package com.bank.app.account_service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a transaction history ordered by (timestamp, id), encoded as an opaque URL-safe token.
+ */
+public record TransactionCursor(LocalDateTime timestamp, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     * @return The token.
+     */
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @param token The token.
+     * @return The cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bank.app.account_service.dto;
+
+import com.bank.app.account_service.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history, newest first.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private String nextCursor;      // Pass back as 'cursor' to fetch the next page, null on the last page
+}
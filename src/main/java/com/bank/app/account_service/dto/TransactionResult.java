@@ -0,0 +1,35 @@
+package com.bank.app.account_service.dto;
+
+import com.bank.app.account_service.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a transaction batch.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResult {
+    private int index;                          // Position of the request in the submitted batch
+    private String accountNumber;
+    private Status status;
+    private String message;
+    private Money balanceAfterTransaction; // Only set on success
+
+    public enum Status {
+        SUCCESS,
+        ACCOUNT_NOT_FOUND,
+        INSUFFICIENT_FUNDS,
+        INVALID_REQUEST
+    }
+
+    public static TransactionResult success(int index, String accountNumber, Money balanceAfterTransaction) {
+        return new TransactionResult(index, accountNumber, Status.SUCCESS, "Transaction successful", balanceAfterTransaction);
+    }
+
+    public static TransactionResult failure(int index, String accountNumber, Status status, String message) {
+        return new TransactionResult(index, accountNumber, status, message, null);
+    }
+}
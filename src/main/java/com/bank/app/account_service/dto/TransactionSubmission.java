@@ -0,0 +1,39 @@
+package com.bank.app.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a transaction submitted for asynchronous processing, as returned with the 202 response and by the
+ * status lookup.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSubmission {
+    private String transactionId;
+    private String operation;                   // credit, withdraw or transfer
+    private String accountNumber;               // The debited account for transfers
+    private State state;
+    private String message;                     // Result message once completed
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public enum State {
+        PENDING,
+        SUCCEEDED,
+        REJECTED,                               // Account not found, insufficient funds or invalid request
+        FAILED                                  // Unexpected error, the outcome should be checked before retrying
+    }
+
+    public static TransactionSubmission pending(String transactionId, String operation, String accountNumber) {
+        return new TransactionSubmission(transactionId, operation, accountNumber, State.PENDING, null, LocalDateTime.now(), null);
+    }
+
+    public TransactionSubmission complete(State state, String message) {
+        return new TransactionSubmission(transactionId, operation, accountNumber, state, message, submittedAt, LocalDateTime.now());
+    }
+}
@@ -5,7 +5,6 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
@@ -25,7 +24,7 @@ public class Account {
     private String accountType;
 
     @Column(nullable = false)
-    private BigDecimal balance;
+    private Money balance;
 
     @Column(nullable = false)
     @CreationTimestamp
@@ -0,0 +1,35 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One sub-balance of a hot account. Slot 0 is the balance column of the account row itself, so an account split
+ * into N slots has N-1 of these rows and its balance is the account balance plus all of them.
+ */
+@Entity
+@Table(name = "account_balance_slot", uniqueConstraints =
+        @UniqueConstraint(name = "uk_account_balance_slot", columnNames = {"account_number", "slot"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountBalanceSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private int slot;           // 1..N-1
+
+    @Column(nullable = false)
+    private Money balance;
+
+    public AccountBalanceSlot(String accountNumber, int slot, Money balance) {
+        this.accountNumber = accountNumber;
+        this.slot = slot;
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Hi-lo allocation state for account numbers: each instance leases a block of numbers
+ * by advancing nextValue, then hands them out from memory.
+ */
+@Entity
+@Table(name = "account_number_blocks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNumberBlock {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long nextValue;     // First value of the next block to lease
+}
@@ -0,0 +1,22 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Write-behind progress of the in-memory ledger of one node: every journal record up to lastSequence has been
+ * applied to the database. Updated in the same transaction as the records it covers.
+ */
+@Entity
+@Table(name = "ledger_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+    @Id
+    private String nodeId;
+
+    @Column(nullable = false)
+    private long lastSequence;
+}
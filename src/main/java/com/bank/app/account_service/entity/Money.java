@@ -0,0 +1,122 @@
+package com.bank.app.account_service.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money held as a long count of minor units (cents), used for balances and transaction amounts so that
+ * balance arithmetic neither allocates nor rounds. Arithmetic throws {@link ArithmeticException} on overflow.
+ * <p>
+ * Converts losslessly to and from the {@link BigDecimal} amounts of the core {@code TransactionRequest}: amounts
+ * with more than {@link #SCALE} decimal places, or too large for a long, are rejected instead of rounded. JSON uses
+ * the same number as before, and {@link MoneyConverter} stores it in the existing decimal columns.
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Decimal places of the minor unit. */
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * @param minorUnits The amount in minor units, e.g. 1050 for 10.50.
+     * @return The amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Converts a decimal amount.
+     * @param amount The amount, with at most {@link #SCALE} significant decimal places.
+     * @return The amount.
+     * @throws IllegalArgumentException If the amount has more decimal places or does not fit in a long of minor units.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " cannot be represented in minor units", e);
+        }
+    }
+
+    /**
+     * @param amount A decimal amount such as "10.50".
+     * @return The amount.
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * @param amount A decimal amount, may be null.
+     * @return Whether {@link #of} accepts the amount.
+     */
+    public static boolean isRepresentable(BigDecimal amount) {
+        if (amount == null) {
+            return false;
+        }
+        // Cheap checks first; bitLength covers the long range of the unscaled value at scale 2
+        if (amount.scale() > SCALE && amount.stripTrailingZeros().scale() > SCALE) {
+            return false;
+        }
+        return amount.setScale(SCALE, RoundingMode.DOWN).unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money money && money.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * @return The amount as a plain decimal string, e.g. "10.50".
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event the relay gave up on: it kept failing to publish for a reason retrying does not fix, such as a
+ * payload that cannot be read or a record the broker rejects. Moved here so the rest of its shard can drain; it can
+ * be inspected and re-inserted into the outbox by hand.
+ */
+@Entity
+@Table(name = "outbox_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long outboxId;          // Id of the event in outbox_events
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String payloadType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    /**
+     * @param event The event given up on.
+     * @param error The last publish failure.
+     * @return The dead letter holding the event.
+     */
+    public static OutboxDeadLetter of(OutboxEvent event, Throwable error) {
+        String message = String.valueOf(error);
+        return OutboxDeadLetter.builder()
+                .outboxId(event.getId())
+                .topic(event.getTopic())
+                .messageKey(event.getMessageKey())
+                .eventType(event.getEventType())
+                .payloadType(event.getPayloadType())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .failedAt(LocalDateTime.now())
+                .error(message.length() > 1000 ? message.substring(0, 1000) : message)
+                .build();
+    }
+}
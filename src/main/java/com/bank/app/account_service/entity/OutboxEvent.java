@@ -0,0 +1,60 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event waiting to be published to Kafka. Rows are written in the same database transaction as the
+ * change they describe and deleted by the outbox relay once the broker has acknowledged them.
+ * <p>
+ * Each event belongs to a shard derived from its message key, and the relay publishes a shard strictly in id
+ * order, so events with the same key reach Kafka in the order they were written.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_shard_id", columnList = "shard, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    /**
+     * Number of shards. Stored with every row, so changing it reorders events written before the change.
+     */
+    public static final int SHARDS = 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String messageKey;
+
+    @Column(nullable = false)
+    private int shard;              // shardOf(messageKey)
+
+    @Column(nullable = false)
+    private String eventType;       // Sent as a record header
+
+    @Column(nullable = false)
+    private String payloadType;     // Class of the payload, so the relay sends the same object the producer built
+
+    @Column(nullable = false, length = 4000)
+    private String payload;         // Payload serialized as JSON
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * @param messageKey The Kafka message key, may be null.
+     * @return The shard of events with that key.
+     */
+    public static int shardOf(String messageKey) {
+        return messageKey == null ? 0 : Math.floorMod(messageKey.hashCode(), SHARDS);
+    }
+}
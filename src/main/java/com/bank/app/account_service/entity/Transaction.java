@@ -2,34 +2,46 @@ package com.bank.app.account_service.entity;
 
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_ts_id", columnList = "account_number, timestamp, id")
+})
 public class Transaction {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A pooled sequence instead of IDENTITY, so Hibernate can batch inserts of new transactions.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = Transaction.ID_ALLOCATION_SIZE)
     private Long id;
 
+    @Column(name = "account_number")
     private String accountNumber;
 
     private String type; // "DEPOSIT", "WITHDRAWAL"
-    private BigDecimal amount;
-    private BigDecimal balanceAfterTransaction;
+    private Money amount;
+    private Money balanceAfterTransaction;
     private LocalDateTime timestamp;
 
+    // Set on the legs projected from a TransferJournal row, omitted from JSON for plain transactions
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long transferId;
+
     public Transaction() {}
 
-    public Transaction(String accountNumber, String type, BigDecimal amount, BigDecimal balanceAfterTransaction) {
+    public Transaction(String accountNumber, String type, Money amount, Money balanceAfterTransaction) {
         this.accountNumber = accountNumber;
         this.type = type;
         this.amount = amount;
@@ -0,0 +1,77 @@
+package com.bank.app.account_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One transfer between two accounts, recorded as a single double-entry row: the debit leg on the source account and
+ * the credit leg on the beneficiary account. The id is the transfer id. It is drawn from the transactions sequence,
+ * so the legs projected by {@link #legFor} sort and paginate together with the {@link Transaction} rows.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "transfer_journal", indexes = {
+        @Index(name = "idx_transfer_journal_from_ts_id", columnList = "from_account_number, timestamp, id"),
+        @Index(name = "idx_transfer_journal_to_ts_id", columnList = "to_account_number, timestamp, id")
+})
+public class TransferJournal {
+
+    public static final String DEBIT_TYPE = "WITHDRAW";
+    public static final String CREDIT_TYPE = "CREDIT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_journal_seq")
+    @SequenceGenerator(name = "transfer_journal_seq", sequenceName = "transactions_seq", allocationSize = Transaction.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "from_account_number", nullable = false)
+    private String fromAccountNumber;
+
+    @Column(name = "to_account_number", nullable = false)
+    private String toAccountNumber;
+
+    @Column(nullable = false)
+    private Money amount;
+
+    @Column(nullable = false)
+    private Money fromBalanceAfter;
+
+    @Column(nullable = false)
+    private Money toBalanceAfter;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    public TransferJournal() {}
+
+    public TransferJournal(String fromAccountNumber, String toAccountNumber, Money amount, Money fromBalanceAfter, Money toBalanceAfter) {
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.fromBalanceAfter = fromBalanceAfter;
+        this.toBalanceAfter = toBalanceAfter;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    /**
+     * Projects the leg of one account as a transaction: WITHDRAW for the source account, CREDIT for the beneficiary.
+     * The projection is not managed and carries the transfer id.
+     * @param accountNumber The source or the beneficiary account.
+     * @return The leg.
+     */
+    public Transaction legFor(String accountNumber) {
+        boolean debit = accountNumber.equals(fromAccountNumber);
+        if (!debit && !accountNumber.equals(toAccountNumber)) {
+            throw new IllegalArgumentException("Account " + accountNumber + " is not part of transfer " + id);
+        }
+        Transaction leg = new Transaction(accountNumber, debit ? DEBIT_TYPE : CREDIT_TYPE, amount, debit ? fromBalanceAfter : toBalanceAfter);
+        leg.setId(id);
+        leg.setTimestamp(timestamp);
+        leg.setTransferId(id);
+        return leg;
+    }
+}
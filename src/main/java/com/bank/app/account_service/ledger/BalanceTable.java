@@ -0,0 +1,64 @@
+package com.bank.app.account_service.ledger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Balances of the active accounts, in minor units, split into lock stripes by account number hash. A mutation
+ * holds the lock of its account's stripe (a transfer holds both stripes, lower index first), so operations on
+ * accounts in different stripes never wait for each other.
+ */
+final class BalanceTable {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    BalanceTable(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        this.mask = size - 1;
+    }
+
+    Stripe stripe(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.balances.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    static final class Stripe {
+        final int index;
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Balance> balances = new HashMap<>();
+
+        Stripe(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The balance of one account; only read or written with its stripe locked.
+     */
+    static final class Balance {
+        long minorUnits;
+
+        Balance(long minorUnits) {
+            this.minorUnits = minorUnits;
+        }
+    }
+}
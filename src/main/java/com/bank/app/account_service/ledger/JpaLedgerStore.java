@@ -0,0 +1,166 @@
+package com.bank.app.account_service.ledger;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.LedgerCheckpoint;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.bank.app.account_service.repo.LedgerCheckpointRepository;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.bank.app.account_service.service.AccountCache;
+import com.bank.app.account_service.service.AccountEventProducer;
+import com.bank.app.account_service.service.HotAccountBalances;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * {@link LedgerStore} on the service's own tables. A flush applies the net balance change of each account, inserts
+ * the {@link Transaction} and {@link TransferJournal} rows, queues the same outbox events the database path would
+ * and advances the node's {@link LedgerCheckpoint}, all in one transaction.
+ */
+public class JpaLedgerStore implements LedgerStore {
+
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private final String nodeId;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferJournalRepository transferJournalRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final AccountEventProducer accountEventProducer;
+    private final AccountCache accountCache;
+    private final HotAccountBalances hotAccountBalances;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaLedgerStore(String nodeId, AccountRepository accountRepository, TransactionRepository transactionRepository,
+                          TransferJournalRepository transferJournalRepository, LedgerCheckpointRepository checkpointRepository,
+                          AccountEventProducer accountEventProducer, AccountCache accountCache,
+                          HotAccountBalances hotAccountBalances, PlatformTransactionManager transactionManager) {
+        this.nodeId = nodeId;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transferJournalRepository = transferJournalRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.accountEventProducer = accountEventProducer;
+        this.accountCache = accountCache;
+        this.hotAccountBalances = hotAccountBalances;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long checkpoint() {
+        return checkpointRepository.findById(nodeId).map(LedgerCheckpoint::getLastSequence).orElse(0L);
+    }
+
+    @Override
+    public Optional<Money> loadBalance(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(account -> account.getBalance().plus(hotAccountBalances.slotTotal(accountNumber)));
+    }
+
+    @Override
+    public void flush(List<LedgerRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LedgerCheckpoint checkpoint = checkpointRepository.findForUpdate(nodeId)
+                    .orElseGet(() -> new LedgerCheckpoint(nodeId, 0));
+            // A retried batch may have been committed already; the checkpoint says which records were.
+            List<LedgerRecord> pending = records.stream()
+                    .filter(record -> record.sequence() > checkpoint.getLastSequence())
+                    .toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // Net change per account, applied in account number order like every other multi-row update.
+            SortedMap<String, Long> deltas = new TreeMap<>();
+            for (LedgerRecord record : pending) {
+                switch (record.type()) {
+                    case CREDIT -> deltas.merge(record.accountNumber(), record.amount(), Long::sum);
+                    case WITHDRAW -> deltas.merge(record.accountNumber(), -record.amount(), Long::sum);
+                    case TRANSFER -> {
+                        deltas.merge(record.accountNumber(), -record.amount(), Long::sum);
+                        deltas.merge(record.counterparty(), record.amount(), Long::sum);
+                    }
+                }
+            }
+            Map<String, Account> accounts = new HashMap<>();
+            List<String> accountNumbers = new ArrayList<>(deltas.keySet());
+            for (int from = 0; from < accountNumbers.size(); from += LOCK_CHUNK_SIZE) {
+                List<String> chunk = accountNumbers.subList(from, Math.min(from + LOCK_CHUNK_SIZE, accountNumbers.size()));
+                for (Account account : accountRepository.findAllByAccountNumberForUpdate(chunk)) {
+                    accounts.put(account.getAccountNumber(), account);
+                }
+            }
+            deltas.forEach((accountNumber, delta) -> {
+                if (delta != 0) {
+                    accountRepository.adjustBalance(accountNumber, BigDecimal.valueOf(delta, Money.SCALE));
+                }
+            });
+
+            List<Transaction> transactions = new ArrayList<>();
+            List<TransferJournal> transfers = new ArrayList<>();
+            List<TransactionRequest> events = new ArrayList<>();
+            for (LedgerRecord record : pending) {
+                LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault());
+                Money amount = Money.ofMinor(record.amount());
+                if (record.type() == LedgerRecord.Type.TRANSFER) {
+                    TransferJournal transfer = new TransferJournal(record.accountNumber(), record.counterparty(), amount,
+                            Money.ofMinor(record.balanceAfter()), Money.ofMinor(record.counterpartyBalanceAfter()));
+                    transfer.setTimestamp(timestamp);
+                    transfers.add(transfer);
+                    events.add(event(TransactionType.WITHDRAW, record.accountNumber(), record, amount,
+                            record.balanceAfter(), accounts.get(record.accountNumber())));
+                    events.add(event(TransactionType.CREDIT, record.counterparty(), record, amount,
+                            record.counterpartyBalanceAfter(), accounts.get(record.counterparty())));
+                } else {
+                    Transaction transaction = new Transaction(record.accountNumber(), record.type().name(), amount,
+                            Money.ofMinor(record.balanceAfter()));
+                    transaction.setTimestamp(timestamp);
+                    transactions.add(transaction);
+                    events.add(event(TransactionType.valueOf(record.type().name()), record.accountNumber(), record, amount,
+                            record.balanceAfter(), accounts.get(record.accountNumber())));
+                }
+            }
+            transactionRepository.saveAll(transactions);
+            transferJournalRepository.saveAll(transfers);
+            accountEventProducer.sendWithdrawOrCreditBalanceMessages(events);
+
+            checkpoint.setLastSequence(pending.get(pending.size() - 1).sequence());
+            checkpointRepository.save(checkpoint);
+            accounts.values().forEach(accountCache::evict);
+        });
+    }
+
+    private static TransactionRequest event(TransactionType type, String accountNumber, LedgerRecord record, Money amount,
+                                            long balanceAfter, Account account) {
+        TransactionRequest event = new TransactionRequest();
+        event.setType(type);
+        event.setAccountNumber(accountNumber);
+        boolean transfer = record.type() == LedgerRecord.Type.TRANSFER;
+        event.setFromAccount(transfer ? record.accountNumber() : accountNumber);
+        event.setToAccount(transfer ? record.counterparty() : accountNumber);
+        event.setAmount(amount.toBigDecimal());
+        event.setBalanceAfterTransaction(Money.ofMinor(balanceAfter).toBigDecimal());
+        if (account != null) {
+            event.setUserName(account.getUserName());
+            event.setEmail(account.getEmail());
+        }
+        return event;
+    }
+}
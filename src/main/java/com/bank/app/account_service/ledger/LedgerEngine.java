@@ -0,0 +1,365 @@
+package com.bank.app.account_service.ledger;
+
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory balance ledger with write-behind persistence, for workloads where a database round trip per credit is
+ * too slow.
+ * <p>
+ * Balances of active accounts live in a {@link BalanceTable} striped by account number. A mutation checks and
+ * updates the balance under its stripe lock, appends a {@link LedgerRecord} to the {@link LedgerJournal} and returns
+ * once the journal's group fsync has made the record durable. The wait is bounded: a call that times out has already
+ * changed the balance and its record may still be written and applied, so the error says the outcome is unknown
+ * rather than that the mutation failed. A flusher thread applies durable records to the {@link LedgerStore} in
+ * batches (balances, transaction rows, events and the checkpoint in one database transaction) and deletes journal
+ * segments the checkpoint has passed.
+ * <p>
+ * A failed flush is retried first on the next run, so it holds back every later record. Once the same batch has
+ * failed {@code flushMaxAttempts} times in a row the engine is unhealthy and rejects mutations until a flush
+ * succeeds; mutations are also rejected while {@code maxBacklog} durable records wait for the database. Either way
+ * the backlog and the journal on disk stop growing.
+ * <p>
+ * On start the records after the database checkpoint are replayed into the database before any mutation is
+ * accepted, so an account's stored balance is current when it is first loaded into the table. Accounts stay in the
+ * table until shutdown. The table is the only writer of the balances it holds: each account must be served by a
+ * single instance, and every balance mutation of the service has to go through the ledger while it is enabled.
+ */
+public class LedgerEngine implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final LedgerStore store;
+    private final LedgerJournal journal;
+    private final BalanceTable table;
+    private final BlockingQueue<LedgerRecord> durableRecords = new LinkedBlockingQueue<>();
+    private final long flushIntervalMillis;
+    private final int flushBatchSize;
+    private final long durableTimeoutMillis;
+    private final int flushMaxAttempts;
+    private final int maxBacklog;
+    private final Timer durableWait;
+    private final Counter flushFailures;
+    private List<LedgerRecord> retry = List.of();
+    private int retryAttempts;
+    private volatile boolean flushStuck;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public LedgerEngine(LedgerStore store, Path directory, int stripes, long segmentBytes, int journalBatchSize,
+                        long flushIntervalMillis, int flushBatchSize, long durableTimeoutMillis, int flushMaxAttempts,
+                        int maxBacklog, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.journal = new LedgerJournal(directory, segmentBytes, journalBatchSize, durableRecords::addAll);
+        this.table = new BalanceTable(stripes);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.durableTimeoutMillis = durableTimeoutMillis;
+        this.flushMaxAttempts = Math.max(1, flushMaxAttempts);
+        this.maxBacklog = Math.max(1, maxBacklog);
+        this.durableWait = Timer.builder("account.ledger.durable.wait")
+                .description("Time from journal append until the record was fsynced")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("account.ledger.flush.failures")
+                .description("Write-behind flushes that failed and will be retried")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.ledger.journal.fsyncs", journal, LedgerJournal::fsyncCount)
+                .description("Journal fsync calls; records per fsync is the group commit factor")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.ledger.journal.records", journal, LedgerJournal::recordCount)
+                .description("Records written to the journal")
+                .register(meterRegistry);
+        Gauge.builder("account.ledger.flush.backlog", durableRecords, BlockingQueue::size)
+                .description("Durable records not yet flushed to the database")
+                .register(meterRegistry);
+        Gauge.builder("account.ledger.accounts", table, BalanceTable::size)
+                .description("Accounts held in the in-memory ledger")
+                .register(meterRegistry);
+        Gauge.builder("account.ledger.healthy", this, engine -> engine.isHealthy() ? 1 : 0)
+                .description("1 while the ledger accepts mutations, 0 once its journal or its flushes have failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays the journal records after the database checkpoint into the database, then starts accepting mutations.
+     * @throws IOException if the journal cannot be read or opened.
+     */
+    public void start() throws IOException {
+        long checkpoint = store.checkpoint();
+        List<LedgerRecord> unapplied = journal.recover(checkpoint);
+        for (int from = 0; from < unapplied.size(); from += flushBatchSize) {
+            store.flush(unapplied.subList(from, Math.min(from + flushBatchSize, unapplied.size())));
+        }
+        logger.info("Ledger recovered {} journal records after checkpoint {}", unapplied.size(), checkpoint);
+        journal.start();
+        running = true;
+        flusher = new Thread(this::runFlusher, "ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Credits an account.
+     * @param accountNumber The account number.
+     * @param amount The amount, positive.
+     * @return The balance after the credit.
+     * @throws AccountNotFoundException if the account does not exist.
+     */
+    public Money credit(String accountNumber, Money amount) {
+        return apply(LedgerRecord.Type.CREDIT, accountNumber, amount);
+    }
+
+    /**
+     * Debits an account.
+     * @param accountNumber The account number.
+     * @param amount The amount, positive.
+     * @return The balance after the debit.
+     * @throws AccountNotFoundException if the account does not exist.
+     * @throws InsufficientFundsException if the balance is lower than the amount.
+     */
+    public Money withdraw(String accountNumber, Money amount) {
+        return apply(LedgerRecord.Type.WITHDRAW, accountNumber, amount);
+    }
+
+    /**
+     * Moves an amount between two accounts as one journal record.
+     * @param fromAccountNumber The account to debit.
+     * @param toAccountNumber The account to credit, different from the source.
+     * @param amount The amount, positive.
+     * @return The balances of both accounts after the transfer.
+     * @throws AccountNotFoundException if either account does not exist.
+     * @throws InsufficientFundsException if the source balance is lower than the amount.
+     */
+    public TransferResult transfer(String fromAccountNumber, String toAccountNumber, Money amount) {
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account: " + fromAccountNumber);
+        }
+        checkAccepting();
+        BalanceTable.Stripe fromStripe = table.stripe(fromAccountNumber);
+        BalanceTable.Stripe toStripe = table.stripe(toAccountNumber);
+        BalanceTable.Balance from = load(fromStripe, fromAccountNumber, "Invalid from account No: ");
+        BalanceTable.Balance to = load(toStripe, toAccountNumber, "Invalid Beneficiary account No: ");
+        // Stripes are locked in index order, so opposite transfers cannot deadlock.
+        BalanceTable.Stripe first = fromStripe.index <= toStripe.index ? fromStripe : toStripe;
+        BalanceTable.Stripe second = first == fromStripe ? toStripe : fromStripe;
+        LedgerJournal.Pending pending;
+        first.lock.lock();
+        second.lock.lock();
+        try {
+            if (from.minorUnits < amount.minorUnits()) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+            long fromAfter = from.minorUnits - amount.minorUnits();
+            long toAfter = Math.addExact(to.minorUnits, amount.minorUnits());
+            pending = journal.append(LedgerRecord.Type.TRANSFER, fromAccountNumber, toAccountNumber, amount.minorUnits(),
+                    fromAfter, toAfter);
+            from.minorUnits = fromAfter;
+            to.minorUnits = toAfter;
+        } finally {
+            second.lock.unlock();
+            first.lock.unlock();
+        }
+        awaitDurable(pending);
+        LedgerRecord record = pending.record();
+        return new TransferResult(Money.ofMinor(record.balanceAfter()), Money.ofMinor(record.counterpartyBalanceAfter()));
+    }
+
+    /**
+     * @param accountNumber The account number.
+     * @return The balance held by the ledger, empty if the account is not active or the journal has failed.
+     */
+    public Optional<Money> balance(String accountNumber) {
+        if (journal.isFailed()) {
+            return Optional.empty();
+        }
+        BalanceTable.Stripe stripe = table.stripe(accountNumber);
+        stripe.lock.lock();
+        try {
+            BalanceTable.Balance balance = stripe.balances.get(accountNumber);
+            return balance == null ? Optional.empty() : Optional.of(Money.ofMinor(balance.minorUnits));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return Whether the journal is writable and the flusher keeps up with the database.
+     */
+    public boolean isHealthy() {
+        return !journal.isFailed() && !flushStuck;
+    }
+
+    /**
+     * @return Durable records not yet applied to the database.
+     */
+    public int backlog() {
+        return durableRecords.size();
+    }
+
+    /**
+     * Stops accepting mutations, syncs the journal and flushes every durable record to the database.
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(60));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Money apply(LedgerRecord.Type type, String accountNumber, Money amount) {
+        checkAccepting();
+        BalanceTable.Stripe stripe = table.stripe(accountNumber);
+        BalanceTable.Balance balance = load(stripe, accountNumber, "Account not found: ");
+        LedgerJournal.Pending pending;
+        stripe.lock.lock();
+        try {
+            long after;
+            if (type == LedgerRecord.Type.WITHDRAW) {
+                if (balance.minorUnits < amount.minorUnits()) {
+                    throw new InsufficientFundsException("Insufficient funds");
+                }
+                after = balance.minorUnits - amount.minorUnits();
+            } else {
+                after = Math.addExact(balance.minorUnits, amount.minorUnits());
+            }
+            pending = journal.append(type, accountNumber, null, amount.minorUnits(), after, 0);
+            balance.minorUnits = after;
+        } finally {
+            stripe.lock.unlock();
+        }
+        awaitDurable(pending);
+        return Money.ofMinor(pending.record().balanceAfter());
+    }
+
+    private void checkAccepting() {
+        if (flushStuck) {
+            throw new IllegalStateException("Ledger flushes keep failing, rejecting mutations until the database catches up");
+        }
+        if (durableRecords.size() >= maxBacklog) {
+            throw new IllegalStateException("Ledger flush backlog is full (" + maxBacklog + " records)");
+        }
+    }
+
+    private BalanceTable.Balance load(BalanceTable.Stripe stripe, String accountNumber, String notFoundMessage) {
+        stripe.lock.lock();
+        try {
+            BalanceTable.Balance balance = stripe.balances.get(accountNumber);
+            if (balance != null) {
+                return balance;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        // Read outside the stripe lock so a cold account does not block its stripe for a database round trip.
+        // The stored balance is current: accounts never leave the table and recovery ran before the first load.
+        Money stored = store.loadBalance(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(notFoundMessage + accountNumber));
+        stripe.lock.lock();
+        try {
+            return stripe.balances.computeIfAbsent(accountNumber, key -> new BalanceTable.Balance(stored.minorUnits()));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void awaitDurable(LedgerJournal.Pending pending) {
+        long start = System.nanoTime();
+        try {
+            pending.durable().get(durableTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the ledger journal", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ledger journal write failed", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Ledger journal did not confirm record " + pending.record().sequence()
+                    + " within " + durableTimeoutMillis + " ms; it may still be applied", e);
+        } finally {
+            durableWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void runFlusher() {
+        while (running) {
+            // Parked rather than sleeping, so close() can wake the flusher without interrupting a database call.
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+            flushDurable();
+        }
+        flushDurable();
+    }
+
+    /**
+     * Flushes the durable records to the store in batches. A failed batch is kept and retried first next time;
+     * the store skips records its checkpoint already covers, so a retry never applies a record twice. After
+     * {@code flushMaxAttempts} failures in a row the engine rejects mutations until the batch goes through.
+     */
+    synchronized void flushDurable() {
+        while (true) {
+            List<LedgerRecord> batch = retry;
+            if (batch.isEmpty()) {
+                batch = new ArrayList<>(flushBatchSize);
+                durableRecords.drainTo(batch, flushBatchSize);
+                if (batch.isEmpty()) {
+                    return;
+                }
+            }
+            try {
+                store.flush(batch);
+                retry = List.of();
+                retryAttempts = 0;
+                if (flushStuck) {
+                    flushStuck = false;
+                    logger.info("Ledger flush recovered, accepting mutations again");
+                }
+                journal.deleteThrough(batch.get(batch.size() - 1).sequence());
+            } catch (RuntimeException e) {
+                retry = batch;
+                retryAttempts++;
+                flushFailures.increment();
+                if (retryAttempts >= flushMaxAttempts && !flushStuck) {
+                    flushStuck = true;
+                    logger.error("Ledger flush of records {}-{} failed {} times, rejecting mutations until it succeeds",
+                            batch.get(0).sequence(), batch.get(batch.size() - 1).sequence(), retryAttempts, e);
+                } else {
+                    logger.error("Ledger flush of {} records failed, will retry", batch.size(), e);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Balances of both accounts after a transfer.
+     */
+    public record TransferResult(Money fromBalance, Money toBalance) {
+    }
+}
@@ -0,0 +1,345 @@
+package com.bank.app.account_service.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of {@link LedgerRecord}s in segment files named after their first sequence number.
+ * <p>
+ * Appends are queued and a single writer thread writes whatever has accumulated and then calls fsync once, so
+ * concurrent callers share one fsync (group commit). A record's future completes after its fsync. Each frame is
+ * {@code length, crc32, payload}; a torn frame at the end of the last segment is cut off on recovery, a bad frame
+ * anywhere else fails recovery. Segments whose records are all covered by the database checkpoint are deleted.
+ * <p>
+ * Any failure of the writer thread, or a writer that does not stop on {@link #close}, fails the journal: every
+ * record not yet acknowledged completes exceptionally and further appends are rejected.
+ * <p>
+ * Usage: {@link #recover} once, then {@link #start}, then {@link #append} from any thread, then {@link #close}.
+ */
+public class LedgerJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerJournal.class);
+    private static final String SUFFIX = ".journal";
+    private static final int MAX_FRAME = 4096;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final Consumer<List<LedgerRecord>> onDurable;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final Object appendLock = new Object();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private long lastSequence;
+    private boolean recovered;
+    private FileChannel channel;
+    private long segmentSize;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile Throwable failure;
+    // The batch the writer thread is working on, so a failure seen outside the writer can fail it too.
+    private volatile List<Pending> writing = List.of();
+
+    /**
+     * @param directory The journal directory, created if missing.
+     * @param segmentBytes Size after which a new segment file is started.
+     * @param maxBatch Maximum number of records written per fsync.
+     * @param onDurable Called by the writer thread with each batch of records after its fsync, in sequence order.
+     */
+    public LedgerJournal(Path directory, long segmentBytes, int maxBatch, Consumer<List<LedgerRecord>> onDurable) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.onDurable = onDurable;
+    }
+
+    /**
+     * Reads every segment, cuts off a torn tail and positions the sequence after the last record.
+     * @param checkpoint The last sequence already applied to the database.
+     * @return The records after the checkpoint, in sequence order.
+     * @throws IOException if a segment cannot be read or is corrupt before its end.
+     */
+    public List<LedgerRecord> recover(long checkpoint) throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> segments.put(firstSequenceOf(file), file));
+        }
+        List<LedgerRecord> unapplied = new ArrayList<>();
+        long last = checkpoint;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            boolean lastSegment = segment.getKey().equals(segments.lastKey());
+            for (LedgerRecord record : read(segment.getValue(), lastSegment)) {
+                last = Math.max(last, record.sequence());
+                if (record.sequence() > checkpoint) {
+                    unapplied.add(record);
+                }
+            }
+        }
+        // Never reuse a sequence the database has seen, even if the journal files were lost.
+        lastSequence = last;
+        recovered = true;
+        return unapplied;
+    }
+
+    /**
+     * Opens the last segment for appending and starts the writer thread.
+     * @throws IOException if the segment cannot be opened.
+     */
+    public void start() throws IOException {
+        if (!recovered) {
+            throw new IllegalStateException("recover() must be called before start()");
+        }
+        if (segments.isEmpty()) {
+            openSegment(lastSequence + 1);
+        } else {
+            Path file = segments.lastEntry().getValue();
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentSize = channel.size();
+        }
+        running = true;
+        writer = new Thread(this::run, "ledger-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Assigns the next sequence number and queues the record for the next fsync. Callers hold the lock of the
+     * accounts involved, so records of one account are journaled in the order they were applied.
+     * @return The queued record and a future completed once it is durable.
+     * @throws IllegalStateException if the journal is closed or a previous write failed.
+     */
+    public Pending append(LedgerRecord.Type type, String accountNumber, String counterparty, long amount,
+                          long balanceAfter, long counterpartyBalanceAfter) {
+        synchronized (appendLock) {
+            // Checked under the lock, so nothing is queued after close() and every queued record gets written.
+            if (!running || failure != null) {
+                throw new IllegalStateException("Ledger journal is not writable", failure);
+            }
+            LedgerRecord record = new LedgerRecord(++lastSequence, type, accountNumber, counterparty, amount,
+                    balanceAfter, counterpartyBalanceAfter, System.currentTimeMillis());
+            Pending pending = new Pending(record, new CompletableFuture<>());
+            queue.add(pending);
+            return pending;
+        }
+    }
+
+    /**
+     * Deletes the segments that only hold records up to the checkpoint. The segment being written is kept.
+     * @param checkpoint The last sequence applied to the database.
+     */
+    public void deleteThrough(long checkpoint) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, Path> segment : segments.headMap(segments.lastKey(), false).entrySet()) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next > checkpoint + 1) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+            } catch (IOException e) {
+                logger.warn("Could not delete ledger journal segment {}", segment.getValue(), e);
+                return;
+            }
+        }
+    }
+
+    public long fsyncCount() {
+        return fsyncs.get();
+    }
+
+    public long recordCount() {
+        return records.get();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Stops accepting records, writes and syncs everything already queued, and closes the segment. Records the
+     * writer has not finished within 30 seconds are failed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            fail(new IOException("Ledger journal writer did not stop within 30 seconds"));
+        }
+        channel.close();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writing = List.copyOf(batch);
+                write(batch);
+                List<LedgerRecord> durable = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    durable.add(pending.record());
+                }
+                onDurable.accept(durable);
+                batch.forEach(pending -> pending.durable().complete(null));
+            } catch (InterruptedException e) {
+                fail(e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            } finally {
+                writing = List.of();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Rejects further appends and fails the batch being written and every queued record. A record's future is
+     * completed once, so records the writer already acknowledged are unaffected.
+     */
+    private void fail(Throwable cause) {
+        synchronized (appendLock) {
+            if (failure == null) {
+                failure = cause;
+                logger.error("Ledger journal failed, rejecting further mutations", cause);
+            }
+        }
+        for (Pending pending : writing) {
+            pending.durable().completeExceptionally(cause);
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.durable().completeExceptionally(cause);
+        }
+    }
+
+    private void write(List<Pending> batch) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            channel.force(false);
+            channel.close();
+            openSegment(batch.get(0).record().sequence());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(96);
+        DataOutputStream payloadOut = new DataOutputStream(payload);
+        CRC32 crc = new CRC32();
+        for (Pending pending : batch) {
+            payload.reset();
+            pending.record().writeTo(payloadOut);
+            crc.reset();
+            crc.update(payload.toByteArray());
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            payload.writeTo(out);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        segmentSize += bytes.size();
+        fsyncs.incrementAndGet();
+        records.addAndGet(batch.size());
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+        segments.put(firstSequence, file);
+    }
+
+    private static List<LedgerRecord> read(Path file, boolean lastSegment) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        ByteBuffer frames = ByteBuffer.wrap(content);
+        List<LedgerRecord> result = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        int valid = 0;
+        while (content.length - valid >= 8) {
+            int length = frames.getInt(valid);
+            int checksum = frames.getInt(valid + 4);
+            if (length <= 0 || length > MAX_FRAME || content.length - valid - 8 < length) {
+                break;
+            }
+            crc.reset();
+            crc.update(content, valid + 8, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            result.add(LedgerRecord.readFrom(new DataInputStream(new ByteArrayInputStream(content, valid + 8, length))));
+            valid += 8 + length;
+        }
+        if (valid < content.length) {
+            if (!lastSegment) {
+                throw new IOException("Corrupt ledger journal segment " + file + " at offset " + valid);
+            }
+            // A crash during the last write leaves a partial frame; it was never acknowledged, so drop it.
+            logger.warn("Truncating torn tail of ledger journal segment {} at offset {} ({} bytes dropped)",
+                    file, valid, content.length - valid);
+            try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                truncate.truncate(valid);
+                truncate.force(false);
+            }
+        }
+        return result;
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * A record waiting for its fsync.
+     */
+    public record Pending(LedgerRecord record, CompletableFuture<Void> durable) {
+    }
+}
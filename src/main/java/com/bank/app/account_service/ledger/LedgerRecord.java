@@ -0,0 +1,35 @@
+package com.bank.app.account_service.ledger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One balance mutation as written to the ledger journal. Amounts and balances are minor units.
+ * A transfer is a single record; its counterparty is the beneficiary account.
+ */
+public record LedgerRecord(long sequence, Type type, String accountNumber, String counterparty, long amount,
+                           long balanceAfter, long counterpartyBalanceAfter, long timestamp) {
+
+    public enum Type { CREDIT, WITHDRAW, TRANSFER }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(sequence);
+        out.writeByte(type.ordinal());
+        out.writeUTF(accountNumber);
+        out.writeUTF(counterparty == null ? "" : counterparty);
+        out.writeLong(amount);
+        out.writeLong(balanceAfter);
+        out.writeLong(counterpartyBalanceAfter);
+        out.writeLong(timestamp);
+    }
+
+    static LedgerRecord readFrom(DataInput in) throws IOException {
+        long sequence = in.readLong();
+        Type type = Type.values()[in.readByte()];
+        String accountNumber = in.readUTF();
+        String counterparty = in.readUTF();
+        return new LedgerRecord(sequence, type, accountNumber, counterparty.isEmpty() ? null : counterparty,
+                in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.app.account_service.ledger;
+
+import com.bank.app.account_service.entity.Money;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The database behind the ledger: where balances are loaded from and where journaled records are flushed to.
+ */
+public interface LedgerStore {
+
+    /**
+     * @return The sequence of the last record applied to the database, 0 if none.
+     */
+    long checkpoint();
+
+    /**
+     * @param accountNumber The account number.
+     * @return The stored balance, empty if the account does not exist.
+     */
+    Optional<Money> loadBalance(String accountNumber);
+
+    /**
+     * Applies records to the database and advances the checkpoint to the last of them, atomically, so that each
+     * record is applied exactly once even if the service crashes during or after the flush.
+     * @param records Records after the checkpoint, in sequence order.
+     */
+    void flush(List<LedgerRecord> records);
+}
@@ -0,0 +1,90 @@
+package com.bank.app.account_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that samples INFO and lower messages of selected loggers. It runs before the logging event
+ * is created, so a dropped message costs neither formatting nor an allocation. WARN and ERROR are never sampled, and
+ * neither is a message carrying an exception.
+ * <p>
+ * Rates are configured per logger (and apply to its children) with {@code <sample>logger=rate</sample>}. The decision
+ * is taken from the trace id when there is one, so a sampled request keeps all of its lines.
+ */
+public class SuccessPathSamplingFilter extends TurboFilter {
+
+    private static final Double NOT_SAMPLED = 1.0;
+
+    private final Map<String, Double> configuredRates = new ConcurrentHashMap<>();
+    private final Map<String, Double> resolvedRates = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a sampling rule.
+     * @param sample The rule as {@code logger=rate}, the rate being the fraction of messages kept (0 to 1).
+     */
+    public void addSample(String sample) {
+        int separator = sample.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Invalid sample '" + sample + "', expected logger=rate");
+            return;
+        }
+        double rate = Double.parseDouble(sample.substring(separator + 1).trim());
+        if (rate < 0 || rate > 1) {
+            addError("Invalid sample rate " + rate + " for " + sample.substring(0, separator).trim());
+            return;
+        }
+        configuredRates.put(sample.substring(0, separator).trim(), rate);
+        resolvedRates.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which are left to the logger level
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || t != null || endsWithThrowable(params)) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = resolvedRates.computeIfAbsent(logger.getName(), this::resolve);
+        if (rate >= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        return sampled(rate) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    // SLF4J passes a throwable given as the last argument, e.g. logger.info("... {}", id, e), in params with t null.
+    private static boolean endsWithThrowable(Object[] params) {
+        return params != null && params.length > 0 && params[params.length - 1] instanceof Throwable;
+    }
+
+    private static boolean sampled(double rate) {
+        String traceId = MDC.get("traceId");
+        if (traceId == null) {
+            return ThreadLocalRandom.current().nextDouble() < rate;
+        }
+        // Spread the hash before using it, trace ids differ mostly in their low bits
+        long hash = traceId.hashCode() * 0x9E3779B97F4A7C15L;
+        return (hash >>> 11) * 0x1.0p-53 < rate;
+    }
+
+    private Double resolve(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Double rate = configuredRates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return NOT_SAMPLED;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
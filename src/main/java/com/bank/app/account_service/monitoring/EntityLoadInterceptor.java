@@ -0,0 +1,19 @@
+package com.bank.app.account_service.monitoring;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the entities loaded for the current request. Stateless, so one instance serves the whole session factory.
+ */
+public class EntityLoadInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.onEntityLoad();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.app.account_service.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: starts (POST) and stops (DELETE) a Java Flight Recorder recording on demand.
+ * The recording includes the account service events ({@link TransactionEvent}, {@link OutboxWriteEvent})
+ * and is written to the configured directory when stopped, ready for JMC or {@code jfr print}.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private Recording recording;
+
+    public JfrEndpoint(Path directory, Duration maxDuration) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Starts a recording.
+     * @param settings The JFR settings: "default" (about 1% overhead) or "profile" (more detail). Defaults to "profile".
+     * @param durationSeconds Stops and dumps the recording automatically after this many seconds, capped by the configured maximum.
+     * @return The state of the recording.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long durationSeconds) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Files.createDirectories(directory);
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings == null ? "profile" : settings));
+        newRecording.setName("account-service");
+        newRecording.enable(TransactionEvent.class);
+        newRecording.enable(OutboxWriteEvent.class);
+        Duration duration = durationSeconds == null ? maxDuration : Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()));
+        newRecording.setDuration(duration);
+        newRecording.setDestination(directory.resolve("account-service-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr"));
+        newRecording.setToDisk(true);
+        newRecording.start();
+        if (recording != null) {
+            recording.close();
+        }
+        recording = newRecording;
+        logger.info("Started JFR recording to {} for at most {}", recording.getDestination(), duration);
+        return status();
+    }
+
+    /**
+     * Stops the running recording and writes it to its destination.
+     * @return The state of the recording, including the file it was written to.
+     */
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording has been started");
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Stopped JFR recording, written to {}", recording.getDestination());
+        }
+        return status();
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("destination", String.valueOf(recording.getDestination()));
+        status.put("startTime", String.valueOf(recording.getStartTime()));
+        status.put("duration", String.valueOf(recording.getDuration()));
+        return status;
+    }
+}
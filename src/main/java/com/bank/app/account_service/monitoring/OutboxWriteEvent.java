@@ -0,0 +1,37 @@
+package com.bank.app.account_service.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for serializing and writing events to the outbox table. The duration covers both.
+ */
+@Name("com.bank.account.OutboxWrite")
+@Label("Outbox Write")
+@Category({"Account Service", "Events"})
+@Description("Account or transaction events serialized and written to the outbox")
+@StackTrace(false)
+public class OutboxWriteEvent extends Event {
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Account Hash")
+    @Description("Keyed hash of the account number as in the transaction event, 0 for batches")
+    public long accountHash;
+
+    @Label("Events")
+    public int events;
+
+    @Label("Payload Size")
+    @DataAmount
+    public long payloadBytes;
+}
@@ -0,0 +1,113 @@
+package com.bank.app.account_service.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL activity of the request or background task being handled on the current thread. Opened and closed by
+ * {@link SqlStatisticsFilter} or {@link SqlStatistics#trackTask} and filled in by the Hibernate hooks; other work
+ * is not tracked.
+ */
+public final class SqlRequestContext {
+
+    private static final ThreadLocal<SqlRequestContext> CURRENT = new ThreadLocal<>();
+
+    private final long slowQueryThresholdNanos;
+    private final List<SlowQuery> slowQueries = new ArrayList<>();
+    private int statements;
+    private long executionNanos;
+    private int entityLoads;
+    private int flushes;
+    private int flushedEntities;
+    private String lastSql;
+    private long executionStart;
+
+    private SqlRequestContext(long slowQueryThresholdNanos) {
+        this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+    }
+
+    static SqlRequestContext begin(long slowQueryThresholdNanos) {
+        SqlRequestContext context = new SqlRequestContext(slowQueryThresholdNanos);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlRequestContext current() {
+        return CURRENT.get();
+    }
+
+    void onStatement(String sql) {
+        statements++;
+        lastSql = sql;
+    }
+
+    void onExecutionStart() {
+        executionStart = System.nanoTime();
+    }
+
+    void onExecutionEnd() {
+        if (executionStart == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - executionStart;
+        executionStart = 0;
+        executionNanos += elapsed;
+        if (elapsed >= slowQueryThresholdNanos && lastSql != null) {
+            slowQueries.add(new SlowQuery(lastSql, countParameters(lastSql), elapsed));
+        }
+    }
+
+    void onEntityLoad() {
+        entityLoads++;
+    }
+
+    void onFlush(int entities) {
+        flushes++;
+        flushedEntities += entities;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long executionNanos() {
+        return executionNanos;
+    }
+
+    int entityLoads() {
+        return entityLoads;
+    }
+
+    int flushes() {
+        return flushes;
+    }
+
+    int flushedEntities() {
+        return flushedEntities;
+    }
+
+    List<SlowQuery> slowQueries() {
+        return slowQueries;
+    }
+
+    private static int countParameters(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A statement that ran longer than the slow query threshold. The SQL is the parameterized statement
+     * Hibernate prepared, so it shows the shape of the query and how many values were bound, never the values.
+     */
+    public record SlowQuery(String sql, int parameters, long nanos) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.bank.app.account_service.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times statement and batch execution and counts flushes for the current request.
+ * Hibernate creates one instance per session from the class name in {@code hibernate.session.events.auto}.
+ */
+public class SqlSessionEventListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.onExecutionStart();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.onExecutionEnd();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.onFlush(numberOfEntities);
+        }
+    }
+}
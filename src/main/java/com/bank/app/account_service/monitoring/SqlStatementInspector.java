@@ -0,0 +1,19 @@
+package com.bank.app.account_service.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the statements Hibernate prepares for the current request and remembers the last one,
+ * so its execution time can be attributed to it.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestContext context = SqlRequestContext.current();
+        if (context != null) {
+            context.onStatement(sql);
+        }
+        return sql;
+    }
+}
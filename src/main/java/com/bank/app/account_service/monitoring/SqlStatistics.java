@@ -0,0 +1,250 @@
+package com.bank.app.account_service.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Aggregates the SQL activity of each request per endpoint, publishes it as metrics and keeps the most recent
+ * slow queries and statement-heavy requests for the {@code sqlstats} actuator endpoint.
+ * <p>
+ * Work on background threads (group commit, asynchronous submissions, Kafka listeners, the outbox relay) is
+ * tracked the same way through {@link #trackTask} and {@link #runTask}, with {@code TASK name} as its endpoint.
+ * <p>
+ * Metrics, all tagged with the endpoint ({@code METHOD /path/pattern} or {@code TASK name}):
+ * {@code account.sql.statements}, {@code account.sql.entity.loads}, {@code account.sql.flushes} (per request),
+ * {@code account.sql.execution} (JDBC time per request), {@code account.sql.slow.queries} and
+ * {@code account.sql.excessive.requests} (requests over the statement limit).
+ */
+public class SqlStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatistics.class);
+    private static final int RECENT_LIMIT = 50;
+
+    // Set when SQL instrumentation is enabled; tasks run untracked until then.
+    private static volatile SqlStatistics taskStatistics;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatementsPerRequest;
+    private final long slowQueryThresholdNanos;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> recentSlowQueries = new ArrayDeque<>();
+    private final Deque<Map<String, Object>> recentExcessiveRequests = new ArrayDeque<>();
+
+    public SqlStatistics(MeterRegistry meterRegistry, int maxStatementsPerRequest, long slowQueryThresholdNanos) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+        this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+    }
+
+    /**
+     * Makes these statistics the ones that record the SQL activity of background tasks.
+     */
+    public void trackTasks() {
+        taskStatistics = this;
+    }
+
+    /**
+     * Runs work that is not part of a servlet request and records its SQL activity under {@code TASK name}.
+     * Work on a thread that already tracks a request or task is counted there instead.
+     * @param task The task name, e.g. {@code group-commit}.
+     * @param work The work to track.
+     * @return The result of the work.
+     */
+    public static <T> T trackTask(String task, Supplier<T> work) {
+        SqlStatistics statistics = taskStatistics;
+        if (statistics == null || SqlRequestContext.current() != null) {
+            return work.get();
+        }
+        SqlRequestContext context = SqlRequestContext.begin(statistics.slowQueryThresholdNanos);
+        try {
+            return work.get();
+        } finally {
+            SqlRequestContext.end();
+            if (context.statements() > 0) {
+                statistics.record("TASK " + task, context);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #trackTask}, for work without a result.
+     * @param task The task name, e.g. {@code outbox-relay}.
+     * @param work The work to track.
+     */
+    public static void runTask(String task, Runnable work) {
+        trackTask(task, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records the SQL activity of one finished request.
+     * @param endpoint The endpoint, e.g. {@code POST /account/transaction}.
+     * @param context The SQL activity of the request.
+     */
+    void record(String endpoint, SqlRequestContext context) {
+        endpoints.computeIfAbsent(endpoint, this::newEndpoint).record(context);
+
+        for (SqlRequestContext.SlowQuery slowQuery : context.slowQueries()) {
+            logger.warn("Slow query on {} took {} ms with {} bind parameters: {}", endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(slowQuery.nanos()), slowQuery.parameters(), slowQuery.sql());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("time", Instant.now().toString());
+            entry.put("endpoint", endpoint);
+            entry.put("millis", TimeUnit.NANOSECONDS.toMillis(slowQuery.nanos()));
+            entry.put("parameters", slowQuery.parameters());
+            entry.put("sql", slowQuery.sql());
+            remember(recentSlowQueries, entry);
+        }
+
+        if (context.statements() > maxStatementsPerRequest) {
+            logger.warn("Request {} issued {} SQL statements (limit {}), {} entities loaded, {} flushes",
+                    endpoint, context.statements(), maxStatementsPerRequest, context.entityLoads(), context.flushes());
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("time", Instant.now().toString());
+            entry.put("endpoint", endpoint);
+            entry.put("statements", context.statements());
+            entry.put("entityLoads", context.entityLoads());
+            remember(recentExcessiveRequests, entry);
+        }
+    }
+
+    /**
+     * Snapshot of the statistics, as served by the actuator endpoint.
+     * @return Per-endpoint aggregates and the recent slow queries and statement-heavy requests.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> perEndpoint = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> perEndpoint.put(endpoint, stats.snapshot()));
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxStatementsPerRequest", maxStatementsPerRequest);
+        snapshot.put("endpoints", perEndpoint);
+        synchronized (this) {
+            snapshot.put("recentSlowQueries", new ArrayList<>(recentSlowQueries));
+            snapshot.put("recentExcessiveRequests", new ArrayList<>(recentExcessiveRequests));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Clears the per-endpoint aggregates and the recent lists. Registered meters are not reset.
+     */
+    public void reset() {
+        endpoints.values().forEach(EndpointStats::reset);
+        synchronized (this) {
+            recentSlowQueries.clear();
+            recentExcessiveRequests.clear();
+        }
+    }
+
+    private synchronized void remember(Deque<Map<String, Object>> recent, Map<String, Object> entry) {
+        if (recent.size() == RECENT_LIMIT) {
+            recent.removeFirst();
+        }
+        recent.addLast(entry);
+    }
+
+    private EndpointStats newEndpoint(String endpoint) {
+        return new EndpointStats(endpoint);
+    }
+
+    private final class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+        private final LongAdder flushedEntities = new LongAdder();
+        private final LongAdder executionNanos = new LongAdder();
+        private final LongAdder slowQueries = new LongAdder();
+        private final LongAdder excessiveRequests = new LongAdder();
+        private final DistributionSummary statementSummary;
+        private final DistributionSummary entityLoadSummary;
+        private final DistributionSummary flushSummary;
+        private final Timer executionTimer;
+        private final Counter slowQueryCounter;
+        private final Counter excessiveCounter;
+
+        private EndpointStats(String endpoint) {
+            statementSummary = DistributionSummary.builder("account.sql.statements")
+                    .description("SQL statements per request").tag("endpoint", endpoint).register(meterRegistry);
+            entityLoadSummary = DistributionSummary.builder("account.sql.entity.loads")
+                    .description("Entities loaded per request").tag("endpoint", endpoint).register(meterRegistry);
+            flushSummary = DistributionSummary.builder("account.sql.flushes")
+                    .description("Session flushes per request").tag("endpoint", endpoint).register(meterRegistry);
+            executionTimer = Timer.builder("account.sql.execution")
+                    .description("JDBC statement execution time per request").tag("endpoint", endpoint).register(meterRegistry);
+            slowQueryCounter = Counter.builder("account.sql.slow.queries")
+                    .description("Statements slower than the slow query threshold").tag("endpoint", endpoint).register(meterRegistry);
+            excessiveCounter = Counter.builder("account.sql.excessive.requests")
+                    .description("Requests that issued more statements than the limit").tag("endpoint", endpoint).register(meterRegistry);
+        }
+
+        void record(SqlRequestContext context) {
+            requests.increment();
+            statements.add(context.statements());
+            maxStatements.accumulate(context.statements());
+            entityLoads.add(context.entityLoads());
+            flushes.add(context.flushes());
+            flushedEntities.add(context.flushedEntities());
+            executionNanos.add(context.executionNanos());
+            slowQueries.add(context.slowQueries().size());
+            statementSummary.record(context.statements());
+            entityLoadSummary.record(context.entityLoads());
+            flushSummary.record(context.flushes());
+            executionTimer.record(context.executionNanos(), TimeUnit.NANOSECONDS);
+            slowQueryCounter.increment(context.slowQueries().size());
+            if (context.statements() > maxStatementsPerRequest) {
+                excessiveRequests.increment();
+                excessiveCounter.increment();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long count = requests.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", count);
+            snapshot.put("statements", statements.sum());
+            snapshot.put("statementsPerRequest", count == 0 ? 0.0 : (double) statements.sum() / count);
+            snapshot.put("maxStatements", maxStatements.get());
+            snapshot.put("entityLoads", entityLoads.sum());
+            snapshot.put("flushes", flushes.sum());
+            snapshot.put("flushedEntities", flushedEntities.sum());
+            snapshot.put("executionMillis", TimeUnit.NANOSECONDS.toMillis(executionNanos.sum()));
+            snapshot.put("slowQueries", slowQueries.sum());
+            snapshot.put("excessiveRequests", excessiveRequests.sum());
+            return snapshot;
+        }
+
+        void reset() {
+            requests.reset();
+            statements.reset();
+            maxStatements.reset();
+            entityLoads.reset();
+            flushes.reset();
+            flushedEntities.reset();
+            executionNanos.reset();
+            slowQueries.reset();
+            excessiveRequests.reset();
+        }
+    }
+}
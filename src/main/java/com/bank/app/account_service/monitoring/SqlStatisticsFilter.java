@@ -0,0 +1,40 @@
+package com.bank.app.account_service.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlRequestContext} for each request and hands it to {@link SqlStatistics} when the request ends,
+ * keyed by the matched handler pattern so all account numbers of one endpoint share their statistics.
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatistics sqlStatistics;
+    private final long slowQueryThresholdNanos;
+
+    public SqlStatisticsFilter(SqlStatistics sqlStatistics, long slowQueryThresholdNanos) {
+        this.sqlStatistics = sqlStatistics;
+        this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestContext context = SqlRequestContext.begin(slowQueryThresholdNanos);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestContext.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (context.statements() > 0) {
+                sqlStatistics.record(request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED"), context);
+            }
+        }
+    }
+}
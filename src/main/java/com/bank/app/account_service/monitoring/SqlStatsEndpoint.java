@@ -0,0 +1,55 @@
+package com.bank.app.account_service.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/sqlstats}: per-endpoint SQL statistics, recent slow queries and statement-heavy requests,
+ * and the session factory totals from Hibernate Statistics. DELETE resets the collected statistics.
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    private final SqlStatistics sqlStatistics;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SqlStatsEndpoint(SqlStatistics sqlStatistics, EntityManagerFactory entityManagerFactory) {
+        this.sqlStatistics = sqlStatistics;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> result = new LinkedHashMap<>(sqlStatistics.snapshot());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (statistics.isStatisticsEnabled()) {
+            Map<String, Object> hibernate = new LinkedHashMap<>();
+            hibernate.put("prepareStatementCount", statistics.getPrepareStatementCount());
+            hibernate.put("queryExecutionCount", statistics.getQueryExecutionCount());
+            hibernate.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+            hibernate.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+            hibernate.put("entityLoadCount", statistics.getEntityLoadCount());
+            hibernate.put("entityInsertCount", statistics.getEntityInsertCount());
+            hibernate.put("entityUpdateCount", statistics.getEntityUpdateCount());
+            hibernate.put("flushCount", statistics.getFlushCount());
+            hibernate.put("transactionCount", statistics.getTransactionCount());
+            hibernate.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+            result.put("hibernate", hibernate);
+        }
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatistics.reset();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+}
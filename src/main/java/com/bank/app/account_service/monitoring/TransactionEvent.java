@@ -0,0 +1,126 @@
+package com.bank.app.account_service.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * JFR event for one credit, withdrawal or transfer. The account number is recorded as a keyed hash (HMAC-SHA256),
+ * so hot accounts can be spotted without writing account numbers into recordings. Account numbers are short and
+ * numeric, so a plain hash could be reversed by hashing every candidate; without the key that is not possible. The
+ * key is random per process unless {@code account.jfr.account-hash-key} is set, which is only needed to correlate
+ * recordings across restarts or nodes.
+ */
+@Name("com.bank.account.Transaction")
+@Label("Account Transaction")
+@Category({"Account Service", "Transactions"})
+@Description("A credit, withdrawal or transfer processed by the account service")
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Account Hash")
+    @Description("Keyed hash of the account number (the source account for transfers)")
+    public long accountHash;
+
+    @Label("Amount Bucket")
+    public String amountBucket;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long databaseTime;
+
+    @Label("Publish Time")
+    @Description("Time spent writing the events to the outbox")
+    @Timespan(Timespan.NANOSECONDS)
+    public long publishTime;
+
+    private static final String HASH_ALGORITHM = "HmacSHA256";
+    private static final ThreadLocal<Mac> MACS = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HASH_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    });
+    private static volatile SecretKeySpec hashKey = randomKey();
+
+    /**
+     * Sets the key of the account hashes, so recordings of several processes sharing the key can be correlated.
+     * @param key The secret; blank keeps the random key of this process.
+     */
+    public static void useHashKey(String key) {
+        if (key != null && !key.isBlank()) {
+            hashKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HASH_ALGORITHM);
+        }
+    }
+
+    /**
+     * Hashes an account number for the accountHash fields of the JFR events.
+     * @param accountNumber The account number.
+     * @return The first 8 bytes of the account number's HMAC, 0 for null.
+     */
+    public static long hash(String accountNumber) {
+        if (accountNumber == null) {
+            return 0;
+        }
+        Mac mac = MACS.get();
+        try {
+            mac.init(hashKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid account hash key", e);
+        }
+        return ByteBuffer.wrap(mac.doFinal(accountNumber.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    private static SecretKeySpec randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, HASH_ALGORITHM);
+    }
+
+    /**
+     * Buckets an amount by order of magnitude.
+     * @param amount The amount.
+     * @return The bucket, e.g. "100-1k".
+     */
+    public static String bucket(BigDecimal amount) {
+        if (amount == null) {
+            return "none";
+        }
+        double value = amount.abs().doubleValue();
+        if (value < 10) {
+            return "<10";
+        }
+        if (value < 100) {
+            return "10-100";
+        }
+        if (value < 1_000) {
+            return "100-1k";
+        }
+        if (value < 10_000) {
+            return "1k-10k";
+        }
+        if (value < 100_000) {
+            return "10k-100k";
+        }
+        return ">=100k";
+    }
+}
@@ -0,0 +1,83 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.AccountBalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Balance slots of hot accounts. Balance arithmetic is native for the same reason as in {@link AccountRepository}.
+ */
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+
+    /**
+     * Adds the amount to one slot in a single UPDATE statement; only that slot's row is locked.
+     * @param accountNumber The account number.
+     * @param slot The slot (1..N-1).
+     * @param amount The amount to credit.
+     * @return The number of rows updated, 0 if the slot does not exist.
+     */
+    @Modifying
+    @Query(value = "update account_balance_slot set balance = balance + :amount where account_number = :accountNumber and slot = :slot", nativeQuery = true)
+    int creditSlot(@Param("accountNumber") String accountNumber, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtracts the amount from one slot if that slot alone holds it.
+     * @param accountNumber The account number.
+     * @param slot The slot (1..N-1).
+     * @param amount The amount to debit.
+     * @return The number of rows updated, 0 if the slot does not exist or holds less than the amount.
+     */
+    @Modifying
+    @Query(value = "update account_balance_slot set balance = balance - :amount where account_number = :accountNumber and slot = :slot and balance >= :amount", nativeQuery = true)
+    int debitSlot(@Param("accountNumber") String accountNumber, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+    /**
+     * Reads and locks the balances of every slot of an account, in slot order.
+     * @param accountNumber The account number.
+     * @return The slot balances.
+     */
+    @Query(value = "select balance from account_balance_slot where account_number = :accountNumber order by slot for update", nativeQuery = true)
+    List<BigDecimal> lockBalances(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Sets every slot of an account to zero; callers lock the slots with {@link #lockBalances} first.
+     * @param accountNumber The account number.
+     * @return The number of slots cleared.
+     */
+    @Modifying
+    @Query(value = "update account_balance_slot set balance = 0 where account_number = :accountNumber", nativeQuery = true)
+    int clearBalances(@Param("accountNumber") String accountNumber);
+
+    /**
+     * @param accountNumber The account number.
+     * @return The sum of the slot balances, without locking.
+     */
+    @Query(value = "select coalesce(sum(balance), 0) from account_balance_slot where account_number = :accountNumber", nativeQuery = true)
+    BigDecimal sumBalances(@Param("accountNumber") String accountNumber);
+
+    @Query("select s.slot from AccountBalanceSlot s where s.accountNumber = :accountNumber")
+    List<Integer> findSlotNumbers(@Param("accountNumber") String accountNumber);
+
+    @Modifying
+    @Query("delete from AccountBalanceSlot s where s.accountNumber = :accountNumber and s.slot >= :slot")
+    int deleteSlotsFrom(@Param("accountNumber") String accountNumber, @Param("slot") int slot);
+
+    /**
+     * @return The number of slot rows of every account that has any.
+     */
+    @Query("select s.accountNumber as accountNumber, count(s) as slotRows from AccountBalanceSlot s group by s.accountNumber")
+    List<SlotRowsView> countSlotRows();
+
+    /**
+     * Projection of an account number onto its number of slot rows.
+     */
+    interface SlotRowsView {
+        String getAccountNumber();
+        long getSlotRows();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.AccountNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, String> {
+
+    /**
+     * Loads a block counter and locks its row until the transaction ends.
+     * @param name The counter name.
+     * @return The locked counter, if it exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AccountNumberBlock b where b.name = :name")
+    Optional<AccountNumberBlock> findForUpdate(@Param("name") String name);
+}
@@ -1,11 +1,22 @@
 package com.bank.app.account_service.repo;
 
 import com.bank.app.account_service.entity.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account,Long> {
@@ -13,4 +24,76 @@ public interface AccountRepository extends JpaRepository<Account,Long> {
     List<Account> findByUserId(Long userId);
     Optional<Account> findByAccountNumber(String accountNumber);
     boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * Loads an account and takes a write lock on its row (SELECT ... FOR UPDATE) until the transaction ends.
+     * @param accountNumber The account number.
+     * @return The locked account, if it exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> findByAccountNumberForUpdate(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Loads several accounts in one query and locks their rows until the transaction ends.
+     * Rows are read in account number order, the same order the transfer engine locks them in.
+     * @param accountNumbers The account numbers.
+     * @return The locked accounts that exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select a from Account a where a.accountNumber in :accountNumbers order by a.accountNumber")
+    List<Account> findAllByAccountNumberForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    /**
+     * Adds the amount to the balance in a single UPDATE statement. Native, because the balance attribute is a
+     * converted {@link com.bank.app.account_service.entity.Money} and the arithmetic is done on the decimal column.
+     * @param accountNumber The account number.
+     * @param amount The amount to credit.
+     * @return The number of rows updated, 0 if the account does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update account set balance = balance + :amount where account_number = :accountNumber", nativeQuery = true)
+    int creditBalance(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    /**
+     * Subtracts the amount from the balance in a single conditional UPDATE statement.
+     * The funds check is part of the WHERE clause, so concurrent debits can never overdraw the account.
+     * @param accountNumber The account number.
+     * @param amount The amount to debit.
+     * @return The number of rows updated, 0 if the account does not exist or has insufficient funds.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update account set balance = balance - :amount where account_number = :accountNumber and balance >= :amount", nativeQuery = true)
+    int debitBalance(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount);
+
+    /**
+     * Adds a signed amount to the balance without a funds check, for the write-behind flush of the in-memory
+     * ledger, which has already checked the funds. Leaves the persistence context alone.
+     * @param accountNumber The account number.
+     * @param delta The amount to add, negative to subtract.
+     * @return The number of rows updated, 0 if the account does not exist.
+     */
+    @Modifying
+    @Query(value = "update account set balance = balance + :delta where account_number = :accountNumber", nativeQuery = true)
+    int adjustBalance(@Param("accountNumber") String accountNumber, @Param("delta") BigDecimal delta);
+
+    /**
+     * Streams the ids and account numbers of accounts created after a given id, in id order.
+     * Used to build and top up the in-memory account number filter; must be consumed inside a transaction.
+     * @param afterId Only accounts with a greater id are returned.
+     * @return A forward-only stream of account numbers.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.id as id, a.accountNumber as accountNumber from Account a where a.id > :afterId order by a.id")
+    Stream<AccountNumberView> streamAccountNumbersAfter(@Param("afterId") long afterId);
+
+    /**
+     * Projection of an account onto its id and account number.
+     */
+    interface AccountNumberView {
+        Long getId();
+        String getAccountNumber();
+    }
 }
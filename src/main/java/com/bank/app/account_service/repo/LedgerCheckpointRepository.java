@@ -0,0 +1,22 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.LedgerCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, String> {
+
+    /**
+     * Loads the checkpoint of a node and locks its row until the transaction ends.
+     * @param nodeId The node id.
+     * @return The locked checkpoint, if the node has flushed before.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from LedgerCheckpoint c where c.nodeId = :nodeId")
+    Optional<LedgerCheckpoint> findForUpdate(@Param("nodeId") String nodeId);
+}
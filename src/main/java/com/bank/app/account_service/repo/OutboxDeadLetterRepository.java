@@ -0,0 +1,7 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.OutboxDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
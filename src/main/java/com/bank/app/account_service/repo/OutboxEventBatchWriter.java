@@ -0,0 +1,18 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Batched outbox inserts. Outbox ids stay IDENTITY so they follow insert order across nodes, which disables
+ * Hibernate's insert batching; these rows are written with one JDBC batch instead.
+ */
+public interface OutboxEventBatchWriter {
+
+    /**
+     * Inserts the events in list order, in the caller's transaction. Generated ids are not read back.
+     * @param events The events to insert.
+     */
+    void insertAll(List<OutboxEvent> events);
+}
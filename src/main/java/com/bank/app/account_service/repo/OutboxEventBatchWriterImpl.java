@@ -0,0 +1,40 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes outbox rows with {@link JdbcTemplate#batchUpdate}. The JPA transaction manager exposes its connection
+ * to JdbcTemplate, so the rows commit or roll back with the change they describe. With the MySQL driver's
+ * rewriteBatchedStatements the batch is sent as multi-row inserts.
+ */
+class OutboxEventBatchWriterImpl implements OutboxEventBatchWriter {
+
+    private static final String INSERT = "insert into outbox_events "
+            + "(topic, message_key, shard, event_type, payload_type, payload, created_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OutboxEventBatchWriterImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.getTopic());
+            statement.setString(2, event.getMessageKey());
+            statement.setInt(3, event.getShard());
+            statement.setString(4, event.getEventType());
+            statement.setString(5, event.getPayloadType());
+            statement.setString(6, event.getPayload());
+            statement.setTimestamp(7, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+}
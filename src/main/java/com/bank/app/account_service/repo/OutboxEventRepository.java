@@ -0,0 +1,26 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBatchWriter {
+
+    /**
+     * Claims the oldest pending events of a shard for publishing. The rows are locked with a plain FOR UPDATE:
+     * a relay on another node that claims the same shard waits until this batch is published or rolled back,
+     * instead of skipping ahead to later events of the same keys.
+     * @param shard The shard to drain.
+     * @param pageable The batch size.
+     * @return The claimed events, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.shard = :shard order by e.id")
+    List<OutboxEvent> findBatchForPublishing(@Param("shard") int shard, Pageable pageable);
+}
@@ -1,10 +1,59 @@
 package com.bank.app.account_service.repo;
 
 import com.bank.app.account_service.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByAccountNumber(String accountNumber);
+
+    /**
+     * Returns the newest transactions of an account.
+     * @param accountNumber The account number.
+     * @param pageable The page size (only the first page is used).
+     * @return The transactions ordered by timestamp and id, newest first.
+     */
+    @Query("select t from Transaction t where t.accountNumber = :accountNumber order by t.timestamp desc, t.id desc")
+    List<Transaction> findLatest(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    /**
+     * Returns the transactions of an account that come after a keyset position, i.e. are older than it.
+     * Served from the (account_number, timestamp, id) index without an OFFSET scan.
+     * @param accountNumber The account number.
+     * @param timestamp The timestamp of the last transaction already returned.
+     * @param id The id of the last transaction already returned.
+     * @param pageable The page size (only the first page is used).
+     * @return The transactions ordered by timestamp and id, newest first.
+     */
+    @Query("select t from Transaction t where t.accountNumber = :accountNumber"
+            + " and (t.timestamp < :timestamp or (t.timestamp = :timestamp and t.id < :id))"
+            + " order by t.timestamp desc, t.id desc")
+    List<Transaction> findOlderThan(@Param("accountNumber") String accountNumber,
+                                    @Param("timestamp") LocalDateTime timestamp,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Streams every transaction of an account, oldest first, for exports.
+     * Rows are fetched in chunks (with useCursorFetch=true on MySQL) and loaded read-only, so the caller
+     * only needs to detach each row after use to keep memory flat. Must be consumed inside a transaction.
+     * @param accountNumber The account number.
+     * @return A forward-only stream of transactions.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Transaction t where t.accountNumber = :accountNumber order by t.timestamp, t.id")
+    Stream<Transaction> streamByAccountNumber(@Param("accountNumber") String accountNumber);
 }
@@ -0,0 +1,101 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.TransferJournal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Transfers by source or by beneficiary account. Each side has its own query so that it is served from its own
+ * (account, timestamp, id) index; callers merge the two sides.
+ */
+public interface TransferJournalRepository extends JpaRepository<TransferJournal, Long> {
+
+    List<TransferJournal> findByFromAccountNumber(String accountNumber);
+
+    List<TransferJournal> findByToAccountNumber(String accountNumber);
+
+    /**
+     * Returns the newest transfers out of an account.
+     * @param accountNumber The source account number.
+     * @param pageable The page size (only the first page is used).
+     * @return The transfers ordered by timestamp and id, newest first.
+     */
+    @Query("select j from TransferJournal j where j.fromAccountNumber = :accountNumber order by j.timestamp desc, j.id desc")
+    List<TransferJournal> findLatestFrom(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    /**
+     * Returns the newest transfers into an account.
+     * @param accountNumber The beneficiary account number.
+     * @param pageable The page size (only the first page is used).
+     * @return The transfers ordered by timestamp and id, newest first.
+     */
+    @Query("select j from TransferJournal j where j.toAccountNumber = :accountNumber order by j.timestamp desc, j.id desc")
+    List<TransferJournal> findLatestTo(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    /**
+     * Returns the transfers out of an account that are older than a keyset position.
+     * @param accountNumber The source account number.
+     * @param timestamp The timestamp of the last transaction already returned.
+     * @param id The id of the last transaction already returned.
+     * @param pageable The page size (only the first page is used).
+     * @return The transfers ordered by timestamp and id, newest first.
+     */
+    @Query("select j from TransferJournal j where j.fromAccountNumber = :accountNumber"
+            + " and (j.timestamp < :timestamp or (j.timestamp = :timestamp and j.id < :id))"
+            + " order by j.timestamp desc, j.id desc")
+    List<TransferJournal> findFromOlderThan(@Param("accountNumber") String accountNumber,
+                                            @Param("timestamp") LocalDateTime timestamp,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * Returns the transfers into an account that are older than a keyset position.
+     * @param accountNumber The beneficiary account number.
+     * @param timestamp The timestamp of the last transaction already returned.
+     * @param id The id of the last transaction already returned.
+     * @param pageable The page size (only the first page is used).
+     * @return The transfers ordered by timestamp and id, newest first.
+     */
+    @Query("select j from TransferJournal j where j.toAccountNumber = :accountNumber"
+            + " and (j.timestamp < :timestamp or (j.timestamp = :timestamp and j.id < :id))"
+            + " order by j.timestamp desc, j.id desc")
+    List<TransferJournal> findToOlderThan(@Param("accountNumber") String accountNumber,
+                                          @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    /**
+     * Streams every transfer out of an account, oldest first, for exports. Must be consumed inside a transaction.
+     * @param accountNumber The source account number.
+     * @return A forward-only stream of transfers.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select j from TransferJournal j where j.fromAccountNumber = :accountNumber order by j.timestamp, j.id")
+    Stream<TransferJournal> streamFrom(@Param("accountNumber") String accountNumber);
+
+    /**
+     * Streams every transfer into an account, oldest first, for exports. Must be consumed inside a transaction.
+     * @param accountNumber The beneficiary account number.
+     * @return A forward-only stream of transfers.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select j from TransferJournal j where j.toAccountNumber = :accountNumber order by j.timestamp, j.id")
+    Stream<TransferJournal> streamTo(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,116 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of account lookups by account number and by user ID.
+ * Writers invalidate the entries of the accounts they change once their transaction has committed. A lookup by
+ * account number that loaded the previous state before such an invalidation does not leave it cached: every
+ * invalidation bumps a generation, and a load whose generation changed removes what it stored. Lookups by user
+ * load through the cache atomically, so an invalidation waits for a running load and then removes its result.
+ */
+@Component
+public class AccountCache {
+
+    public static final String ACCOUNTS_BY_NUMBER = "accountsByNumber";
+    public static final String ACCOUNTS_BY_USER = "accountsByUser";
+    private static final int GENERATION_STRIPES = 256;
+
+    private final Cache accountsByNumber;
+    private final Cache accountsByUser;
+    // Invalidations per stripe of account numbers; a shared stripe only costs a skipped cache fill.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public AccountCache(CacheManager cacheManager) {
+        this.accountsByNumber = Objects.requireNonNull(cacheManager.getCache(ACCOUNTS_BY_NUMBER), ACCOUNTS_BY_NUMBER);
+        this.accountsByUser = Objects.requireNonNull(cacheManager.getCache(ACCOUNTS_BY_USER), ACCOUNTS_BY_USER);
+    }
+
+    /**
+     * Returns the cached account or loads it. Missing accounts are not cached.
+     * @param accountNumber The account number.
+     * @param loader Loads the account on a cache miss.
+     * @return The account, if it exists.
+     */
+    public Optional<Account> getByAccountNumber(String accountNumber, Function<String, Optional<Account>> loader) {
+        Account cached = accountsByNumber.get(accountNumber, Account.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        int stripe = stripeOf(accountNumber);
+        long generation = generations.get(stripe);
+        Optional<Account> loaded = loader.apply(accountNumber);
+        if (loaded.isPresent()) {
+            accountsByNumber.put(accountNumber, loaded.get());
+            // A writer committed while this load ran: its eviction may have run before the put, so undo the put.
+            if (generations.get(stripe) != generation) {
+                accountsByNumber.evict(accountNumber);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Tells whether the account is currently cached, which proves that it exists.
+     * @param accountNumber The account number.
+     * @return true if the account is cached.
+     */
+    public boolean containsAccountNumber(String accountNumber) {
+        return accountsByNumber.get(accountNumber) != null;
+    }
+
+    /**
+     * Returns the cached accounts of a user or loads them.
+     * @param userId The ID of the user.
+     * @param loader Loads the accounts on a cache miss.
+     * @return The accounts of the user.
+     */
+    public List<Account> getByUserId(Long userId, Function<Long, List<Account>> loader) {
+        return accountsByUser.get(userId, () -> loader.apply(userId));
+    }
+
+    /**
+     * Invalidates the entries of a changed account after the current transaction commits,
+     * or immediately when no transaction is active.
+     * @param account The account that changed.
+     */
+    public void evict(Account account) {
+        String accountNumber = account.getAccountNumber();
+        Long userId = account.getUserId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(accountNumber, userId);
+                }
+            });
+        } else {
+            evictNow(accountNumber, userId);
+        }
+    }
+
+    private static int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), GENERATION_STRIPES);
+    }
+
+    private void evictNow(String accountNumber, Long userId) {
+        if (accountNumber != null) {
+            generations.incrementAndGet(stripeOf(accountNumber));
+            accountsByNumber.evict(accountNumber);
+        }
+        if (userId != null) {
+            accountsByUser.evict(userId);
+        }
+    }
+}
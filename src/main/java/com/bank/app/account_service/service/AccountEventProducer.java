@@ -1,33 +1,59 @@
 package com.bank.app.account_service.service;
 
+import com.bank.app.account_service.dto.TransactionCommandResult;
+import com.bank.app.account_service.dto.TransactionSubmission;
 import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.OutboxEvent;
+import com.bank.app.account_service.monitoring.OutboxWriteEvent;
+import com.bank.app.account_service.monitoring.TransactionEvent;
+import com.bank.app.account_service.repo.OutboxEventRepository;
 import com.bank.core.entity.AccountNotification;
 import com.bank.core.entity.TransactionRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records account and transaction events in the outbox table. The events are written in the caller's
+ * transaction, so they are only published (by {@link OutboxRelay}) if that transaction commits.
+ */
 @Service
 public class AccountEventProducer {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountEventProducer.class);
     private static final String ACCOUNT_TOPIC = "account-service-topic";
     private static final String TX_TOPIC = "transaction-service-topic";
+    public static final String RESULT_TOPIC = "transaction-result-topic";
+    public static final String SUBMISSION_TOPIC = "transaction-submission-topic";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
 
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private ObjectMapper objectMapper;
+
+    @Value("${account.kafka.partitioning:ACCOUNT_NUMBER}")
+    private EventPartitioning partitioning = EventPartitioning.ACCOUNT_NUMBER;
 
     /**
      * Sends a message indicating that an account has been created.
      * @param account The account that was created.
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendAccountCreatedMessage(Account account) {
-        AccountNotification accountNotification = new AccountNotification(account.getAccountNumber(), account.getBalance(), account.getDateOpened(), account.getUserId(), account.getUserName(), account.getEmail(), account.getPhoneNumber());
-        logger.info("Sending account created message for account number: {}", account.getAccountNumber());
-        kafkaTemplate.send(ACCOUNT_TOPIC, "Open", accountNotification);
-        logger.info("Account created message sent successfully for account number: {}", account.getAccountNumber());
+        AccountNotification accountNotification = new AccountNotification(account.getAccountNumber(), account.getBalance().toBigDecimal(), account.getDateOpened(), account.getUserId(), account.getUserName(), account.getEmail(), account.getPhoneNumber());
+        logger.info("Queueing account created message for account number: {}", account.getAccountNumber());
+        enqueue(ACCOUNT_TOPIC, "Open", account.getAccountNumber(), accountNotification);
     }
 
     /**
@@ -35,9 +61,100 @@ public class AccountEventProducer {
      * @param key The transaction type (withdraw or credit).
      * @param transactionRequest The transaction request details.
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendWithdrawOrCreditBalanceMessage(String key, TransactionRequest transactionRequest) {
-        logger.info("Sending {} message for account number: {}", key, transactionRequest.getAccountNumber());
-        kafkaTemplate.send(TX_TOPIC, key, transactionRequest);
-        logger.info("{} message sent successfully for account number: {}", key, transactionRequest.getAccountNumber());
+        logger.info("Queueing {} message for account number: {}", key, transactionRequest.getAccountNumber());
+        enqueue(TX_TOPIC, key, transactionRequest.getAccountNumber(), transactionRequest);
+    }
+
+    /**
+     * Sends withdrawal and credit messages for a batch of transactions with a single batched outbox insert.
+     * The transaction type of each request is used as its event key.
+     * @param transactionRequests The transaction request details.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendWithdrawOrCreditBalanceMessages(List<TransactionRequest> transactionRequests) {
+        logger.info("Queueing {} transaction messages", transactionRequests.size());
+        OutboxWriteEvent jfrEvent = new OutboxWriteEvent();
+        jfrEvent.begin();
+        List<OutboxEvent> events = new ArrayList<>(transactionRequests.size());
+        long payloadBytes = 0;
+        for (TransactionRequest transactionRequest : transactionRequests) {
+            OutboxEvent event = toEvent(TX_TOPIC, String.valueOf(transactionRequest.getType()), transactionRequest.getAccountNumber(), transactionRequest);
+            payloadBytes += event.getPayload().length();
+            events.add(event);
+        }
+        outboxEventRepository.insertAll(events);
+        commit(jfrEvent, TX_TOPIC, "BATCH", null, events.size(), payloadBytes);
+    }
+
+    /**
+     * Sends the results of transaction commands consumed from Kafka with a single batched outbox insert.
+     * The result status is used as the event type.
+     * @param results The command results.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendTransactionCommandResults(List<TransactionCommandResult> results) {
+        logger.info("Queueing {} transaction command results", results.size());
+        OutboxWriteEvent jfrEvent = new OutboxWriteEvent();
+        jfrEvent.begin();
+        List<OutboxEvent> events = new ArrayList<>(results.size());
+        long payloadBytes = 0;
+        for (TransactionCommandResult result : results) {
+            OutboxEvent event = toEvent(RESULT_TOPIC, String.valueOf(result.getStatus()), result.getAccountNumber(), result);
+            payloadBytes += event.getPayload().length();
+            events.add(event);
+        }
+        outboxEventRepository.insertAll(events);
+        commit(jfrEvent, RESULT_TOPIC, "BATCH", null, events.size(), payloadBytes);
+    }
+
+    /**
+     * Sends the final status of an asynchronously submitted transaction.
+     * @param submission The completed submission.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendTransactionSubmissionResult(TransactionSubmission submission) {
+        logger.info("Queueing {} submission result for account number: {}", submission.getState(), submission.getAccountNumber());
+        enqueue(SUBMISSION_TOPIC, String.valueOf(submission.getState()), submission.getAccountNumber(), submission);
+    }
+
+    private void enqueue(String topic, String eventType, String accountNumber, Object payload) {
+        OutboxWriteEvent jfrEvent = new OutboxWriteEvent();
+        jfrEvent.begin();
+        OutboxEvent event = toEvent(topic, eventType, accountNumber, payload);
+        outboxEventRepository.save(event);
+        commit(jfrEvent, topic, eventType, accountNumber, 1, event.getPayload().length());
+    }
+
+    private static void commit(OutboxWriteEvent jfrEvent, String topic, String eventType, String accountNumber, int events, long payloadBytes) {
+        jfrEvent.end();
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.topic = topic;
+            jfrEvent.eventType = eventType;
+            jfrEvent.accountHash = TransactionEvent.hash(accountNumber);
+            jfrEvent.events = events;
+            jfrEvent.payloadBytes = payloadBytes;
+            jfrEvent.commit();
+        }
+    }
+
+    private OutboxEvent toEvent(String topic, String eventType, String accountNumber, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize event for topic " + topic, e);
+        }
+        String messageKey = partitioning.keyFor(eventType, accountNumber);
+        return OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(messageKey)
+                .shard(OutboxEvent.shardOf(messageKey))
+                .eventType(eventType)
+                .payloadType(payload.getClass().getName())
+                .payload(json)
+                .createdAt(LocalDateTime.now())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every account number, used to answer "this account does not exist" without a query.
+ * <p>
+ * The filter is built at startup by streaming the accounts table and updated by {@code openAccount}.
+ * Accounts opened on other instances are picked up by a catch-up scan over new ids, which runs before
+ * a negative answer is trusted whenever the last scan is older than {@code account.filter.max-staleness-ms}.
+ * Until the initial build has finished every lookup is reported as a possible match.
+ */
+@Component
+public class AccountExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountExistenceFilter.class);
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long maxStalenessNanos;
+    private final long catchUpOverlap;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong lastSeenId = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final Counter negativeCounter;
+    private final Object refreshLock = new Object();
+    private volatile long lastRefreshNanos;
+    private volatile boolean ready;
+
+    public AccountExistenceFilter(AccountRepository accountRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${account.filter.expected-accounts:5000000}") long expectedAccounts,
+                                  @Value("${account.filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${account.filter.max-staleness-ms:500}") long maxStalenessMillis,
+                                  @Value("${account.filter.catch-up-overlap:1000}") long catchUpOverlap) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Standard sizing: m = -n ln(p) / ln(2)^2 bits and k = m/n ln(2) hash functions.
+        long bitsNeeded = (long) Math.ceil(-expectedAccounts * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (bitsNeeded + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedAccounts * Math.log(2)));
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.catchUpOverlap = catchUpOverlap;
+
+        Gauge.builder("account.filter.memory", this, filter -> filter.bitCount / 8.0)
+                .description("Memory used by the account number Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("account.filter.expected.false.positive.rate", this, AccountExistenceFilter::expectedFalsePositiveRate)
+                .description("False positive rate predicted from the current number of accounts")
+                .register(meterRegistry);
+        Gauge.builder("account.filter.observed.false.positive.rate", this, AccountExistenceFilter::observedFalsePositiveRate)
+                .description("Share of filter matches the database then reported as missing")
+                .register(meterRegistry);
+        this.negativeCounter = Counter.builder("account.filter.negatives")
+                .description("Lookups answered as missing without querying the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every existing account number into the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        catchUp(0);
+        ready = true;
+        logger.info("Account number filter built with {} accounts in {} ms ({} KiB, {} hash functions)",
+                insertions.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), bitCount / 8 / 1024, hashCount);
+    }
+
+    /**
+     * Adds a newly opened account.
+     * @param accountNumber The account number.
+     */
+    public void add(String accountNumber) {
+        long hash = hash(accountNumber);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            changed |= (current & mask) == 0;
+        }
+        // Re-inserts from the catch-up overlap set no bit; counting them would inflate the expected false positive rate.
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Tells whether an account may exist. A false answer is definite.
+     * @param accountNumber The account number.
+     * @return false if the account certainly does not exist.
+     */
+    public boolean mightExist(String accountNumber) {
+        if (!ready || accountNumber == null) {
+            return true;
+        }
+        if (mightContain(accountNumber)) {
+            positives.incrementAndGet();
+            return true;
+        }
+        if (System.nanoTime() - lastRefreshNanos > maxStalenessNanos) {
+            refresh();
+            if (mightContain(accountNumber)) {
+                positives.incrementAndGet();
+                return true;
+            }
+        }
+        negativeCounter.increment();
+        return false;
+    }
+
+    /**
+     * Records that a possible match turned out not to exist in the database.
+     */
+    public void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    double observedFalsePositiveRate() {
+        long matches = positives.get();
+        return matches == 0 ? 0.0 : (double) falsePositives.get() / matches;
+    }
+
+    private boolean mightContain(String accountNumber) {
+        long hash = hash(accountNumber);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            if (System.nanoTime() - lastRefreshNanos <= maxStalenessNanos) {
+                return;
+            }
+            // Rows with lower ids can commit after higher ones, so re-read a small overlap; duplicates are harmless.
+            catchUp(Math.max(0, lastSeenId.get() - catchUpOverlap));
+        }
+    }
+
+    private void catchUp(long afterId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AccountRepository.AccountNumberView> accounts = accountRepository.streamAccountNumbersAfter(afterId)) {
+                accounts.forEach(account -> {
+                    add(account.getAccountNumber());
+                    lastSeenId.accumulateAndGet(account.getId(), Math::max);
+                });
+            }
+        });
+        lastRefreshNanos = System.nanoTime();
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the characters followed by the MurmurHash3 finalizer to spread the bits.
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
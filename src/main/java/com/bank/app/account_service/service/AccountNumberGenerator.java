@@ -0,0 +1,14 @@
+package com.bank.app.account_service.service;
+
+/**
+ * Generates account numbers for new accounts. The implementation is chosen with
+ * {@code account.number.generator} ({@code block} or {@code random}).
+ */
+public interface AccountNumberGenerator {
+
+    /**
+     * Returns an account number that is not used by any account.
+     * @return The account number.
+     */
+    String nextAccountNumber();
+}
@@ -1,5 +1,6 @@
 package com.bank.app.account_service.service;
 
+import com.bank.app.account_service.dto.TransactionResult;
 import com.bank.app.account_service.entity.Account;
 import com.bank.app.account_service.exception.AccountNotFoundException;
 import com.bank.core.entity.TransactionRequest;
@@ -36,6 +37,14 @@ public interface AccountService {
      */
     String processTransactions(TransactionRequest transactionRequest);
 
+    /**
+     * Processes a batch of credits and withdrawals in one database transaction.
+     * Items that cannot be applied are reported in the result and do not affect the others.
+     * @param transactionRequests The transaction requests, applied in order.
+     * @return One result per request, in request order.
+     */
+    List<TransactionResult> processTransactionBatch(List<TransactionRequest> transactionRequests);
+
     /**
      * Validates if an account exists.
      * @param accountNumber The account number to validate.
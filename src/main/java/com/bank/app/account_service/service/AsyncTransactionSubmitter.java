@@ -0,0 +1,238 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionSubmission;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.app.account_service.monitoring.SqlStatistics;
+import com.bank.core.entity.TransactionRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous transaction submission. A request is validated and queued on a bounded executor, and the caller gets
+ * a transaction id back at once; the outcome is looked up by that id and, with
+ * {@code account.async.result-events.enabled}, also published on the submission topic.
+ * <p>
+ * Validation covers what can be checked without locking (type, amount, account existence), so a 202 is not a
+ * promise that the transaction succeeds: funds are checked when it runs. When the queue is full the submission is
+ * rejected with {@link RejectedExecutionException} rather than queued without bound. Statuses are kept in memory
+ * for {@code account.async.status-ttl-seconds}, so they are lost on restart and only visible on the instance that
+ * accepted the request. Submissions still queued when the shutdown timeout expires are marked FAILED, so their
+ * callers learn that the outcome must be checked before retrying.
+ * <p>
+ * Credits and withdrawals go through the {@link GroupCommitter} when group commit is enabled, like the synchronous
+ * endpoint; transfers always run on their own.
+ */
+@Component
+@ConditionalOnProperty(name = "account.async.enabled", havingValue = "true", matchIfMissing = true)
+public class AsyncTransactionSubmitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransactionSubmitter.class);
+    private static final String CREDIT = "CREDIT";
+    private static final String WITHDRAW = "WITHDRAW";
+
+    private final AccountService accountService;
+    private final AccountEventProducer accountEventProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean resultEvents;
+    private final long shutdownTimeoutSeconds;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, TransactionSubmission> statuses;
+    private final Timer queueWait;
+    private final Counter rejectedCounter;
+
+    // Only present when account.group-commit.enabled=true
+    private final GroupCommitter groupCommitter;
+
+    public AsyncTransactionSubmitter(AccountService accountService,
+                                     Optional<GroupCommitter> groupCommitter,
+                                     AccountEventProducer accountEventProducer,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${account.async.threads:8}") int threads,
+                                     @Value("${account.async.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${account.async.status-ttl-seconds:3600}") long statusTtlSeconds,
+                                     @Value("${account.async.max-statuses:1000000}") long maxStatuses,
+                                     @Value("${account.async.result-events.enabled:false}") boolean resultEvents,
+                                     @Value("${account.async.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.accountService = accountService;
+        this.groupCommitter = groupCommitter.orElse(null);
+        this.accountEventProducer = accountEventProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.resultEvents = resultEvents;
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("async-transaction-"), new ThreadPoolExecutor.AbortPolicy());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxStatuses)
+                .expireAfterWrite(Duration.ofSeconds(statusTtlSeconds))
+                .build();
+        this.queueWait = Timer.builder("account.async.wait")
+                .description("Time from submission until a worker started the transaction")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("account.async.rejected")
+                .description("Submissions rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("account.async.queue", queue, BlockingQueue::size)
+                .description("Submitted transactions waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("account.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Submitted transactions being processed")
+                .register(meterRegistry);
+        logger.info("Asynchronous submission enabled: {} threads, queue capacity {}", threads, queueCapacity);
+    }
+
+    /**
+     * Validates and queues a credit or withdrawal.
+     * @param transactionRequest The transaction request details.
+     * @return The pending submission with its transaction id.
+     * @throws IllegalArgumentException if the type or amount is invalid.
+     * @throws AccountNotFoundException if the account does not exist.
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public TransactionSubmission submitTransaction(TransactionRequest transactionRequest) {
+        String type = String.valueOf(transactionRequest.getType()).toUpperCase();
+        if (!CREDIT.equals(type) && !WITHDRAW.equals(type)) {
+            throw new IllegalArgumentException("Invalid transaction type");
+        }
+        validateAmount(transactionRequest.getAmount());
+        accountService.validateAccountExists(transactionRequest.getAccountNumber());
+        return submit(TransactionMetrics.operationOf(type), transactionRequest.getAccountNumber(),
+                () -> groupCommitter != null
+                        ? groupCommitter.process(transactionRequest)
+                        : accountService.processTransaction(transactionRequest));
+    }
+
+    /**
+     * Validates and queues a transfer.
+     * @param transactionRequest The transaction request details.
+     * @return The pending submission with its transaction id.
+     * @throws IllegalArgumentException if the accounts or the amount are invalid.
+     * @throws AccountNotFoundException if either account does not exist.
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public TransactionSubmission submitTransfer(TransactionRequest transactionRequest) {
+        String fromAccountNumber = transactionRequest.getFromAccount();
+        String toAccountNumber = transactionRequest.getToAccount();
+        if (fromAccountNumber == null || toAccountNumber == null) {
+            throw new IllegalArgumentException("From and to accounts are required");
+        }
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account: " + fromAccountNumber);
+        }
+        validateAmount(transactionRequest.getAmount());
+        accountService.validateAccountExists(fromAccountNumber);
+        accountService.validateAccountExists(toAccountNumber);
+        return submit(TransactionMetrics.TRANSFER, fromAccountNumber, () -> accountService.processTransactions(transactionRequest));
+    }
+
+    /**
+     * @param transactionId The id returned on submission.
+     * @return The current status, empty if the id is unknown or its status has expired.
+     */
+    public Optional<TransactionSubmission> status(String transactionId) {
+        return Optional.ofNullable(statuses.getIfPresent(transactionId));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+            return;
+        }
+        List<Runnable> unprocessed = executor.shutdownNow();
+        logger.warn("{} submitted transactions were not processed before shutdown", unprocessed.size());
+        for (Runnable runnable : unprocessed) {
+            TransactionSubmission pending = ((QueuedSubmission) runnable).pending();
+            finish(pending.complete(TransactionSubmission.State.FAILED, "Not processed before shutdown"));
+        }
+    }
+
+    private TransactionSubmission submit(String operation, String accountNumber, Supplier<String> work) {
+        TransactionSubmission pending = TransactionSubmission.pending(UUID.randomUUID().toString(), operation, accountNumber);
+        statuses.put(pending.getTransactionId(), pending);
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(new QueuedSubmission(pending, () -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                SqlStatistics.runTask("async-" + operation, () -> run(pending, work));
+            }));
+        } catch (RejectedExecutionException e) {
+            statuses.invalidate(pending.getTransactionId());
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Asynchronous transaction queue is full", e);
+        }
+        return pending;
+    }
+
+    private void run(TransactionSubmission pending, Supplier<String> work) {
+        TransactionSubmission completed;
+        try {
+            completed = pending.complete(TransactionSubmission.State.SUCCEEDED, work.get());
+        } catch (AccountNotFoundException | InsufficientFundsException | IllegalArgumentException e) {
+            completed = pending.complete(TransactionSubmission.State.REJECTED, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Asynchronous transaction {} failed", pending.getTransactionId(), e);
+            completed = pending.complete(TransactionSubmission.State.FAILED, "An unexpected error occurred");
+        }
+        finish(completed);
+    }
+
+    private void finish(TransactionSubmission completed) {
+        statuses.put(completed.getTransactionId(), completed);
+        meterRegistry.counter("account.async.completed", "state", completed.getState().name().toLowerCase()).increment();
+        if (resultEvents) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> accountEventProducer.sendTransactionSubmissionResult(completed));
+            } catch (RuntimeException e) {
+                // The status lookup still has the outcome.
+                logger.error("Could not queue the result event of transaction {}", completed.getTransactionId(), e);
+            }
+        }
+    }
+
+    /**
+     * A queued submission, so the submissions that {@code shutdownNow} hands back can be completed.
+     */
+    private record QueuedSubmission(TransactionSubmission pending, Runnable task) implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private static void validateAmount(BigDecimal amount) {
+        if (!Money.isRepresentable(amount) || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive and have at most " + Money.SCALE + " decimal places");
+        }
+    }
+}
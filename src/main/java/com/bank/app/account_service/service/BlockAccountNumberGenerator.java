@@ -0,0 +1,172 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.AccountNumberBlock;
+import com.bank.app.account_service.repo.AccountNumberBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collision-free account numbers from a hi-lo counter. Each instance leases a block of values from the
+ * account_number_blocks table in its own short transaction and hands them out lock-free from memory.
+ * <p>
+ * Leases run on a dedicated thread, and the next block is leased as soon as half of the current one is used.
+ * Account numbers are drawn inside the open-account transaction, so leasing on the caller's thread would need a
+ * second pooled connection while the first is held; with the pool exhausted at a block boundary every caller would
+ * wait for the connection timeout. Callers only wait for a lease if the prefetch has not finished or has failed.
+ * <p>
+ * Values start at 10,000,000,000, so the numbers are at least 11 digits long and can never clash with
+ * the 10-digit year-prefixed numbers issued by the random generator. An optional Luhn check digit lets
+ * callers catch mistyped account numbers before they reach the service.
+ */
+@Component
+@ConditionalOnProperty(name = "account.number.generator", havingValue = "block", matchIfMissing = true)
+public class BlockAccountNumberGenerator implements AccountNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockAccountNumberGenerator.class);
+    static final String COUNTER_NAME = "account_number";
+    static final long FIRST_VALUE = 10_000_000_000L;
+
+    private final AccountNumberBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final boolean checkDigit;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+    private final Object leaseLock = new Object();
+    private final ExecutorService leaser;
+    private CompletableFuture<Block> nextBlock;     // Guarded by leaseLock
+
+    public BlockAccountNumberGenerator(AccountNumberBlockRepository blockRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${account.number.block-size:1000}") int blockSize,
+                                       @Value("${account.number.check-digit:true}") boolean checkDigit) {
+        this.blockRepository = blockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The lease must commit on its own, not with the account being opened, so other instances are not blocked.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        this.checkDigit = checkDigit;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("account-number-lease-");
+        threadFactory.setDaemon(true);
+        this.leaser = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value == block.prefetchAt) {
+                prefetch();
+            }
+            if (value < block.end) {
+                return format(value);
+            }
+            synchronized (leaseLock) {
+                if (current.get() == block) {
+                    current.set(awaitNextBlock());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        leaser.shutdownNow();
+    }
+
+    private void prefetch() {
+        synchronized (leaseLock) {
+            if (nextBlock == null) {
+                nextBlock = CompletableFuture.supplyAsync(this::leaseBlock, leaser);
+            }
+        }
+    }
+
+    private Block awaitNextBlock() {
+        CompletableFuture<Block> lease = nextBlock != null ? nextBlock : CompletableFuture.supplyAsync(this::leaseBlock, leaser);
+        // A failed lease is not kept, so the next caller retries it.
+        nextBlock = null;
+        try {
+            return lease.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Block leaseBlock() {
+        try {
+            return transactionTemplate.execute(status -> reserve());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter row at the same time; it exists now.
+            return transactionTemplate.execute(status -> reserve());
+        }
+    }
+
+    private Block reserve() {
+        AccountNumberBlock counter = blockRepository.findForUpdate(COUNTER_NAME)
+                .orElseGet(() -> blockRepository.saveAndFlush(new AccountNumberBlock(COUNTER_NAME, FIRST_VALUE)));
+        long start = counter.getNextValue();
+        counter.setNextValue(start + blockSize);
+        blockRepository.save(counter);
+        logger.info("Leased account number block [{}, {})", start, start + blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    private String format(long value) {
+        String digits = Long.toString(value);
+        return checkDigit ? digits + luhnCheckDigit(digits) : digits;
+    }
+
+    /**
+     * Computes the Luhn (mod 10) check digit of a string of digits.
+     * @param digits The digits without check digit.
+     * @return The check digit.
+     */
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubleIt) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleIt = !doubleIt;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long prefetchAt;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.prefetchAt = start + (end - start) / 2;
+            this.end = end;
+        }
+    }
+}
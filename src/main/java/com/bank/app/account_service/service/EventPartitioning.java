@@ -0,0 +1,40 @@
+package com.bank.app.account_service.service;
+
+/**
+ * Chooses the Kafka record key, and therefore the partition, of account and transaction events.
+ */
+public enum EventPartitioning {
+
+    /**
+     * Key by account number: events spread over all partitions and stay ordered per account.
+     */
+    ACCOUNT_NUMBER {
+        @Override
+        public String keyFor(String eventType, String accountNumber) {
+            return accountNumber;
+        }
+    },
+
+    /**
+     * Legacy keying by event type ("Open", "WITHDRAW", "CREDIT"), which uses at most one partition per type.
+     */
+    EVENT_TYPE {
+        @Override
+        public String keyFor(String eventType, String accountNumber) {
+            return eventType;
+        }
+    };
+
+    /**
+     * Header carrying the event type now that it is no longer the record key.
+     */
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    /**
+     * Returns the record key for an event.
+     * @param eventType The event type.
+     * @param accountNumber The account the event belongs to.
+     * @return The record key.
+     */
+    public abstract String keyFor(String eventType, String accountNumber);
+}
@@ -0,0 +1,197 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.app.account_service.monitoring.SqlStatistics;
+import com.bank.core.entity.TransactionRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single credits and withdrawals. Concurrent requests are queued in a bounded buffer and a
+ * single drainer thread applies them together through {@link AccountService#processTransactionBatch}, so many
+ * requests share one database commit. A group is closed when it reaches {@code account.group-commit.max-batch-size}
+ * requests or {@code account.group-commit.max-wait-ms} after its first request arrived, whichever comes first.
+ * <p>
+ * Each caller gets the same outcome as {@link AccountService#processTransaction}: the success message, or the
+ * exception that call would have thrown. If the group's transaction fails, every request of the group fails.
+ */
+@Component
+@ConditionalOnProperty(name = "account.group-commit.enabled", havingValue = "true")
+public class GroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitter.class);
+    private static final String SUCCESS_MESSAGE = "Transaction successful";
+
+    private final AccountService accountService;
+    private final BlockingQueue<PendingTransaction> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Thread drainer;
+    private final DistributionSummary groupSize;
+    private final Timer queueWait;
+    private final Counter rejectedCounter;
+    private volatile boolean running = true;
+
+    public GroupCommitter(AccountService accountService,
+                          MeterRegistry meterRegistry,
+                          @Value("${account.group-commit.max-batch-size:100}") int maxBatchSize,
+                          @Value("${account.group-commit.max-wait-ms:5}") long maxWaitMillis,
+                          @Value("${account.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.accountService = accountService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.groupSize = DistributionSummary.builder("account.groupcommit.size")
+                .description("Transactions committed together in one group")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("account.groupcommit.wait")
+                .description("Time from submission until the group containing the transaction committed")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("account.groupcommit.rejected")
+                .description("Transactions rejected because the group commit queue was full")
+                .register(meterRegistry);
+        Gauge.builder("account.groupcommit.queue", queue, BlockingQueue::size)
+                .description("Transactions waiting for the next group")
+                .register(meterRegistry);
+        this.drainer = new Thread(this::run, "group-commit");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+        logger.info("Group commit enabled: max batch size {}, max wait {} ms, queue capacity {}", maxBatchSize, maxWaitMillis, queueCapacity);
+    }
+
+    /**
+     * Queues a transaction for the next group.
+     * @param transactionRequest The transaction request details.
+     * @return Completes with the result message once the group has committed.
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public CompletableFuture<String> submit(TransactionRequest transactionRequest) {
+        PendingTransaction pending = new PendingTransaction(transactionRequest);
+        if (!running || !queue.offer(pending)) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Group commit queue is full");
+        }
+        return pending.result;
+    }
+
+    /**
+     * Queues a transaction and waits for its group to commit.
+     * @param transactionRequest The transaction request details.
+     * @return A message indicating the result of the transaction.
+     */
+    public String process(TransactionRequest transactionRequest) {
+        try {
+            return submit(transactionRequest).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        drainer.interrupt();
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+        PendingTransaction pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new RejectedExecutionException("Group commit stopped"));
+        }
+    }
+
+    private void run() {
+        List<PendingTransaction> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxBatchSize) {
+                    // Take whatever is already queued, then wait for more until the window closes.
+                    queue.drainTo(group, maxBatchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTransaction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(pending -> pending.result.completeExceptionally(new RejectedExecutionException("Group commit stopped")));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    void commit(List<PendingTransaction> group) {
+        List<TransactionRequest> requests = new ArrayList<>(group.size());
+        for (PendingTransaction pending : group) {
+            requests.add(pending.request);
+        }
+        List<TransactionResult> results;
+        try {
+            results = SqlStatistics.trackTask("group-commit", () -> accountService.processTransactionBatch(requests));
+        } catch (RuntimeException e) {
+            logger.error("Group of {} transactions failed", group.size(), e);
+            group.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+        groupSize.record(group.size());
+        long now = System.nanoTime();
+        for (int i = 0; i < group.size(); i++) {
+            PendingTransaction pending = group.get(i);
+            queueWait.record(now - pending.submittedNanos, TimeUnit.NANOSECONDS);
+            complete(pending.result, results.get(i));
+        }
+    }
+
+    private static void complete(CompletableFuture<String> future, TransactionResult result) {
+        switch (result.getStatus()) {
+            case SUCCESS -> future.complete(SUCCESS_MESSAGE);
+            case ACCOUNT_NOT_FOUND -> future.completeExceptionally(new AccountNotFoundException(result.getMessage()));
+            case INSUFFICIENT_FUNDS -> future.completeExceptionally(new InsufficientFundsException(result.getMessage()));
+            default -> future.completeExceptionally(new IllegalArgumentException(result.getMessage()));
+        }
+    }
+
+    static final class PendingTransaction {
+        private final TransactionRequest request;
+        private final long submittedNanos = System.nanoTime();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        PendingTransaction(TransactionRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.AccountBalanceSlot;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.repo.AccountBalanceSlotRepository;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sub-balance slots for hot accounts, such as merchant and settlement accounts credited thousands of times a minute.
+ * <p>
+ * An account split into N slots keeps slot 0 in the balance column of its own row and slots 1..N-1 in
+ * {@link AccountBalanceSlot} rows; its balance is the sum of all of them. A credit goes to a random slot and only
+ * locks that slot's row, so N concurrent credits no longer queue on one row lock. A debit tries the slots in
+ * ascending order and, if no single slot holds the amount, drains every slot into the account row and tries the
+ * row again. Locks are always taken in slot order, so debits and resizes cannot deadlock each other.
+ * <p>
+ * Slot counts are cached and reloaded when older than {@code account.hot-accounts.max-staleness-ms}, like the
+ * account number filter. Accounts the cache does not know as split cost nothing on the credit and read paths: their
+ * balance is the account row and no slot query is issued. A count can be stale on a node that has not seen a resize
+ * made elsewhere, for at most the staleness window: a credit to a slot that no longer exists falls back to the
+ * account row, and a reported balance may leave out slots created elsewhere until the next reload. Moving funds
+ * does not trust the count: when the account row is short, a debit (and a transfer or batch through
+ * {@link #absorbSlots}) drains every slot row, so a stale count never rejects a withdrawal the slots cover. Plain
+ * accounts pay one indexed lookup on that insufficient-funds path only.
+ */
+@Component
+public class HotAccountBalances {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotAccountBalances.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSlots;
+    private final long maxStalenessNanos;
+    private final Counter drainCounter;
+    private final Object refreshLock = new Object();
+    private volatile Map<String, Integer> slotCounts = Map.of();
+    private volatile long lastRefreshNanos;
+    private volatile boolean loaded;
+
+    public HotAccountBalances(AccountRepository accountRepository,
+                              AccountBalanceSlotRepository slotRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${account.hot-accounts.max-slots:64}") int maxSlots,
+                              @Value("${account.hot-accounts.max-staleness-ms:1000}") long maxStalenessMillis) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSlots = maxSlots;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.drainCounter = Counter.builder("account.hot.slot.drains")
+                .description("Debits that drained every balance slot into the account row")
+                .register(meterRegistry);
+        Gauge.builder("account.hot.accounts", this, balances -> balances.slotCounts.size())
+                .description("Accounts split into balance slots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param accountNumber The account number.
+     * @return The number of balance slots of the account, 1 if it is not split.
+     */
+    public int slots(String accountNumber) {
+        return counts().getOrDefault(accountNumber, 1);
+    }
+
+    /**
+     * @return The slot count of every split account, by account number.
+     */
+    public Map<String, Integer> shardedAccounts() {
+        return new TreeMap<>(counts());
+    }
+
+    /**
+     * Credits a random slot of the account.
+     * @param accountNumber The account number.
+     * @param amount The amount to credit.
+     * @return The number of rows updated, 0 if the account does not exist.
+     */
+    public int credit(String accountNumber, BigDecimal amount) {
+        int slots = slots(accountNumber);
+        int slot = slots > 1 ? ThreadLocalRandom.current().nextInt(slots) : 0;
+        if (slot > 0 && slotRepository.creditSlot(accountNumber, slot, amount) == 1) {
+            return 1;
+        }
+        return accountRepository.creditBalance(accountNumber, amount);
+    }
+
+    /**
+     * Debits the account row, then each known slot in turn, then the account row again after draining every slot
+     * row into it. The drain does not depend on the cached slot count, so slots created by a resize on another node
+     * are found as well.
+     * @param accountNumber The account number.
+     * @param amount The amount to debit.
+     * @return The number of rows updated, 0 if the account does not exist or has insufficient funds.
+     */
+    public int debit(String accountNumber, BigDecimal amount) {
+        if (accountRepository.debitBalance(accountNumber, amount) == 1) {
+            return 1;
+        }
+        int slots = slots(accountNumber);
+        for (int slot = 1; slot < slots; slot++) {
+            if (slotRepository.debitSlot(accountNumber, slot, amount) == 1) {
+                return 1;
+            }
+        }
+        // No single slot holds the amount, but together they might.
+        Money drained = drain(accountNumber);
+        if (drained.signum() <= 0) {
+            return 0;
+        }
+        accountRepository.creditBalance(accountNumber, drained.toBigDecimal());
+        return accountRepository.debitBalance(accountNumber, amount);
+    }
+
+    /**
+     * Moves every slot balance of a locked, managed account into the account entity, for callers that hold the
+     * account row lock and update the balance through the entity (transfers and batches).
+     * @param account The locked account.
+     */
+    public void absorbSlots(Account account) {
+        account.setBalance(account.getBalance().plus(drain(account.getAccountNumber())));
+    }
+
+    /**
+     * @param accountNumber The account number.
+     * @return The sum of the account's slots 1..N-1, zero without a query if the account is not split.
+     */
+    public Money slotTotal(String accountNumber) {
+        if (slots(accountNumber) <= 1) {
+            return Money.ZERO;
+        }
+        return Money.of(slotRepository.sumBalances(accountNumber));
+    }
+
+    /**
+     * @param account An account as stored.
+     * @return The account itself if it is not split or its slots hold nothing, otherwise a copy whose balance is the
+     *         sum of all slots.
+     */
+    public Account withSlotBalances(Account account) {
+        Money slotTotal = slotTotal(account.getAccountNumber());
+        if (slotTotal.signum() == 0) {
+            return account;
+        }
+        // A copy, so the summed balance can never be flushed into the account row.
+        Account view = new Account();
+        BeanUtils.copyProperties(account, view);
+        view.setBalance(account.getBalance().plus(slotTotal));
+        return view;
+    }
+
+    /**
+     * Splits an account into a number of slots, or merges it back with 1. The slot balances are moved into the
+     * account row first, so the account balance does not change.
+     * @param accountNumber The account number.
+     * @param slots The new number of slots.
+     * @throws IllegalArgumentException if the number of slots is out of range.
+     * @throws AccountNotFoundException if the account does not exist.
+     */
+    public void resize(String accountNumber, int slots) {
+        if (slots < 1 || slots > maxSlots) {
+            throw new IllegalArgumentException("slots must be between 1 and " + maxSlots);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findByAccountNumberForUpdate(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+            account.setBalance(account.getBalance().plus(drain(accountNumber)));
+            slotRepository.deleteSlotsFrom(accountNumber, slots);
+            Set<Integer> existing = new HashSet<>(slotRepository.findSlotNumbers(accountNumber));
+            for (int slot = 1; slot < slots; slot++) {
+                if (!existing.contains(slot)) {
+                    slotRepository.save(new AccountBalanceSlot(accountNumber, slot, Money.ZERO));
+                }
+            }
+        });
+        synchronized (refreshLock) {
+            Map<String, Integer> counts = new HashMap<>(slotCounts);
+            if (slots > 1) {
+                counts.put(accountNumber, slots);
+            } else {
+                counts.remove(accountNumber);
+            }
+            slotCounts = Map.copyOf(counts);
+        }
+        logger.info("Account {} now has {} balance slots", accountNumber, slots);
+    }
+
+    private Money drain(String accountNumber) {
+        List<BigDecimal> balances = slotRepository.lockBalances(accountNumber);
+        Money total = Money.ZERO;
+        for (BigDecimal balance : balances) {
+            total = total.plus(Money.of(balance));
+        }
+        if (total.signum() != 0) {
+            slotRepository.clearBalances(accountNumber);
+            drainCounter.increment();
+        }
+        return total;
+    }
+
+    private Map<String, Integer> counts() {
+        if (!loaded || System.nanoTime() - lastRefreshNanos > maxStalenessNanos) {
+            refresh();
+        }
+        return slotCounts;
+    }
+
+    private void refresh() {
+        synchronized (refreshLock) {
+            if (loaded && System.nanoTime() - lastRefreshNanos <= maxStalenessNanos) {
+                return;
+            }
+            Map<String, Integer> counts = new HashMap<>();
+            for (AccountBalanceSlotRepository.SlotRowsView view : slotRepository.countSlotRows()) {
+                counts.put(view.getAccountNumber(), (int) view.getSlotRows() + 1);
+            }
+            slotCounts = Map.copyOf(counts);
+            lastRefreshNanos = System.nanoTime();
+            loaded = true;
+        }
+    }
+}
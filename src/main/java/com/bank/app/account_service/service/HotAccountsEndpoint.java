@@ -0,0 +1,33 @@
+package com.bank.app.account_service.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/hotaccounts}: lists the accounts split into balance slots (GET) and splits or merges one
+ * (POST {@code /actuator/hotaccounts/{accountNumber}} with {@code {"slots": N}}, 1 to merge it back).
+ */
+@Endpoint(id = "hotaccounts")
+public class HotAccountsEndpoint {
+
+    private final HotAccountBalances hotAccountBalances;
+
+    public HotAccountsEndpoint(HotAccountBalances hotAccountBalances) {
+        this.hotAccountBalances = hotAccountBalances;
+    }
+
+    @ReadOperation
+    public Map<String, Integer> accounts() {
+        return hotAccountBalances.shardedAccounts();
+    }
+
+    @WriteOperation
+    public Map<String, Object> resize(@Selector String accountNumber, int slots) {
+        hotAccountBalances.resize(accountNumber, slots);
+        return Map.of("accountNumber", accountNumber, "slots", slots);
+    }
+}
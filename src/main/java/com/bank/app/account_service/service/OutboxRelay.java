@@ -0,0 +1,310 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.OutboxDeadLetter;
+import com.bank.app.account_service.entity.OutboxEvent;
+import com.bank.app.account_service.monitoring.SqlStatistics;
+import com.bank.app.account_service.repo.OutboxDeadLetterRepository;
+import com.bank.app.account_service.repo.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drains the outbox table to Kafka in batches. Each worker thread owns a fixed subset of the outbox shards
+ * and, per shard, claims the oldest batch, sends it, waits for the broker acknowledgements and deletes the rows
+ * in the same transaction, so an event is published at least once and never for a rolled back transaction.
+ * <p>
+ * Events with the same key share a shard, and a shard is only ever drained by one thread of a node and, through
+ * the row locks, one node at a time, so per-key order is kept. A batch that fails to publish stays at the head of
+ * its shard and is retried before any later event of that shard; other shards keep draining.
+ * <p>
+ * Once a shard has failed {@code account.outbox.relay.max-attempts} times in a row, its head batch is published one
+ * event at a time. An event that fails for a reason retrying does not fix (a payload that cannot be read, a record
+ * the broker rejects) is moved to the {@link OutboxDeadLetter} table, so one poison row cannot stall its shard.
+ * Retriable failures such as broker timeouts never dead-letter an event: they affect every shard alike.
+ */
+@Component
+@ConditionalOnProperty(name = "account.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int threads;
+    private final long pollIntervalMillis;
+    private final long sendTimeoutMillis;
+    private final int maxAttempts;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    // Per shard, so a shard that drains empty does not hide one that lags.
+    private final AtomicLongArray lagMillis = new AtomicLongArray(OutboxEvent.SHARDS);
+    private final AtomicIntegerArray failedAttempts = new AtomicIntegerArray(OutboxEvent.SHARDS);
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetterCounter;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService executor;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxDeadLetterRepository outboxDeadLetterRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${account.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${account.outbox.relay.threads:2}") int threads,
+                       @Value("${account.outbox.relay.poll-interval-ms:100}") long pollIntervalMillis,
+                       @Value("${account.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMillis,
+                       @Value("${account.outbox.relay.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("account.outbox.lag", this, OutboxRelay::maxLagMillis)
+                .description("Age of the oldest pending event over all shards, as of each shard's last drain")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("account.outbox.published")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("account.outbox.failures")
+                .description("Outbox batches that failed to publish and will be retried")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("account.outbox.dead.letters")
+                .description("Outbox events moved to the dead letter table after repeated failures")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the polling worker threads once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int workers = Math.min(threads, OutboxEvent.SHARDS);
+        executor = Executors.newScheduledThreadPool(workers, new CustomizableThreadFactory("outbox-relay-"));
+        for (int worker = 0; worker < workers; worker++) {
+            int firstShard = worker;
+            executor.scheduleWithFixedDelay(() -> SqlStatistics.runTask("outbox-relay", () -> poll(firstShard, workers)),
+                    pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Outbox relay started with {} threads over {} shards, batch size {}", workers, OutboxEvent.SHARDS, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Drains every shard of one worker until it is empty or a batch fails. A failed shard is left for the next
+     * poll, so its later events are not published ahead of the failed batch, until it has failed
+     * {@code maxAttempts} times in a row; then its head batch is published event by event.
+     * @param firstShard The first shard of the worker.
+     * @param stride The number of workers; the worker owns every {@code stride}-th shard from {@code firstShard}.
+     */
+    void poll(int firstShard, int stride) {
+        for (int shard = firstShard; shard < OutboxEvent.SHARDS; shard += stride) {
+            try {
+                int published;
+                do {
+                    published = drain(shard);
+                } while (published == batchSize);
+                failedAttempts.set(shard, 0);
+            } catch (Exception e) {
+                failureCounter.increment();
+                int attempts = failedAttempts.incrementAndGet(shard);
+                if (attempts < maxAttempts) {
+                    logger.error("Failed to publish outbox batch of shard {} (attempt {} of {}), it will be retried",
+                            shard, attempts, maxAttempts, e);
+                } else {
+                    logger.error("Outbox batch of shard {} failed {} times, publishing it event by event", shard, attempts, e);
+                    isolate(shard);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes up to one batch of a shard event by event, stopping at the first event moved to the dead letter
+     * table. A retriable failure leaves the failure count as it is, so the next poll isolates again.
+     * @param shard The shard.
+     */
+    private void isolate(int shard) {
+        try {
+            int published = 0;
+            while (published < batchSize && publishOrDeadLetter(shard)) {
+                published++;
+            }
+            failedAttempts.set(shard, 0);
+        } catch (Exception e) {
+            logger.error("Outbox shard {} still fails with a retriable error, it will be retried", shard, e);
+        }
+    }
+
+    /**
+     * Publishes the oldest event of a shard on its own. If it fails for a reason retrying does not fix, it is moved
+     * to the dead letter table in the transaction that deletes it from the outbox.
+     * @param shard The shard.
+     * @return Whether the event was published, false if the shard was empty or the event was dead-lettered.
+     */
+    boolean publishOrDeadLetter(int shard) {
+        Boolean published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findBatchForPublishing(shard, PageRequest.of(0, 1));
+            if (batch.isEmpty()) {
+                lagMillis.set(shard, 0);
+                return false;
+            }
+            OutboxEvent event = batch.get(0);
+            try {
+                awaitAcknowledgements(List.of(send(event)));
+            } catch (RuntimeException e) {
+                if (isRetriable(e)) {
+                    throw e;
+                }
+                outboxDeadLetterRepository.save(OutboxDeadLetter.of(event, e));
+                outboxEventRepository.deleteAllInBatch(batch);
+                deadLetterCounter.increment();
+                logger.error("Moved outbox event {} of shard {} to the dead letter table", event.getId(), shard, e);
+                return false;
+            }
+            outboxEventRepository.deleteAllInBatch(batch);
+            return true;
+        });
+        if (Boolean.TRUE.equals(published)) {
+            publishedCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Publishes the oldest batch of pending events of a shard.
+     * @param shard The shard to drain.
+     * @return The number of events published.
+     */
+    public int drain(int shard) {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findBatchForPublishing(shard, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                lagMillis.set(shard, 0);
+                return 0;
+            }
+            lagMillis.set(shard, Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+
+            // All sends are issued asynchronously so the producer can batch them; the rows are only deleted
+            // once every record of the batch has been acknowledged.
+            List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+            awaitAcknowledgements(sends);
+
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        int count = published == null ? 0 : published;
+        publishedCounter.increment(count);
+        return count;
+    }
+
+    private long maxLagMillis() {
+        long max = 0;
+        for (int shard = 0; shard < OutboxEvent.SHARDS; shard++) {
+            max = Math.max(max, lagMillis.get(shard));
+        }
+        return max;
+    }
+
+    private static boolean isRetriable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        long start = System.nanoTime();
+        return kafkaTemplate.send(toRecord(event)).whenComplete((result, ex) -> {
+            Timer.builder("account.kafka.send")
+                    .description("Time from send until the broker acknowledged the record")
+                    .tag("topic", event.getTopic())
+                    .tag("result", ex == null ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (ex != null) {
+                logger.error("Failed to publish outbox event {} to {}", event.getId(), event.getTopic(), ex);
+            }
+        });
+    }
+
+    private ProducerRecord<String, Object> toRecord(OutboxEvent event) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(event.getTopic(), event.getMessageKey(), readPayload(event));
+        record.headers().add(EventPartitioning.EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private Object readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to read outbox event " + event.getId(), e);
+        }
+    }
+
+    private void awaitAcknowledgements(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.repo.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * The original account number format: the current year followed by six random digits.
+ * Only 900,000 numbers exist per year, so every candidate is checked against the database
+ * and regenerated on collision, up to a bounded number of attempts.
+ */
+@Component
+@ConditionalOnProperty(name = "account.number.generator", havingValue = "random")
+public class RandomAccountNumberGenerator implements AccountNumberGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RandomAccountNumberGenerator.class);
+
+    private final Predicate<String> exists;
+    private final int maxAttempts;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public RandomAccountNumberGenerator(AccountRepository accountRepository,
+                                        @Value("${account.number.random.max-attempts:10}") int maxAttempts) {
+        this(accountRepository::existsByAccountNumber, maxAttempts);
+    }
+
+    public RandomAccountNumberGenerator(Predicate<String> exists, int maxAttempts) {
+        this.exists = exists;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            // Get the current year
+            int year = LocalDate.now().getYear();
+
+            // Generate a random 6-digit number
+            int randomDigits = 100000 + random.nextInt(900000); // Ensures it's a 6-digit number
+
+            String candidate = String.valueOf(year) + randomDigits;
+            if (!exists.test(candidate)) {
+                return candidate;
+            }
+            logger.warn("Generated account number {} already exists (attempt {} of {})", candidate, attempt, maxAttempts);
+        }
+        throw new IllegalStateException("Unable to generate a free account number after " + maxAttempts + " attempts");
+    }
+}
@@ -0,0 +1,134 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.config.KafkaConsumerConfig;
+import com.bank.app.account_service.dto.TransactionCommandResult;
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.monitoring.SqlStatistics;
+import com.bank.core.entity.TransactionRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies credit and withdraw commands consumed from the transaction command topic, as an alternative to the
+ * HTTP endpoints for upstream services that pipeline many commands.
+ * <p>
+ * A poll can return records of every partition assigned to the consumer; the container splits it into one batch per
+ * partition. Each batch is applied with {@link AccountService#processTransactionBatch} in offset order, and its
+ * result events are written to the outbox in the same database transaction. The offsets are acknowledged only
+ * after that transaction commits, so a crash in between redelivers the batch: delivery is at least once, and the
+ * command id on each result (topic-partition@offset) lets consumers recognise a redelivered command. The consumer
+ * refuses to start with the in-memory ledger enabled, whose balances are not part of that transaction.
+ * <p>
+ * A command that throws instead of producing a result, such as one hitting a database error or an overflowing
+ * balance, is isolated from its batch, retried {@code account.kafka.commands.max-attempts} times and then published
+ * to the dead letter topic ({@code <topic>.DLT}) so it cannot block the partition for good. The retries run on the
+ * consumer thread, so until then the other partitions assigned to the same consumer wait as well.
+ * <p>
+ * Transfers are not accepted here, since a transfer's two accounts are generally on different partitions;
+ * any command that is not a valid credit or withdrawal is answered with an INVALID_REQUEST result.
+ */
+@Component
+@ConditionalOnProperty(name = "account.kafka.commands.enabled", havingValue = "true")
+public class TransactionCommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionCommandListener.class);
+
+    private final AccountService accountService;
+    private final AccountEventProducer accountEventProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public TransactionCommandListener(AccountService accountService,
+                                      AccountEventProducer accountEventProducer,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.accountService = accountService;
+        this.accountEventProducer = accountEventProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchTimer = Timer.builder("account.commands.batch")
+                .description("Time to apply one batch of transaction commands, including the database commit")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("account.commands.batch.size")
+                .description("Transaction commands per batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(id = "transaction-commands", topics = "${account.kafka.commands.topic:transaction-command-topic}",
+            containerFactory = KafkaConsumerConfig.COMMAND_CONTAINER_FACTORY)
+    public void onCommands(List<ConsumerRecord<String, TransactionRequest>> records, Acknowledgment acknowledgment) {
+        SqlStatistics.runTask("transaction-commands", () -> applyAndAcknowledge(records, acknowledgment));
+    }
+
+    private void applyAndAcknowledge(List<ConsumerRecord<String, TransactionRequest>> records, Acknowledgment acknowledgment) {
+        List<TransactionResult> results;
+        try {
+            results = apply(records);
+        } catch (RuntimeException e) {
+            // The batch rolled back. Applying its commands one at a time commits those before the failing one, and only
+            // that one is handed to the error handler, which retries it and then sends it to the dead letter topic.
+            logger.warn("Batch of {} transaction commands failed, applying them one at a time", records.size(), e);
+            results = new ArrayList<>(records.size());
+            for (int index = 0; index < records.size(); index++) {
+                try {
+                    results.addAll(apply(records.subList(index, index + 1)));
+                } catch (RuntimeException failed) {
+                    count(results);
+                    throw new BatchListenerFailedException("Transaction command " + commandId(records.get(index)) + " failed",
+                            failed, index);
+                }
+            }
+        }
+        // Only reached after the commits; a failed transaction throws and the error handler redelivers the commands.
+        acknowledgment.acknowledge();
+
+        batchSize.record(records.size());
+        count(results);
+        logger.info("Applied {} transaction commands", records.size());
+    }
+
+    /**
+     * Applies commands in one database transaction, together with the outbox writes of their results.
+     */
+    private List<TransactionResult> apply(List<ConsumerRecord<String, TransactionRequest>> records) {
+        List<TransactionRequest> requests = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TransactionRequest> record : records) {
+            requests.add(record.value());
+        }
+        return batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<TransactionResult> applied = accountService.processTransactionBatch(requests);
+            List<TransactionCommandResult> commandResults = new ArrayList<>(applied.size());
+            for (int index = 0; index < applied.size(); index++) {
+                commandResults.add(TransactionCommandResult.of(commandId(records.get(index)), applied.get(index)));
+            }
+            accountEventProducer.sendTransactionCommandResults(commandResults);
+            return applied;
+        }));
+    }
+
+    private void count(List<TransactionResult> results) {
+        for (TransactionResult result : results) {
+            meterRegistry.counter("account.commands", "status", result.getStatus().name().toLowerCase()).increment();
+        }
+    }
+
+    private static String commandId(ConsumerRecord<String, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+}
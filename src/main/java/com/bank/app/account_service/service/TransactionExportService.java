@@ -0,0 +1,174 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full transaction history of an account to an output stream row by row,
+ * so memory use does not depend on the size of the history. Transfer legs from the transfer journal are merged in.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,accountNumber,type,amount,balanceAfterTransaction,timestamp";
+
+    private final TransactionRepository transactionRepository;
+    private final TransferJournalRepository transferJournalRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    TransferJournalRepository transferJournalRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transferJournalRepository = transferJournalRepository;
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(Transaction.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Parses a format name, case-insensitively.
+         * @param name The format name.
+         * @return The format.
+         * @throws IllegalArgumentException if the format is not supported.
+         */
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    /**
+     * Exports the transactions of an account, oldest first.
+     * @param accountNumber The account number.
+     * @param format The output format.
+     * @param outputStream The stream to write to; it is flushed but not closed.
+     * @return The number of transactions written.
+     */
+    public long export(String accountNumber, Format format, OutputStream outputStream) {
+        logger.info("Exporting transactions for account number: {} as {}", accountNumber, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Long written = transactionTemplate.execute(status -> {
+            try (Stream<Transaction> transactions = transactionRepository.streamByAccountNumber(accountNumber);
+                 Stream<TransferJournal> transfersOut = transferJournalRepository.streamFrom(accountNumber);
+                 Stream<TransferJournal> transfersIn = transferJournalRepository.streamTo(accountNumber)) {
+                return writeAll(TransactionViews.merge(TransactionViews.OLDEST_FIRST,
+                        transactions.iterator(), legs(transfersOut, accountNumber), legs(transfersIn, accountNumber)), format, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to export transactions for account " + accountNumber, e);
+            }
+        });
+        logger.info("Exported {} transactions for account number: {}", written, accountNumber);
+        return written == null ? 0 : written;
+    }
+
+    private Iterator<Transaction> legs(Stream<TransferJournal> transfers, String accountNumber) {
+        return transfers.map(transfer -> {
+            entityManager.detach(transfer);
+            return transfer.legFor(accountNumber);
+        }).iterator();
+    }
+
+    private long writeAll(Iterator<Transaction> transactions, Format format, Writer writer) throws IOException {
+        long count = 0;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            if (format == Format.CSV) {
+                writeCsv(transaction, writer);
+            } else {
+                writer.write(jsonWriter.writeValueAsString(transaction));
+            }
+            writer.write('\n');
+            // Keep the persistence context empty so it does not grow with the history.
+            entityManager.detach(transaction);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsv(Transaction transaction, Writer writer) throws IOException {
+        writer.write(String.valueOf(transaction.getId()));
+        writer.write(',');
+        writeCsvField(transaction.getAccountNumber(), writer);
+        writer.write(',');
+        writeCsvField(transaction.getType(), writer);
+        writer.write(',');
+        writer.write(transaction.getAmount() == null ? "" : transaction.getAmount().toString());
+        writer.write(',');
+        writer.write(transaction.getBalanceAfterTransaction() == null ? "" : transaction.getBalanceAfterTransaction().toString());
+        writer.write(',');
+        writer.write(transaction.getTimestamp() == null ? "" : transaction.getTimestamp().toString());
+    }
+
+    private void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,90 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionCursor;
+import com.bank.app.account_service.dto.TransactionPage;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads transaction histories page by page using keyset pagination on (timestamp, id). Transfers are read from the
+ * transfer journal and merged in as one leg per account (see {@link TransactionViews}).
+ */
+@Service
+public class TransactionHistoryService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransferJournalRepository transferJournalRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public TransactionHistoryService(TransactionRepository transactionRepository,
+                                     TransferJournalRepository transferJournalRepository,
+                                     @Value("${account.history.default-page-size:50}") int defaultLimit,
+                                     @Value("${account.history.max-page-size:500}") int maxLimit) {
+        this.transactionRepository = transactionRepository;
+        this.transferJournalRepository = transferJournalRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Returns all transactions of an account, oldest first.
+     * @param accountNumber The account number.
+     * @return The transactions, including the account's transfer legs.
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> getAll(String accountNumber) {
+        List<Transaction> transactions = new ArrayList<>(transactionRepository.findByAccountNumber(accountNumber));
+        transactions.addAll(TransactionViews.legs(transferJournalRepository.findByFromAccountNumber(accountNumber), accountNumber));
+        transactions.addAll(TransactionViews.legs(transferJournalRepository.findByToAccountNumber(accountNumber), accountNumber));
+        transactions.sort(TransactionViews.OLDEST_FIRST);
+        return transactions;
+    }
+
+    /**
+     * Returns one page of transactions, newest first.
+     * @param accountNumber The account number.
+     * @param limit The maximum number of transactions, or null for the default page size.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @return The page and the cursor of the next page.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage getPage(String accountNumber, Integer limit, String cursor) {
+        int pageSize = limit == null ? defaultLimit : limit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+
+        // One extra row tells whether another page exists without a count query. Each source is read up to the
+        // same size and the merge keeps the newest rows, so no source can be short of rows for the page.
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = TransactionViews.merge(TransactionViews.NEWEST_FIRST, pageSize + 1,
+                    transactionRepository.findLatest(accountNumber, page),
+                    TransactionViews.legs(transferJournalRepository.findLatestFrom(accountNumber, page), accountNumber),
+                    TransactionViews.legs(transferJournalRepository.findLatestTo(accountNumber, page), accountNumber));
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = TransactionViews.merge(TransactionViews.NEWEST_FIRST, pageSize + 1,
+                    transactionRepository.findOlderThan(accountNumber, position.timestamp(), position.id(), page),
+                    TransactionViews.legs(transferJournalRepository.findFromOlderThan(accountNumber, position.timestamp(), position.id(), page), accountNumber),
+                    TransactionViews.legs(transferJournalRepository.findToOlderThan(accountNumber, position.timestamp(), position.id(), page), accountNumber));
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<Transaction> transactions = rows.subList(0, pageSize);
+        Transaction last = transactions.get(pageSize - 1);
+        return new TransactionPage(transactions, new TransactionCursor(last.getTimestamp(), last.getId()).encode());
+    }
+}
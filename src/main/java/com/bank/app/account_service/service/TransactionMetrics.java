@@ -0,0 +1,175 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.monitoring.TransactionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the transaction pipeline.
+ * <ul>
+ *     <li>{@code account.transaction.stage}: time spent in each stage (account_load, balance_update,
+ *     transaction_insert, event_publish), tagged with the operation, with a percentile histogram.</li>
+ *     <li>{@code account.transaction.outcome}: transactions by operation and outcome (success, insufficient_funds,
+ *     account_not_found, invalid_type, invalid_amount).</li>
+ * </ul>
+ * Between {@link #begin} and {@link #outcome} the stage times of the current thread are also collected into a
+ * {@link TransactionEvent}, which is committed to any running JFR recording with the outcome. {@link #end} discards
+ * an event that never got an outcome.
+ */
+@Component
+public class TransactionMetrics {
+
+    public static final String CREDIT = "credit";
+    public static final String WITHDRAW = "withdraw";
+    public static final String TRANSFER = "transfer";
+    public static final String UNKNOWN = "unknown";
+
+    public static final String ACCOUNT_LOAD = "account_load";
+    public static final String BALANCE_UPDATE = "balance_update";
+    public static final String TRANSACTION_INSERT = "transaction_insert";
+    public static final String EVENT_PUBLISH = "event_publish";
+
+    public static final String SUCCESS = "success";
+    public static final String INSUFFICIENT_FUNDS = "insufficient_funds";
+    public static final String ACCOUNT_NOT_FOUND = "account_not_found";
+    public static final String INVALID_TYPE = "invalid_type";
+    public static final String INVALID_AMOUNT = "invalid_amount";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final ThreadLocal<TransactionEvent> currentEvent = new ThreadLocal<>();
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts the JFR event of a transaction on the current thread; it is committed by {@link #outcome}.
+     * @param operation The operation (credit, withdraw or transfer).
+     * @param accountNumber The account number, the source account for transfers.
+     * @param amount The amount.
+     */
+    public void begin(String operation, String accountNumber, BigDecimal amount) {
+        TransactionEvent event = new TransactionEvent();
+        if (!event.isEnabled()) {
+            currentEvent.remove();
+            return;
+        }
+        event.operation = operation;
+        event.accountHash = TransactionEvent.hash(accountNumber);
+        event.amountBucket = TransactionEvent.bucket(amount);
+        event.begin();
+        currentEvent.set(event);
+    }
+
+    /**
+     * Runs one stage of a transaction and records its duration, whether it completes or throws.
+     * @param operation The operation (credit, withdraw or transfer).
+     * @param stage The stage.
+     * @param work The work to time.
+     * @return The result of the work.
+     */
+    public <T> T time(String operation, String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(operation, stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs one stage of a transaction and records its duration, whether it completes or throws.
+     * @param operation The operation (credit, withdraw or transfer).
+     * @param stage The stage.
+     * @param work The work to time.
+     */
+    public void time(String operation, String stage, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            record(operation, stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the duration of a stage measured by the caller.
+     * @param operation The operation (credit, withdraw or transfer).
+     * @param stage The stage.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(String operation, String stage, long nanos) {
+        stageTimers.computeIfAbsent(operation + '|' + stage, key -> Timer.builder("account.transaction.stage")
+                .description("Time spent in each stage of a transaction")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        TransactionEvent event = currentEvent.get();
+        if (event != null) {
+            if (EVENT_PUBLISH.equals(stage)) {
+                event.publishTime += nanos;
+            } else {
+                event.databaseTime += nanos;
+            }
+        }
+    }
+
+    /**
+     * Counts the outcome of a transaction.
+     * @param operation The operation (credit, withdraw or transfer).
+     * @param outcome The outcome.
+     */
+    public void outcome(String operation, String outcome) {
+        outcomeCounters.computeIfAbsent(operation + '|' + outcome, key -> Counter.builder("account.transaction.outcome")
+                .description("Transactions by operation and outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry))
+                .increment();
+        TransactionEvent event = currentEvent.get();
+        if (event != null) {
+            currentEvent.remove();
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Drops the JFR event of the current thread if {@link #outcome} has not committed it, so a transaction that
+     * failed with an uncounted exception cannot leave its event on a pooled thread. Call it in a {@code finally}
+     * after {@link #begin}.
+     */
+    public void end() {
+        currentEvent.remove();
+    }
+
+    /**
+     * Maps a transaction type to the operation tag value.
+     * @param type The transaction type, e.g. CREDIT.
+     * @return The operation tag value.
+     */
+    public static String operationOf(String type) {
+        if ("CREDIT".equalsIgnoreCase(type)) {
+            return CREDIT;
+        }
+        if ("WITHDRAW".equalsIgnoreCase(type)) {
+            return WITHDRAW;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The transaction history of an account as its clients see it: {@link Transaction} rows merged with the legs of the
+ * account's {@link TransferJournal} rows, ordered by (timestamp, id) like the keyset cursor.
+ */
+public final class TransactionViews {
+
+    public static final Comparator<Transaction> OLDEST_FIRST =
+            Comparator.comparing(Transaction::getTimestamp).thenComparing(Transaction::getId);
+    public static final Comparator<Transaction> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    private TransactionViews() {
+    }
+
+    /**
+     * @param transfers Transfers of the account.
+     * @param accountNumber The account number.
+     * @return The account's leg of each transfer, in the same order.
+     */
+    public static List<Transaction> legs(Collection<TransferJournal> transfers, String accountNumber) {
+        List<Transaction> legs = new ArrayList<>(transfers.size());
+        for (TransferJournal transfer : transfers) {
+            legs.add(transfer.legFor(accountNumber));
+        }
+        return legs;
+    }
+
+    /**
+     * Merges lists into one, in the given order.
+     * @param order The order.
+     * @param limit The maximum number of transactions returned.
+     * @param lists The lists, each sorted in that order.
+     * @return At most limit transactions.
+     */
+    @SafeVarargs
+    public static List<Transaction> merge(Comparator<Transaction> order, int limit, List<Transaction>... lists) {
+        List<Transaction> merged = new ArrayList<>();
+        for (List<Transaction> list : lists) {
+            merged.addAll(list);
+        }
+        merged.sort(order);
+        return merged.size() <= limit ? merged : new ArrayList<>(merged.subList(0, limit));
+    }
+
+    /**
+     * Lazily merges iterators, e.g. database streams, without buffering more than one element per iterator.
+     * @param order The order.
+     * @param iterators The iterators, each sorted in that order.
+     * @return An iterator over all elements in that order.
+     */
+    @SafeVarargs
+    public static Iterator<Transaction> merge(Comparator<Transaction> order, Iterator<Transaction>... iterators) {
+        Transaction[] heads = new Transaction[iterators.length];
+        for (int i = 0; i < iterators.length; i++) {
+            heads[i] = iterators[i].hasNext() ? iterators[i].next() : null;
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                for (Transaction head : heads) {
+                    if (head != null) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Transaction next() {
+                int first = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != null && (first < 0 || order.compare(heads[i], heads[first]) < 0)) {
+                        first = i;
+                    }
+                }
+                if (first < 0) {
+                    throw new NoSuchElementException();
+                }
+                Transaction next = heads[first];
+                heads[first] = iterators[first].hasNext() ? iterators[first].next() : null;
+                return next;
+            }
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs transfers between two accounts inside a transaction that holds row locks on both accounts.
+ * Locks are always taken in account number order, so opposite transfers (A to B and B to A) cannot deadlock,
+ * and a transfer that still fails to get its locks is retried a bounded number of times.
+ */
+@Component
+public class TransferEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferEngine.class);
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer lockWaitTimer;
+    private final Counter lockRetryCounter;
+    private final Counter lockFailureCounter;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+
+    public TransferEngine(AccountRepository accountRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${account.transfer.max-attempts:3}") int maxAttempts,
+                          @Value("${account.transfer.retry-backoff-ms:25}") long retryBackoffMillis) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockWaitTimer = Timer.builder("account.transfer.lock.wait")
+                .description("Time spent acquiring the row locks of both transfer accounts")
+                .register(meterRegistry);
+        this.lockRetryCounter = Counter.builder("account.transfer.lock.retries")
+                .description("Transfers retried after a lock timeout or deadlock")
+                .register(meterRegistry);
+        this.lockFailureCounter = Counter.builder("account.transfer.lock.failures")
+                .description("Transfers that gave up after exhausting their lock attempts")
+                .register(meterRegistry);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * Locks both accounts in canonical order and runs the work in the same transaction.
+     * @param fromAccountNumber The account to debit.
+     * @param toAccountNumber The account to credit.
+     * @param work The transfer logic, called with the locked accounts (empty if an account does not exist).
+     * @return The result of the work.
+     */
+    public <T> T execute(String fromAccountNumber, String toAccountNumber, TransferWork<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    LockedAccounts locked = lockInOrder(fromAccountNumber, toAccountNumber);
+                    return work.apply(locked.from(), locked.to());
+                });
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    lockFailureCounter.increment();
+                    logger.error("Transfer from {} to {} failed to acquire locks after {} attempts", fromAccountNumber, toAccountNumber, attempt);
+                    throw e;
+                }
+                lockRetryCounter.increment();
+                logger.warn("Lock conflict on transfer from {} to {}, retrying (attempt {} of {})", fromAccountNumber, toAccountNumber, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private LockedAccounts lockInOrder(String fromAccountNumber, String toAccountNumber) {
+        long start = System.nanoTime();
+        try {
+            if (fromAccountNumber.equals(toAccountNumber)) {
+                Optional<Account> account = accountRepository.findByAccountNumberForUpdate(fromAccountNumber);
+                return new LockedAccounts(account, account);
+            }
+            if (fromAccountNumber.compareTo(toAccountNumber) < 0) {
+                Optional<Account> from = accountRepository.findByAccountNumberForUpdate(fromAccountNumber);
+                Optional<Account> to = accountRepository.findByAccountNumberForUpdate(toAccountNumber);
+                return new LockedAccounts(from, to);
+            }
+            Optional<Account> to = accountRepository.findByAccountNumberForUpdate(toAccountNumber);
+            Optional<Account> from = accountRepository.findByAccountNumberForUpdate(fromAccountNumber);
+            return new LockedAccounts(from, to);
+        } finally {
+            lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void backoff(int attempt) {
+        if (retryBackoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(retryBackoffMillis * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", e);
+        }
+    }
+
+    private record LockedAccounts(Optional<Account> from, Optional<Account> to) {
+    }
+
+    /**
+     * Transfer logic executed while both account rows are locked.
+     */
+    @FunctionalInterface
+    public interface TransferWork<T> {
+        T apply(Optional<Account> fromAccount, Optional<Account> toAccount);
+    }
+}
@@ -1,13 +1,23 @@
 package com.bank.app.account_service.service.impl;
 
+import com.bank.app.account_service.dto.TransactionResult;
 import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
 import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
 import com.bank.app.account_service.exception.AccountNotFoundException;
 import com.bank.app.account_service.exception.InsufficientFundsException;
 import com.bank.app.account_service.repo.AccountRepository;
 import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.bank.app.account_service.service.AccountCache;
 import com.bank.app.account_service.service.AccountEventProducer;
+import com.bank.app.account_service.service.AccountExistenceFilter;
+import com.bank.app.account_service.service.AccountNumberGenerator;
 import com.bank.app.account_service.service.AccountService;
+import com.bank.app.account_service.service.HotAccountBalances;
+import com.bank.app.account_service.service.TransactionMetrics;
+import com.bank.app.account_service.service.TransferEngine;
 import com.bank.core.entity.TransactionRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,9 +26,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 
 @Service
@@ -27,14 +41,28 @@ public class AccountServiceImpl implements AccountService {
     private static final Logger logger = LoggerFactory.getLogger(AccountServiceImpl.class);
     private static final String WITHDRAW = "WITHDRAW";
     private static final String CREDIT = "CREDIT";
+    private static final int LOCK_CHUNK_SIZE = 1000;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final TransferJournalRepository transferJournalRepository;
     private final AccountEventProducer accountEventProducer;
-    SecureRandom random = new SecureRandom();
-    public AccountServiceImpl(AccountRepository accountRepository, TransactionRepository transactionRepository, AccountEventProducer accountEventProducer) {
+    private final TransferEngine transferEngine;
+    private final AccountCache accountCache;
+    private final AccountExistenceFilter accountExistenceFilter;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final TransactionMetrics transactionMetrics;
+    private final HotAccountBalances hotAccountBalances;
+    public AccountServiceImpl(AccountRepository accountRepository, TransactionRepository transactionRepository, TransferJournalRepository transferJournalRepository, AccountEventProducer accountEventProducer, TransferEngine transferEngine, AccountCache accountCache, AccountExistenceFilter accountExistenceFilter, AccountNumberGenerator accountNumberGenerator, TransactionMetrics transactionMetrics, HotAccountBalances hotAccountBalances) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.transferJournalRepository = transferJournalRepository;
         this.accountEventProducer = accountEventProducer;
+        this.transferEngine = transferEngine;
+        this.accountCache = accountCache;
+        this.accountExistenceFilter = accountExistenceFilter;
+        this.accountNumberGenerator = accountNumberGenerator;
+        this.transactionMetrics = transactionMetrics;
+        this.hotAccountBalances = hotAccountBalances;
     }
 
     /**
@@ -43,12 +71,15 @@ public class AccountServiceImpl implements AccountService {
      * @return The newly created account.
      */
     @Override
+    @Transactional
     public Account openAccount(Account account) {
         logger.info("Opening new account for user: {}", account.getUserId());
-        account.setAccountNumber(generateAccountNumber());
-        account.setBalance(BigDecimal.ZERO);
+        account.setAccountNumber(accountNumberGenerator.nextAccountNumber());
+        account.setBalance(Money.ZERO);
         account.setDateOpened(LocalDate.now());
         Account newAccount = accountRepository.save(account);
+        accountCache.evict(newAccount);
+        accountExistenceFilter.add(newAccount.getAccountNumber());
         accountEventProducer.sendAccountCreatedMessage(newAccount);
         logger.info("Account opened successfully with account number: {}", newAccount.getAccountNumber());
         return newAccount;
@@ -62,7 +93,8 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public List<Account> getAccountsByUserId(Long userId) {
         logger.info("Fetching accounts for user ID: {}", userId);
-        return accountRepository.findByUserId(userId);
+        return accountCache.getByUserId(userId,
+                id -> accountRepository.findByUserId(id).stream().map(hotAccountBalances::withSlotBalances).toList());
     }
 
     /**
@@ -74,47 +106,72 @@ public class AccountServiceImpl implements AccountService {
     public String processTransaction(TransactionRequest transactionRequest) {
         String accountNumber = transactionRequest.getAccountNumber();
         logger.info("Processing transaction for account: {}", accountNumber);
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
 
         String type = String.valueOf(transactionRequest.getType());
         BigDecimal amount = transactionRequest.getAmount();
-        BigDecimal updatedBalance;
-
-        switch (type.toUpperCase()) {
-            case CREDIT:
-                updatedBalance = account.getBalance().add(amount);
-                account.setBalance(updatedBalance);
-                break;
-            case WITHDRAW:
-                if (account.getBalance().compareTo(amount) < 0) {
-                    logger.error("Insufficient funds for account: {}", accountNumber);
-                    throw new InsufficientFundsException("Insufficient funds");
+        String operation = TransactionMetrics.operationOf(type);
+        transactionMetrics.begin(operation, accountNumber, amount);
+        try {
+            Money money = toMoney(amount, operation);
+            int updatedRows;
+
+            // The balance is changed by a single UPDATE so concurrent requests on the same account cannot lose updates,
+            // and the funds check for withdrawals is evaluated by the database under the row lock. Accounts split into
+            // balance slots lock one slot row instead of the account row.
+            switch (type.toUpperCase()) {
+                case CREDIT:
+                    updatedRows = transactionMetrics.time(operation, TransactionMetrics.BALANCE_UPDATE,
+                            () -> hotAccountBalances.credit(accountNumber, amount));
+                    break;
+                case WITHDRAW:
+                    updatedRows = transactionMetrics.time(operation, TransactionMetrics.BALANCE_UPDATE,
+                            () -> hotAccountBalances.debit(accountNumber, amount));
+                    break;
+                default:
+                    logger.error("Invalid transaction type: {}", type);
+                    transactionMetrics.outcome(operation, TransactionMetrics.INVALID_TYPE);
+                    throw new IllegalArgumentException("Invalid transaction type");
+            }
+
+            if (updatedRows == 0) {
+                if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                    transactionMetrics.outcome(operation, TransactionMetrics.ACCOUNT_NOT_FOUND);
+                    throw new AccountNotFoundException("Account not found");
                 }
-                updatedBalance = account.getBalance().subtract(amount);
-                account.setBalance(updatedBalance);
-                break;
-            default:
-                logger.error("Invalid transaction type: {}", type);
-                throw new IllegalArgumentException("Invalid transaction type");
-        }
-
-        accountRepository.save(account);
-        Transaction transaction = new Transaction(account.getAccountNumber(), type.toUpperCase(), amount, updatedBalance);
-        transactionRepository.save(transaction);
-        TransactionRequest fromtransaction = new TransactionRequest();
-        //copying transactionRequest to fromtransactionRequest all fields
-        BeanUtils.copyProperties(transactionRequest, fromtransaction);
-        fromtransaction.setAccountNumber(transactionRequest.getAccountNumber());
-        fromtransaction.setToAccount(transactionRequest.getAccountNumber());
-        fromtransaction.setFromAccount(transactionRequest.getAccountNumber());
-        fromtransaction.setBalanceAfterTransaction(updatedBalance);
-        fromtransaction.setUserName(account.getUserName());
-        fromtransaction.setEmail(account.getEmail());
-        accountEventProducer.sendWithdrawOrCreditBalanceMessage(transaction.getType(), fromtransaction);
-
-        logger.info("Transaction successful for account: {}", accountNumber);
-        return "Transaction successful";
+                logger.error("Insufficient funds for account: {}", accountNumber);
+                transactionMetrics.outcome(operation, TransactionMetrics.INSUFFICIENT_FUNDS);
+                throw new InsufficientFundsException("Insufficient funds");
+            }
+
+            // An account that is not split keeps its row locked until commit, so this read returns the balance produced
+            // by the update above. A split account only locks the slot that was credited: its balance is the sum of the
+            // slots as read here, which may already include credits that other transactions made to other slots.
+            Account account = transactionMetrics.time(operation, TransactionMetrics.ACCOUNT_LOAD,
+                    () -> accountRepository.findByAccountNumber(accountNumber))
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+            Money updatedBalance = account.getBalance().plus(hotAccountBalances.slotTotal(accountNumber));
+            accountCache.evict(account);
+
+            Transaction transaction = new Transaction(account.getAccountNumber(), type.toUpperCase(), money, updatedBalance);
+            transactionMetrics.time(operation, TransactionMetrics.TRANSACTION_INSERT, () -> transactionRepository.save(transaction));
+            TransactionRequest fromtransaction = new TransactionRequest();
+            //copying transactionRequest to fromtransactionRequest all fields
+            BeanUtils.copyProperties(transactionRequest, fromtransaction);
+            fromtransaction.setAccountNumber(transactionRequest.getAccountNumber());
+            fromtransaction.setToAccount(transactionRequest.getAccountNumber());
+            fromtransaction.setFromAccount(transactionRequest.getAccountNumber());
+            fromtransaction.setBalanceAfterTransaction(updatedBalance.toBigDecimal());
+            fromtransaction.setUserName(account.getUserName());
+            fromtransaction.setEmail(account.getEmail());
+            transactionMetrics.time(operation, TransactionMetrics.EVENT_PUBLISH,
+                    () -> accountEventProducer.sendWithdrawOrCreditBalanceMessage(transaction.getType(), fromtransaction));
+
+            transactionMetrics.outcome(operation, TransactionMetrics.SUCCESS);
+            logger.info("Transaction successful for account: {}", accountNumber);
+            return "Transaction successful";
+        } finally {
+            transactionMetrics.end();
+        }
     }
 
     /**
@@ -122,62 +179,239 @@ public class AccountServiceImpl implements AccountService {
      * @param transactionRequest The transaction request details.
      * @return A message indicating the result of the transactions.
      */
-@Transactional
-public String processTransactions(TransactionRequest transactionRequest) {
-    String fromAccountNumber = transactionRequest.getFromAccount();
-    String toAccountNumber = transactionRequest.getToAccount();
-    BigDecimal amount = transactionRequest.getAmount();
+    public String processTransactions(TransactionRequest transactionRequest) {
+        String fromAccountNumber = transactionRequest.getFromAccount();
+        String toAccountNumber = transactionRequest.getToAccount();
+        BigDecimal amount = transactionRequest.getAmount();
+
+        logger.info("Processing transfer of {} from account {} to account {}", amount, fromAccountNumber, toAccountNumber);
+
+        // Both rows are locked in account number order by the transfer engine, which also owns the transaction
+        // so that a lock timeout can be retried from a clean state.
+        transactionMetrics.begin(TransactionMetrics.TRANSFER, fromAccountNumber, amount);
+        try {
+            Money money = toMoney(amount, TransactionMetrics.TRANSFER);
+            if (fromAccountNumber != null && fromAccountNumber.equals(toAccountNumber)) {
+                // A journal row has one leg per account, so a self-transfer could not be shown as a debit and a credit.
+                transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.INVALID_TYPE);
+                throw new IllegalArgumentException("Cannot transfer to the same account: " + fromAccountNumber);
+            }
+            // Account load covers everything until both rows are locked, including lock waits and retries.
+            long loadStart = System.nanoTime();
+            return transferEngine.execute(fromAccountNumber, toAccountNumber, (lockedFrom, lockedTo) -> {
+                transactionMetrics.record(TransactionMetrics.TRANSFER, TransactionMetrics.ACCOUNT_LOAD, System.nanoTime() - loadStart);
+                Account fromAccount = lockedFrom.orElseThrow(() -> {
+                    transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.ACCOUNT_NOT_FOUND);
+                    return new AccountNotFoundException("Invalid from account No: " + fromAccountNumber);
+                });
+
+                if (fromAccount.getBalance().isLessThan(money)) {
+                    // The funds of an account split into balance slots may sit in its other slots.
+                    hotAccountBalances.absorbSlots(fromAccount);
+                }
+                if (fromAccount.getBalance().isLessThan(money)) {
+                    logger.error("Insufficient funds in account: {}", fromAccountNumber);
+                    transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.INSUFFICIENT_FUNDS);
+                    throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+                }
+
+                Account toAccount = lockedTo.orElseThrow(() -> {
+                    transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.ACCOUNT_NOT_FOUND);
+                    return new AccountNotFoundException("Invalid Beneficiary account No: " + toAccountNumber);
+                });
+
+                Money updatedFromBalance = fromAccount.getBalance().minus(money);
+                Money updatedToBalance = toAccount.getBalance().plus(money);
+                transactionMetrics.time(TransactionMetrics.TRANSFER, TransactionMetrics.BALANCE_UPDATE, () -> {
+                    fromAccount.setBalance(updatedFromBalance);
+                    accountRepository.save(fromAccount);
+                    toAccount.setBalance(updatedToBalance);
+                    accountRepository.save(toAccount);
+                });
+                accountCache.evict(fromAccount);
+                accountCache.evict(toAccount);
+                Money fromBalanceAfter = updatedFromBalance.plus(hotAccountBalances.slotTotal(fromAccountNumber));
+                Money toBalanceAfter = updatedToBalance.plus(hotAccountBalances.slotTotal(toAccountNumber));
+
+                // One journal row holds both legs; histories project it into a WITHDRAW and a CREDIT view.
+                TransferJournal transfer = new TransferJournal(fromAccountNumber, toAccountNumber, money,
+                        fromBalanceAfter, toBalanceAfter);
+                transactionMetrics.time(TransactionMetrics.TRANSFER, TransactionMetrics.TRANSACTION_INSERT,
+                        () -> transferJournalRepository.save(transfer));
 
-    logger.info("Processing transfer of {} from account {} to account {}", amount, fromAccountNumber, toAccountNumber);
+                // Set userName and email in transactionRequest for event producer
+                TransactionRequest fromtransactionRequest = new TransactionRequest();
+                //copying transactionRequest to fromtransactionRequest all fields
+                BeanUtils.copyProperties(transactionRequest, fromtransactionRequest);
+                fromtransactionRequest.setAccountNumber(transactionRequest.getFromAccount());
+                fromtransactionRequest.setBalanceAfterTransaction(fromBalanceAfter.toBigDecimal());
+                fromtransactionRequest.setUserName(fromAccount.getUserName());
+                fromtransactionRequest.setEmail(fromAccount.getEmail());
 
-    Account fromAccount = accountRepository.findByAccountNumber(fromAccountNumber)
-            .orElseThrow(() -> new AccountNotFoundException("Invalid from account No: " + fromAccountNumber));
+                TransactionRequest totransactionRequest = new TransactionRequest();
+                //copying transactionRequest to totransactionRequest all fields
+                BeanUtils.copyProperties(transactionRequest, totransactionRequest);
+                totransactionRequest.setAccountNumber(transactionRequest.getToAccount());
+                totransactionRequest.setBalanceAfterTransaction(toBalanceAfter.toBigDecimal());
+                totransactionRequest.setUserName(toAccount.getUserName());
+                totransactionRequest.setEmail(toAccount.getEmail());
 
-    if (fromAccount.getBalance().compareTo(amount) < 0) {
-        logger.error("Insufficient funds in account: {}", fromAccountNumber);
-        throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+                transactionMetrics.time(TransactionMetrics.TRANSFER, TransactionMetrics.EVENT_PUBLISH, () -> {
+                    accountEventProducer.sendWithdrawOrCreditBalanceMessage(WITHDRAW, fromtransactionRequest);
+                    accountEventProducer.sendWithdrawOrCreditBalanceMessage(CREDIT, totransactionRequest);
+                });
+                transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.SUCCESS);
+
+                logger.info("Transfer successful: {} transferred from {} to {}", amount, fromAccountNumber, toAccountNumber);
+                return "Transaction successful: " + amount + " transferred from " + fromAccountNumber + " to " + toAccountNumber;
+            });
+        } finally {
+            transactionMetrics.end();
+        }
     }
 
-    Account toAccount = accountRepository.findByAccountNumber(toAccountNumber)
-            .orElseThrow(() -> new AccountNotFoundException("Invalid Beneficiary account No: " + toAccountNumber));
-
-    BigDecimal updatedFromBalance = fromAccount.getBalance().subtract(amount);
-    fromAccount.setBalance(updatedFromBalance);
-    accountRepository.save(fromAccount);
-
-    BigDecimal updatedToBalance = toAccount.getBalance().add(amount);
-    toAccount.setBalance(updatedToBalance);
-    accountRepository.save(toAccount);
-
-    Transaction withdrawTransaction = new Transaction(fromAccountNumber, WITHDRAW, amount, updatedFromBalance);
-    transactionRepository.save(withdrawTransaction);
-
-    Transaction creditTransaction = new Transaction(toAccountNumber, CREDIT, amount, updatedToBalance);
-    transactionRepository.save(creditTransaction);
-
-    // Set userName and email in transactionRequest for event producer
-    TransactionRequest fromtransactionRequest = new TransactionRequest();
-    //copying transactionRequest to fromtransactionRequest all fields
-    BeanUtils.copyProperties(transactionRequest, fromtransactionRequest);
-    fromtransactionRequest.setAccountNumber(transactionRequest.getFromAccount());
-    fromtransactionRequest.setBalanceAfterTransaction(updatedFromBalance);
-    fromtransactionRequest.setUserName(fromAccount.getUserName());
-    fromtransactionRequest.setEmail(fromAccount.getEmail());
-
-    TransactionRequest totransactionRequest = new TransactionRequest();
-    //copying transactionRequest to totransactionRequest all fields
-    BeanUtils.copyProperties(transactionRequest, totransactionRequest);
-    totransactionRequest.setAccountNumber(transactionRequest.getToAccount());
-    totransactionRequest.setBalanceAfterTransaction(updatedToBalance);
-    totransactionRequest.setUserName(toAccount.getUserName());
-    totransactionRequest.setEmail(toAccount.getEmail());
-
-    accountEventProducer.sendWithdrawOrCreditBalanceMessage(WITHDRAW, fromtransactionRequest);
-    accountEventProducer.sendWithdrawOrCreditBalanceMessage(CREDIT, totransactionRequest);
-
-    logger.info("Transfer successful: {} transferred from {} to {}", amount, fromAccountNumber, toAccountNumber);
-    return "Transaction successful: " + amount + " transferred from " + fromAccountNumber + " to " + toAccountNumber;
-}
+    /**
+     * Processes a batch of credits and withdrawals in one database transaction.
+     * All accounts of the batch are loaded and locked with grouped queries, the items are applied in order
+     * against the locked balances, and the transaction rows and events are written in JDBC batches.
+     * @param transactionRequests The transaction requests, applied in order.
+     * @return One result per request, in request order.
+     */
+    @Override
+    @Transactional
+    public List<TransactionResult> processTransactionBatch(List<TransactionRequest> transactionRequests) {
+        logger.info("Processing batch of {} transactions", transactionRequests.size());
+
+        // Sorted, so concurrent batches and transfers lock rows in the same order.
+        SortedSet<String> accountNumbers = new TreeSet<>();
+        for (TransactionRequest transactionRequest : transactionRequests) {
+            if (transactionRequest != null && transactionRequest.getAccountNumber() != null) {
+                accountNumbers.add(transactionRequest.getAccountNumber());
+            }
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        List<String> pending = new ArrayList<>(accountNumbers);
+        for (int from = 0; from < pending.size(); from += LOCK_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + LOCK_CHUNK_SIZE, pending.size()));
+            for (Account account : accountRepository.findAllByAccountNumberForUpdate(chunk)) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+        }
+
+        List<TransactionResult> results = new ArrayList<>(transactionRequests.size());
+        List<Transaction> transactions = new ArrayList<>();
+        List<TransactionRequest> events = new ArrayList<>();
+        for (int index = 0; index < transactionRequests.size(); index++) {
+            TransactionRequest transactionRequest = transactionRequests.get(index);
+            String invalid = validateBatchItem(transactionRequest);
+            if (invalid != null) {
+                results.add(TransactionResult.failure(index, transactionRequest == null ? null : transactionRequest.getAccountNumber(),
+                        TransactionResult.Status.INVALID_REQUEST, invalid));
+                continue;
+            }
+            String accountNumber = transactionRequest.getAccountNumber();
+            Account account = accounts.get(accountNumber);
+            if (account == null) {
+                results.add(TransactionResult.failure(index, accountNumber, TransactionResult.Status.ACCOUNT_NOT_FOUND, "Account not found"));
+                continue;
+            }
+
+            String type = String.valueOf(transactionRequest.getType()).toUpperCase();
+            Money amount = Money.of(transactionRequest.getAmount());
+            if (WITHDRAW.equals(type) && account.getBalance().isLessThan(amount)) {
+                hotAccountBalances.absorbSlots(account);
+            }
+            if (WITHDRAW.equals(type) && account.getBalance().isLessThan(amount)) {
+                results.add(TransactionResult.failure(index, accountNumber, TransactionResult.Status.INSUFFICIENT_FUNDS, "Insufficient funds"));
+                continue;
+            }
+            Money updatedBalance = WITHDRAW.equals(type) ? account.getBalance().minus(amount) : account.getBalance().plus(amount);
+            account.setBalance(updatedBalance);
+            // As for single transactions, the balance reported for a split account includes its other slots.
+            Money balanceAfter = updatedBalance.plus(hotAccountBalances.slotTotal(accountNumber));
+            transactions.add(new Transaction(accountNumber, type, amount, balanceAfter));
+
+            TransactionRequest event = new TransactionRequest();
+            BeanUtils.copyProperties(transactionRequest, event);
+            event.setToAccount(accountNumber);
+            event.setFromAccount(accountNumber);
+            event.setBalanceAfterTransaction(balanceAfter.toBigDecimal());
+            event.setUserName(account.getUserName());
+            event.setEmail(account.getEmail());
+            events.add(event);
+            results.add(TransactionResult.success(index, accountNumber, balanceAfter));
+        }
+
+        // The locked accounts are managed, so their balances are flushed as batched UPDATEs on commit.
+        transactionRepository.saveAll(transactions);
+        if (!events.isEmpty()) {
+            accountEventProducer.sendWithdrawOrCreditBalanceMessages(events);
+        }
+        accounts.values().forEach(accountCache::evict);
+        // Each item gets its own event so it carries the item's operation and account; the stage times of the batch
+        // are not attributed to any single item.
+        for (int index = 0; index < results.size(); index++) {
+            TransactionRequest transactionRequest = transactionRequests.get(index);
+            String operation = transactionRequest == null ? TransactionMetrics.UNKNOWN
+                    : TransactionMetrics.operationOf(String.valueOf(transactionRequest.getType()));
+            transactionMetrics.begin(operation, results.get(index).getAccountNumber(),
+                    transactionRequest == null ? null : transactionRequest.getAmount());
+            transactionMetrics.outcome(operation, outcomeOf(results.get(index).getStatus(), transactionRequest));
+        }
+
+        logger.info("Batch processed: {} of {} transactions applied", transactions.size(), transactionRequests.size());
+        return results;
+    }
+
+    /**
+     * Converts a request amount, rejecting amounts that cannot be held exactly in minor units.
+     * @param amount The request amount.
+     * @param operation The operation, for the outcome metric.
+     * @return The amount.
+     */
+    private Money toMoney(BigDecimal amount, String operation) {
+        if (!Money.isRepresentable(amount)) {
+            transactionMetrics.outcome(operation, TransactionMetrics.INVALID_AMOUNT);
+            throw new IllegalArgumentException(amount == null ? "Amount is required"
+                    : "Amount must have at most " + Money.SCALE + " decimal places");
+        }
+        return Money.of(amount);
+    }
+
+    static String outcomeOf(TransactionResult.Status status, TransactionRequest transactionRequest) {
+        return switch (status) {
+            case SUCCESS -> TransactionMetrics.SUCCESS;
+            case ACCOUNT_NOT_FOUND -> TransactionMetrics.ACCOUNT_NOT_FOUND;
+            case INSUFFICIENT_FUNDS -> TransactionMetrics.INSUFFICIENT_FUNDS;
+            case INVALID_REQUEST -> transactionRequest != null && !hasValidAmount(transactionRequest)
+                    ? TransactionMetrics.INVALID_AMOUNT : TransactionMetrics.INVALID_TYPE;
+        };
+    }
+
+    static String validateBatchItem(TransactionRequest transactionRequest) {
+        if (transactionRequest == null) {
+            return "Transaction request is required";
+        }
+        if (transactionRequest.getAccountNumber() == null || transactionRequest.getAccountNumber().isBlank()) {
+            return "Account number is required";
+        }
+        String type = String.valueOf(transactionRequest.getType()).toUpperCase();
+        if (!CREDIT.equals(type) && !WITHDRAW.equals(type)) {
+            return "Invalid transaction type";
+        }
+        if (transactionRequest.getAmount() == null || transactionRequest.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (!Money.isRepresentable(transactionRequest.getAmount())) {
+            return "Amount must have at most " + Money.SCALE + " decimal places";
+        }
+        return null;
+    }
+
+    private static boolean hasValidAmount(TransactionRequest transactionRequest) {
+        BigDecimal amount = transactionRequest.getAmount();
+        return amount != null && amount.signum() > 0 && Money.isRepresentable(amount);
+    }
 
     /**
      * Validates if an account exists by account number.
@@ -186,7 +420,15 @@ public String processTransactions(TransactionRequest transactionRequest) {
     @Override
     public void validateAccountExists(String accountNumber) {
         logger.info("Validating existence of account: {}", accountNumber);
+        if (accountCache.containsAccountNumber(accountNumber)) {
+            return;
+        }
+        if (!accountExistenceFilter.mightExist(accountNumber)) {
+            logger.error("Account not found: {}", accountNumber);
+            throw new AccountNotFoundException("Account not found: " + accountNumber);
+        }
         if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            accountExistenceFilter.recordFalsePositive();
             logger.error("Account not found: {}", accountNumber);
             throw new AccountNotFoundException("Account not found: " + accountNumber);
         }
@@ -201,18 +443,8 @@ public String processTransactions(TransactionRequest transactionRequest) {
     @Override
     public Account getAccountByAccountNumber(String accountNumber) throws AccountNotFoundException {
         logger.info("Fetching account by account number: {}", accountNumber);
-        return accountRepository.findByAccountNumber(accountNumber)
+        return accountCache.getByAccountNumber(accountNumber,
+                        number -> accountRepository.findByAccountNumber(number).map(hotAccountBalances::withSlotBalances))
                 .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
     }
-    private   String generateAccountNumber() {
-        // Get the current year
-        int year = LocalDate.now().getYear();
-
-        // Generate a random 6-digit number
-
-        int randomDigits = 100000 + random.nextInt(900000); // Ensures it's a 6-digit number
-
-        // Combine the year and the random number to form the account number
-        return String.valueOf(year) + randomDigits;
-    }
-}
\ No newline at end of file
+}
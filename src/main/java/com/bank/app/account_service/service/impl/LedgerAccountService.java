@@ -0,0 +1,209 @@
+package com.bank.app.account_service.service.impl;
+
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.app.account_service.ledger.LedgerEngine;
+import com.bank.app.account_service.service.AccountService;
+import com.bank.app.account_service.service.TransactionMetrics;
+import com.bank.core.entity.TransactionRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AccountService} that applies balance mutations to the in-memory {@link LedgerEngine} instead of the
+ * database. Enabled with {@code account.ledger.enabled=true}; account management and reads are delegated to
+ * {@link AccountServiceImpl}, with the ledger's balance overlaid on accounts it holds.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "account.ledger.enabled", havingValue = "true")
+public class LedgerAccountService implements AccountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerAccountService.class);
+    private static final String WITHDRAW = "WITHDRAW";
+    private static final String CREDIT = "CREDIT";
+
+    private final AccountServiceImpl delegate;
+    private final LedgerEngine ledger;
+    private final TransactionMetrics transactionMetrics;
+
+    public LedgerAccountService(AccountServiceImpl delegate, LedgerEngine ledger, TransactionMetrics transactionMetrics) {
+        this.delegate = delegate;
+        this.ledger = ledger;
+        this.transactionMetrics = transactionMetrics;
+    }
+
+    @Override
+    public Account openAccount(Account account) {
+        return delegate.openAccount(account);
+    }
+
+    @Override
+    public List<Account> getAccountsByUserId(Long userId) {
+        return delegate.getAccountsByUserId(userId).stream().map(this::withLedgerBalance).toList();
+    }
+
+    /**
+     * Credits or debits an account in the ledger. Returns once the journal record is durable; the database is
+     * updated by the write-behind flush.
+     * @param transactionRequest The transaction request details.
+     * @return A message indicating the result of the transaction.
+     */
+    @Override
+    public String processTransaction(TransactionRequest transactionRequest) {
+        String accountNumber = transactionRequest.getAccountNumber();
+        String type = String.valueOf(transactionRequest.getType()).toUpperCase();
+        BigDecimal amount = transactionRequest.getAmount();
+        String operation = TransactionMetrics.operationOf(type);
+        transactionMetrics.begin(operation, accountNumber, amount);
+        try {
+            if (!CREDIT.equals(type) && !WITHDRAW.equals(type)) {
+                logger.error("Invalid transaction type: {}", type);
+                transactionMetrics.outcome(operation, TransactionMetrics.INVALID_TYPE);
+                throw new IllegalArgumentException("Invalid transaction type");
+            }
+            Money money = toMoney(amount, operation);
+            try {
+                transactionMetrics.time(operation, TransactionMetrics.BALANCE_UPDATE, () -> CREDIT.equals(type)
+                        ? ledger.credit(accountNumber, money)
+                        : ledger.withdraw(accountNumber, money));
+            } catch (AccountNotFoundException e) {
+                transactionMetrics.outcome(operation, TransactionMetrics.ACCOUNT_NOT_FOUND);
+                throw e;
+            } catch (InsufficientFundsException e) {
+                logger.error("Insufficient funds for account: {}", accountNumber);
+                transactionMetrics.outcome(operation, TransactionMetrics.INSUFFICIENT_FUNDS);
+                throw e;
+            }
+            transactionMetrics.outcome(operation, TransactionMetrics.SUCCESS);
+            logger.info("Transaction successful for account: {}", accountNumber);
+            return "Transaction successful";
+        } finally {
+            transactionMetrics.end();
+        }
+    }
+
+    /**
+     * Transfers between two accounts in the ledger as one journal record.
+     * @param transactionRequest The transaction request details.
+     * @return A message indicating the result of the transactions.
+     */
+    @Override
+    public String processTransactions(TransactionRequest transactionRequest) {
+        String fromAccountNumber = transactionRequest.getFromAccount();
+        String toAccountNumber = transactionRequest.getToAccount();
+        BigDecimal amount = transactionRequest.getAmount();
+        logger.info("Processing transfer of {} from account {} to account {}", amount, fromAccountNumber, toAccountNumber);
+
+        transactionMetrics.begin(TransactionMetrics.TRANSFER, fromAccountNumber, amount);
+        try {
+            Money money = toMoney(amount, TransactionMetrics.TRANSFER);
+            if (fromAccountNumber != null && fromAccountNumber.equals(toAccountNumber)) {
+                transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.INVALID_TYPE);
+                throw new IllegalArgumentException("Cannot transfer to the same account: " + fromAccountNumber);
+            }
+            try {
+                transactionMetrics.time(TransactionMetrics.TRANSFER, TransactionMetrics.BALANCE_UPDATE,
+                        () -> ledger.transfer(fromAccountNumber, toAccountNumber, money));
+            } catch (AccountNotFoundException e) {
+                transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.ACCOUNT_NOT_FOUND);
+                throw e;
+            } catch (InsufficientFundsException e) {
+                logger.error("Insufficient funds in account: {}", fromAccountNumber);
+                transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.INSUFFICIENT_FUNDS);
+                throw e;
+            }
+            transactionMetrics.outcome(TransactionMetrics.TRANSFER, TransactionMetrics.SUCCESS);
+            logger.info("Transfer successful: {} transferred from {} to {}", amount, fromAccountNumber, toAccountNumber);
+            return "Transaction successful: " + amount + " transferred from " + fromAccountNumber + " to " + toAccountNumber;
+        } finally {
+            transactionMetrics.end();
+        }
+    }
+
+    /**
+     * Applies the items of a batch to the ledger in order. Unlike the database path the batch is not atomic:
+     * each applied item is durable on its own, and failed items are reported without affecting the others.
+     * @param transactionRequests The transaction requests, applied in order.
+     * @return One result per request, in request order.
+     */
+    @Override
+    public List<TransactionResult> processTransactionBatch(List<TransactionRequest> transactionRequests) {
+        logger.info("Processing batch of {} transactions", transactionRequests.size());
+        List<TransactionResult> results = new ArrayList<>(transactionRequests.size());
+        for (int index = 0; index < transactionRequests.size(); index++) {
+            TransactionRequest transactionRequest = transactionRequests.get(index);
+            String operation = transactionRequest == null ? TransactionMetrics.UNKNOWN
+                    : TransactionMetrics.operationOf(String.valueOf(transactionRequest.getType()));
+            transactionMetrics.begin(operation, transactionRequest == null ? null : transactionRequest.getAccountNumber(),
+                    transactionRequest == null ? null : transactionRequest.getAmount());
+            try {
+                results.add(applyBatchItem(index, transactionRequest));
+                transactionMetrics.outcome(operation, AccountServiceImpl.outcomeOf(results.get(index).getStatus(), transactionRequest));
+            } finally {
+                transactionMetrics.end();
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void validateAccountExists(String accountNumber) {
+        delegate.validateAccountExists(accountNumber);
+    }
+
+    @Override
+    public Account getAccountByAccountNumber(String accountNumber) throws AccountNotFoundException {
+        return withLedgerBalance(delegate.getAccountByAccountNumber(accountNumber));
+    }
+
+    private TransactionResult applyBatchItem(int index, TransactionRequest transactionRequest) {
+        String invalid = AccountServiceImpl.validateBatchItem(transactionRequest);
+        if (invalid != null) {
+            return TransactionResult.failure(index, transactionRequest == null ? null : transactionRequest.getAccountNumber(),
+                    TransactionResult.Status.INVALID_REQUEST, invalid);
+        }
+        String accountNumber = transactionRequest.getAccountNumber();
+        Money amount = Money.of(transactionRequest.getAmount());
+        try {
+            Money updatedBalance = WITHDRAW.equals(String.valueOf(transactionRequest.getType()).toUpperCase())
+                    ? ledger.withdraw(accountNumber, amount)
+                    : ledger.credit(accountNumber, amount);
+            return TransactionResult.success(index, accountNumber, updatedBalance);
+        } catch (AccountNotFoundException e) {
+            return TransactionResult.failure(index, accountNumber, TransactionResult.Status.ACCOUNT_NOT_FOUND, "Account not found");
+        } catch (InsufficientFundsException e) {
+            return TransactionResult.failure(index, accountNumber, TransactionResult.Status.INSUFFICIENT_FUNDS, "Insufficient funds");
+        }
+    }
+
+    private Account withLedgerBalance(Account account) {
+        return ledger.balance(account.getAccountNumber()).map(balance -> {
+            // A copy, so the cached account is never changed.
+            Account view = new Account();
+            BeanUtils.copyProperties(account, view);
+            view.setBalance(balance);
+            return view;
+        }).orElse(account);
+    }
+
+    private Money toMoney(BigDecimal amount, String operation) {
+        if (!Money.isRepresentable(amount) || amount.signum() <= 0) {
+            transactionMetrics.outcome(operation, TransactionMetrics.INVALID_AMOUNT);
+            throw new IllegalArgumentException(amount == null ? "Amount is required" : "Amount must be positive and have at most "
+                    + Money.SCALE + " decimal places");
+        }
+        return Money.of(amount);
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.app.account_service.tracing;
+
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Head sampler for new traces: a trace is sampled with the configured probability, and the sampled traces are then
+ * limited to a number per second. The rules also carry the tail rules applied by {@link TailSamplingSpanHandler}
+ * (errors, latency, accounts under investigation), so one {@link #update} reconfigures both at runtime.
+ * <p>
+ * Exposes {@code account.tracing.sampler.decision} (time taken by the head decision) and
+ * {@code account.tracing.sampler.decisions} (decisions by result).
+ */
+public class AdaptiveSampler extends Sampler {
+
+    /**
+     * Sampling rules.
+     * @param probability Fraction of new traces sampled (0 to 1).
+     * @param tracesPerSecond Maximum sampled traces per second, negative for no limit.
+     * @param latencyThreshold Spans of unsampled traces lasting at least this long are reported, zero to disable.
+     * @param sampleErrors Whether spans of unsampled traces that end with an error are reported.
+     * @param accounts Account numbers whose requests are always reported.
+     */
+    public record Rules(float probability, int tracesPerSecond, Duration latencyThreshold, boolean sampleErrors,
+                        Set<String> accounts) {
+
+        public Rules {
+            if (probability < 0 || probability > 1) {
+                throw new IllegalArgumentException("probability must be between 0 and 1");
+            }
+            if (latencyThreshold.isNegative()) {
+                throw new IllegalArgumentException("latencyThreshold must not be negative");
+            }
+            accounts = Set.copyOf(accounts);
+        }
+    }
+
+    private final Timer decisionTimer;
+    private final Counter sampledCounter;
+    private final Counter notSampledCounter;
+    private volatile Rules rules;
+    private volatile Sampler delegate;
+
+    public AdaptiveSampler(Rules rules, MeterRegistry meterRegistry) {
+        this.decisionTimer = Timer.builder("account.tracing.sampler.decision")
+                .description("Time taken by the head sampling decision of a new trace")
+                .register(meterRegistry);
+        this.sampledCounter = decisions(meterRegistry, "sampled");
+        this.notSampledCounter = decisions(meterRegistry, "not_sampled");
+        update(rules);
+    }
+
+    @Override
+    public boolean isSampled(long traceId) {
+        long start = System.nanoTime();
+        boolean sampled = delegate.isSampled(traceId);
+        decisionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        (sampled ? sampledCounter : notSampledCounter).increment();
+        return sampled;
+    }
+
+    public Rules getRules() {
+        return rules;
+    }
+
+    /**
+     * Replaces the rules. Traces already started keep their decision.
+     * @param rules The new rules.
+     */
+    public synchronized void update(Rules rules) {
+        this.delegate = headSampler(rules);
+        this.rules = rules;
+    }
+
+    /**
+     * @param accountNumber An account number, may be null.
+     * @return Whether requests for the account are always reported.
+     */
+    public boolean isInvestigated(String accountNumber) {
+        return accountNumber != null && rules.accounts().contains(accountNumber);
+    }
+
+    private static Sampler headSampler(Rules rules) {
+        if (rules.probability() == 0 || rules.tracesPerSecond() == 0) {
+            return Sampler.NEVER_SAMPLE;
+        }
+        Sampler probability = rules.probability() == 1 ? Sampler.ALWAYS_SAMPLE : Sampler.create(rules.probability());
+        if (rules.tracesPerSecond() < 0) {
+            return probability;
+        }
+        // The rate limiter only sees traces that passed the probability, so it does not spend its budget on the rest
+        Sampler rateLimit = RateLimitingSampler.create(rules.tracesPerSecond());
+        return new Sampler() {
+            @Override
+            public boolean isSampled(long traceId) {
+                return probability.isSampled(traceId) && rateLimit.isSampled(traceId);
+            }
+        };
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.tracing.sampler.decisions")
+                .description("Head sampling decisions for new traces, and spans of unsampled traces kept by a tail rule")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
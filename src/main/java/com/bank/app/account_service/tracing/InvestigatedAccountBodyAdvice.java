@@ -0,0 +1,39 @@
+package com.bank.app.account_service.tracing;
+
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Passes deserialized request bodies to the {@link InvestigatedAccountTagger}. Enabled under the same conditions as
+ * {@link com.bank.app.account_service.config.TraceSamplingConfig}, which creates the tagger.
+ */
+@ControllerAdvice
+@ConditionalOnEnabledTracing
+@ConditionalOnProperty(name = "account.tracing.sampler.enabled", havingValue = "true", matchIfMissing = true)
+public class InvestigatedAccountBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final InvestigatedAccountTagger tagger;
+
+    public InvestigatedAccountBodyAdvice(InvestigatedAccountTagger tagger) {
+        this.tagger = tagger;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        tagger.tagBody(body);
+        return body;
+    }
+}
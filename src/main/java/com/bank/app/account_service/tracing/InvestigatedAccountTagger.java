@@ -0,0 +1,68 @@
+package com.bank.app.account_service.tracing;
+
+import brave.Tracer;
+import com.bank.core.entity.TransactionRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Tags the current span with {@link TailSamplingSpanHandler#RULE_TAG} when a request concerns an account under
+ * investigation, so that {@link TailSamplingSpanHandler} reports it even if its trace was not sampled.
+ * Account numbers are taken from the {@code accountNumber} path variable (as an interceptor) and from
+ * transaction request bodies (through {@link InvestigatedAccountBodyAdvice}).
+ */
+public class InvestigatedAccountTagger implements HandlerInterceptor {
+
+    private final AdaptiveSampler sampler;
+    private final Tracer tracer;
+
+    public InvestigatedAccountTagger(AdaptiveSampler sampler, Tracer tracer) {
+        this.sampler = sampler;
+        this.tracer = tracer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map) {
+            tagIfInvestigated(((Map<String, String>) map).get("accountNumber"));
+        }
+        return true;
+    }
+
+    /**
+     * Checks the accounts of a request body.
+     * @param body A {@link TransactionRequest} or a collection of them; other bodies are ignored.
+     */
+    public void tagBody(Object body) {
+        if (body instanceof TransactionRequest transactionRequest) {
+            tagIfInvestigated(transactionRequest);
+        } else if (body instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                if (item instanceof TransactionRequest transactionRequest && tagIfInvestigated(transactionRequest)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean tagIfInvestigated(TransactionRequest transactionRequest) {
+        return tagIfInvestigated(transactionRequest.getAccountNumber())
+                || tagIfInvestigated(transactionRequest.getFromAccount())
+                || tagIfInvestigated(transactionRequest.getToAccount());
+    }
+
+    private boolean tagIfInvestigated(String accountNumber) {
+        if (!sampler.isInvestigated(accountNumber)) {
+            return false;
+        }
+        tracer.currentSpanCustomizer().tag(TailSamplingSpanHandler.RULE_TAG, TailSamplingSpanHandler.ACCOUNT);
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bank.app.account_service.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports spans of unsampled traces that match a tail rule of the {@link AdaptiveSampler}: the span ended with an
+ * error, took at least the latency threshold, or was tagged by {@link InvestigatedAccountTagger}. Only those spans are
+ * reported, not the rest of their trace.
+ * <p>
+ * Requires {@code Tracing.Builder.alwaysSampleLocal()}, so that unsampled spans are recorded (but not reported) and
+ * reach this handler. Sampled spans are left to the regular Zipkin handler.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    /** Tag naming the rule that kept a span of an unsampled trace. */
+    public static final String RULE_TAG = "sampling.rule";
+    static final String ERROR = "error";
+    static final String SLOW = "slow";
+    static final String ACCOUNT = "account";
+
+    private final AdaptiveSampler sampler;
+    private final SpanHandler reporter;
+    private final Counter errorCounter;
+    private final Counter slowCounter;
+    private final Counter accountCounter;
+
+    /**
+     * @param sampler The sampler holding the rules.
+     * @param reporter Handler reporting the kept spans whether or not they are sampled.
+     * @param meterRegistry The registry for the kept span counters.
+     */
+    public TailSamplingSpanHandler(AdaptiveSampler sampler, SpanHandler reporter, MeterRegistry meterRegistry) {
+        this.sampler = sampler;
+        this.reporter = reporter;
+        this.errorCounter = kept(meterRegistry, ERROR);
+        this.slowCounter = kept(meterRegistry, SLOW);
+        this.accountCounter = kept(meterRegistry, ACCOUNT);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause != Cause.FINISHED || Boolean.TRUE.equals(context.sampled())) {
+            return true;
+        }
+        String rule = rule(span, sampler.getRules());
+        if (rule != null) {
+            span.tag(RULE_TAG, rule);
+            reporter.end(context, span, cause);
+        }
+        return true;
+    }
+
+    private String rule(MutableSpan span, AdaptiveSampler.Rules rules) {
+        if (ACCOUNT.equals(span.tag(RULE_TAG))) {
+            accountCounter.increment();
+            return ACCOUNT;
+        }
+        if (rules.sampleErrors() && (span.error() != null || span.tag(ERROR) != null)) {
+            errorCounter.increment();
+            return ERROR;
+        }
+        long thresholdMicros = rules.latencyThreshold().toNanos() / 1000;
+        if (thresholdMicros > 0 && span.startTimestamp() != 0 && span.finishTimestamp() != 0
+                && span.finishTimestamp() - span.startTimestamp() >= thresholdMicros) {
+            slowCounter.increment();
+            return SLOW;
+        }
+        return null;
+    }
+
+    private static Counter kept(MeterRegistry meterRegistry, String rule) {
+        return Counter.builder("account.tracing.sampler.decisions")
+                .description("Head sampling decisions for new traces, and spans of unsampled traces kept by a tail rule")
+                .tag("result", "kept_" + rule)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bank.app.account_service.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code /actuator/tracesampling}: reads (GET) and changes (POST) the rules of the {@link AdaptiveSampler} at runtime.
+ * Parameters left out of a POST keep their current value. DELETE restores the configured rules.
+ */
+@Endpoint(id = "tracesampling")
+public class TraceSamplingEndpoint {
+
+    private final AdaptiveSampler sampler;
+    private final AdaptiveSampler.Rules configuredRules;
+
+    public TraceSamplingEndpoint(AdaptiveSampler sampler) {
+        this.sampler = sampler;
+        this.configuredRules = sampler.getRules();
+    }
+
+    @ReadOperation
+    public Map<String, Object> rules() {
+        AdaptiveSampler.Rules rules = sampler.getRules();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("probability", rules.probability());
+        result.put("tracesPerSecond", rules.tracesPerSecond());
+        result.put("latencyThresholdMs", rules.latencyThreshold().toMillis());
+        result.put("sampleErrors", rules.sampleErrors());
+        result.put("accounts", rules.accounts().stream().sorted().toList());
+        return result;
+    }
+
+    /**
+     * Changes the sampling rules.
+     * @param probability Fraction of new traces sampled (0 to 1).
+     * @param tracesPerSecond Maximum sampled traces per second, negative for no limit.
+     * @param latencyThresholdMs Spans of unsampled traces lasting at least this long are reported, 0 to disable.
+     * @param sampleErrors Whether spans of unsampled traces that end with an error are reported.
+     * @param accounts Account numbers whose requests are always reported; replaces the current list.
+     * @return The rules now in effect.
+     */
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Float probability, @Nullable Integer tracesPerSecond,
+                                      @Nullable Long latencyThresholdMs, @Nullable Boolean sampleErrors,
+                                      @Nullable List<String> accounts) {
+        AdaptiveSampler.Rules current = sampler.getRules();
+        sampler.update(new AdaptiveSampler.Rules(
+                probability == null ? current.probability() : probability,
+                tracesPerSecond == null ? current.tracesPerSecond() : tracesPerSecond,
+                latencyThresholdMs == null ? current.latencyThreshold() : Duration.ofMillis(latencyThresholdMs),
+                sampleErrors == null ? current.sampleErrors() : sampleErrors,
+                accounts == null ? current.accounts() : Set.copyOf(accounts)));
+        return rules();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        sampler.update(configuredRules);
+        return rules();
+    }
+}
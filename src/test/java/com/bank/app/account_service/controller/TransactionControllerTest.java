@@ -1,22 +1,36 @@
 package com.bank.app.account_service.controller;
+import com.bank.app.account_service.dto.TransactionPage;
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.dto.TransactionSubmission;
 import com.bank.app.account_service.entity.Transaction;
 import com.bank.app.account_service.exception.AccountNotFoundException;
 import com.bank.app.account_service.exception.InsufficientFundsException;
-import com.bank.app.account_service.repo.TransactionRepository;
 import com.bank.app.account_service.service.AccountService;
+import com.bank.app.account_service.service.AsyncTransactionSubmitter;
+import com.bank.app.account_service.service.GroupCommitter;
+import com.bank.app.account_service.service.TransactionExportService;
+import com.bank.app.account_service.service.TransactionHistoryService;
 import com.bank.core.entity.TransactionRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class TransactionControllerTest {
@@ -25,14 +39,17 @@ class TransactionControllerTest {
     private AccountService accountService;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransactionHistoryService transactionHistoryService;
+
+    @Mock
+    private TransactionExportService transactionExportService;
 
-    @InjectMocks
     private TransactionController transactionController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        transactionController = new TransactionController(accountService, transactionHistoryService, transactionExportService, Optional.empty(), Optional.empty());
     }
 
     @Test
@@ -48,6 +65,20 @@ class TransactionControllerTest {
         verify(accountService, times(1)).processTransaction(any(TransactionRequest.class));
     }
 
+    @Test
+    void testPerformTransaction_GoesThroughGroupCommitWhenEnabled() {
+        GroupCommitter groupCommitter = mock(GroupCommitter.class);
+        when(groupCommitter.process(any(TransactionRequest.class))).thenReturn("Transaction successful");
+        transactionController = new TransactionController(accountService, transactionHistoryService, transactionExportService,
+                Optional.of(groupCommitter), Optional.empty());
+
+        ResponseEntity<String> response = transactionController.performTransaction(new TransactionRequest());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(groupCommitter).process(any(TransactionRequest.class));
+        verify(accountService, never()).processTransaction(any());
+    }
+
     @Test
     void testPerformTransaction_AccountNotFoundException() {
         TransactionRequest request = new TransactionRequest();
@@ -169,23 +200,145 @@ class TransactionControllerTest {
     void testGetTransactions_Success() {
         String accountNumber = "12345";
         List<Transaction> transactions = Collections.singletonList(new Transaction());
-        when(transactionRepository.findByAccountNumber(accountNumber)).thenReturn(transactions);
+        when(transactionHistoryService.getAll(accountNumber)).thenReturn(transactions);
 
         ResponseEntity<List<Transaction>> response = transactionController.getTransactions(accountNumber);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(transactions, response.getBody());
-        verify(transactionRepository, times(1)).findByAccountNumber(accountNumber);
+        verify(transactionHistoryService, times(1)).getAll(accountNumber);
     }
 
     @Test
     void testGetTransactions_NotFound() {
         String accountNumber = "12345";
-        when(transactionRepository.findByAccountNumber(accountNumber)).thenReturn(Collections.emptyList());
+        when(transactionHistoryService.getAll(accountNumber)).thenReturn(Collections.emptyList());
 
         ResponseEntity<List<Transaction>> response = transactionController.getTransactions(accountNumber);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        verify(transactionRepository, times(1)).findByAccountNumber(accountNumber);
+        verify(transactionHistoryService, times(1)).getAll(accountNumber);
+    }
+
+    @Test
+    void testGetTransactionPage_Success() {
+        String accountNumber = "12345";
+        TransactionPage page = new TransactionPage(Collections.singletonList(new Transaction()), "next");
+        when(transactionHistoryService.getPage(accountNumber, 20, null)).thenReturn(page);
+
+        ResponseEntity<TransactionPage> response = transactionController.getTransactionPage(accountNumber, 20, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(transactionHistoryService, times(1)).getPage(accountNumber, 20, null);
+    }
+
+    @Test
+    void testExportTransactions_Csv() throws Exception {
+        String accountNumber = "12345";
+
+        ResponseEntity<StreamingResponseBody> response = transactionController.exportTransactions(accountNumber, "csv");
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        verify(transactionExportService, times(1)).export(eq(accountNumber), eq(TransactionExportService.Format.CSV), any());
+    }
+
+    @Test
+    void testExportTransactions_UnsupportedFormat() {
+        assertThrows(IllegalArgumentException.class, () -> transactionController.exportTransactions("12345", "xml"));
+        verifyNoInteractions(transactionExportService);
+    }
+
+    @Test
+    void testPerformTransactionBatch_ReturnsPerItemResults() {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        List<TransactionResult> results = List.of(TransactionResult.failure(0, "12345", TransactionResult.Status.ACCOUNT_NOT_FOUND, "Account not found"));
+        when(accountService.processTransactionBatch(List.of(request))).thenReturn(results);
+
+        ResponseEntity<List<TransactionResult>> response = transactionController.performTransactionBatch(List.of(request));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    @Test
+    void testPerformTransactionBatch_RejectsEmptyBatch() {
+        ResponseEntity<List<TransactionResult>> response = transactionController.performTransactionBatch(Collections.emptyList());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(accountService, never()).processTransactionBatch(anyList());
+    }
+
+    @Test
+    void testSubmitTransaction_AcceptedWithStatusLocation() {
+        AsyncTransactionSubmitter submitter = mock(AsyncTransactionSubmitter.class);
+        transactionController = withSubmitter(submitter);
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        TransactionSubmission pending = TransactionSubmission.pending("tx-1", "credit", "12345");
+        when(submitter.submitTransaction(request)).thenReturn(pending);
+
+        ResponseEntity<?> response = transactionController.submitTransaction(request);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(pending, response.getBody());
+        assertEquals(URI.create("/account/transactions/async/tx-1"), response.getHeaders().getLocation());
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void testSubmitTransfer_QueueFullIsServiceUnavailable() {
+        AsyncTransactionSubmitter submitter = mock(AsyncTransactionSubmitter.class);
+        transactionController = withSubmitter(submitter);
+        TransactionRequest request = new TransactionRequest();
+        request.setFromAccount("12345");
+        request.setToAccount("67890");
+        when(submitter.submitTransfer(request)).thenThrow(new RejectedExecutionException("Asynchronous transaction queue is full"));
+
+        ResponseEntity<?> response = transactionController.submitTransfer(request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testSubmitTransaction_ValidationFailureIsBadRequest() {
+        AsyncTransactionSubmitter submitter = mock(AsyncTransactionSubmitter.class);
+        transactionController = withSubmitter(submitter);
+        TransactionRequest request = new TransactionRequest();
+        when(submitter.submitTransaction(request)).thenThrow(new IllegalArgumentException("Invalid transaction type"));
+
+        ResponseEntity<?> response = transactionController.submitTransaction(request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid transaction type", response.getBody());
+    }
+
+    @Test
+    void testGetSubmissionStatus() {
+        AsyncTransactionSubmitter submitter = mock(AsyncTransactionSubmitter.class);
+        transactionController = withSubmitter(submitter);
+        TransactionSubmission completed = TransactionSubmission.pending("tx-1", "credit", "12345")
+                .complete(TransactionSubmission.State.SUCCEEDED, "Transaction successful");
+        when(submitter.status("tx-1")).thenReturn(Optional.of(completed));
+        when(submitter.status("unknown")).thenReturn(Optional.empty());
+
+        assertEquals(completed, transactionController.getSubmissionStatus("tx-1").getBody());
+        assertEquals(HttpStatus.NOT_FOUND, transactionController.getSubmissionStatus("unknown").getStatusCode());
+    }
+
+    @Test
+    void testSubmitTransaction_DisabledIsNotFound() {
+        ResponseEntity<?> response = transactionController.submitTransaction(new TransactionRequest());
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private TransactionController withSubmitter(AsyncTransactionSubmitter submitter) {
+        return new TransactionController(accountService, transactionHistoryService, transactionExportService, Optional.empty(),
+                Optional.of(submitter));
     }
 }
@@ -0,0 +1,49 @@
+package com.bank.app.account_service.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testConvertsLosslesslyToAndFromBigDecimal() {
+        assertEquals(1050, Money.of(new BigDecimal("10.5")).minorUnits());
+        assertEquals(1050, Money.of(new BigDecimal("10.5000")).minorUnits());
+        assertEquals(-1, Money.of(new BigDecimal("-0.01")).minorUnits());
+        assertEquals(new BigDecimal("10.50"), Money.parse("10.5").toBigDecimal());
+        assertEquals("92233720368547758.07", Money.ofMinor(Long.MAX_VALUE).toString());
+        assertEquals(Money.ofMinor(Long.MAX_VALUE), Money.parse("92233720368547758.07"));
+    }
+
+    @Test
+    void testRejectsAmountsThatCannotBeHeldExactly() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("10.005"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("92233720368547758.08"));
+        assertFalse(Money.isRepresentable(new BigDecimal("10.005")));
+        assertFalse(Money.isRepresentable(new BigDecimal("92233720368547758.08")));
+        assertFalse(Money.isRepresentable(null));
+        assertTrue(Money.isRepresentable(new BigDecimal("10.0500")));
+        assertTrue(Money.isRepresentable(new BigDecimal("-92233720368547758.08")));
+    }
+
+    @Test
+    void testArithmeticChecksOverflow() {
+        assertEquals(Money.parse("3.50"), Money.parse("1.25").plus(Money.parse("2.25")));
+        assertEquals(Money.parse("-1.00"), Money.parse("1.25").minus(Money.parse("2.25")));
+        assertTrue(Money.parse("1.25").isLessThan(Money.parse("1.26")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void testJsonUsesThePlainNumber() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("10.50", objectMapper.writeValueAsString(Money.parse("10.5")));
+        assertEquals(Money.parse("10.5"), objectMapper.readValue("10.50", Money.class));
+    }
+}
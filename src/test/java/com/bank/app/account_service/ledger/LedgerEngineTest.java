@@ -0,0 +1,336 @@
+package com.bank.app.account_service.ledger;
+
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEngineTest {
+
+    // Long enough that only the tests decide when the flusher runs, apart from the final flush on close.
+    private static final long NO_BACKGROUND_FLUSH = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private InMemoryLedgerStore store;
+    private final List<LedgerEngine> engines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryLedgerStore();
+        store.balances.put("1001", 10_000L);
+        store.balances.put("1002", 0L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.failing = false;
+        for (LedgerEngine engine : engines) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void testCreditAndWithdrawUpdateTheBalance() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+
+        assertEquals(Money.parse("150.00"), engine.credit("1001", Money.parse("50.00")));
+        assertEquals(Money.parse("120.00"), engine.withdraw("1001", Money.parse("30.00")));
+
+        assertEquals(Optional.of(Money.parse("120.00")), engine.balance("1001"));
+        // Nothing reaches the store before the flush.
+        assertEquals(10_000L, store.balances.get("1001"));
+        engine.flushDurable();
+        assertEquals(12_000L, store.balances.get("1001"));
+        assertEquals(2, store.applied.size());
+    }
+
+    @Test
+    void testWithdrawBeyondBalanceIsRejectedAndNotJournaled() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+
+        assertThrows(InsufficientFundsException.class, () -> engine.withdraw("1001", Money.parse("100.01")));
+        assertThrows(AccountNotFoundException.class, () -> engine.credit("9999", Money.parse("1.00")));
+
+        engine.flushDurable();
+        assertEquals(Optional.of(Money.parse("100.00")), engine.balance("1001"));
+        assertTrue(store.applied.isEmpty());
+    }
+
+    @Test
+    void testTransferIsOneRecordMovingFundsBetweenAccounts() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+
+        LedgerEngine.TransferResult result = engine.transfer("1001", "1002", Money.parse("40.00"));
+
+        assertEquals(Money.parse("60.00"), result.fromBalance());
+        assertEquals(Money.parse("40.00"), result.toBalance());
+        assertThrows(InsufficientFundsException.class, () -> engine.transfer("1001", "1002", Money.parse("60.01")));
+        assertThrows(AccountNotFoundException.class, () -> engine.transfer("1001", "9999", Money.parse("1.00")));
+        assertThrows(IllegalArgumentException.class, () -> engine.transfer("1001", "1001", Money.parse("1.00")));
+        engine.flushDurable();
+        assertEquals(1, store.applied.size());
+        assertEquals(LedgerRecord.Type.TRANSFER, store.applied.get(0).type());
+        assertEquals(6_000L, store.balances.get("1001"));
+        assertEquals(4_000L, store.balances.get("1002"));
+    }
+
+    @Test
+    void testConcurrentTransfersConserveTheTotal() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            store.balances.put("20" + i, 1_000L);
+        }
+        LedgerEngine engine = start(1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 200; i++) {
+                        int from = random.nextInt(8);
+                        int to = (from + 1 + random.nextInt(7)) % 8;
+                        try {
+                            engine.transfer("20" + from, "20" + to, Money.ofMinor(1 + random.nextInt(50)));
+                        } catch (InsufficientFundsException ignored) {
+                            // Expected once an account runs dry.
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long total = 0;
+        for (int i = 0; i < 8; i++) {
+            total += engine.balance("20" + i).orElseThrow().minorUnits();
+        }
+        assertEquals(8_000L, total);
+        engine.flushDurable();
+        long stored = 0;
+        for (int i = 0; i < 8; i++) {
+            assertEquals(engine.balance("20" + i).orElseThrow().minorUnits(), store.balances.get("20" + i));
+            stored += store.balances.get("20" + i);
+        }
+        assertEquals(8_000L, stored);
+    }
+
+    @Test
+    void testFailedFlushIsRetriedWithoutApplyingRecordsTwice() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+        engine.credit("1001", Money.parse("1.00"));
+        store.failing = true;
+
+        engine.flushDurable();
+        assertTrue(store.applied.isEmpty());
+
+        store.failing = false;
+        engine.credit("1001", Money.parse("2.00"));
+        engine.flushDurable();
+        engine.flushDurable();
+        assertEquals(2, store.applied.size());
+        assertEquals(10_300L, store.balances.get("1001"));
+    }
+
+    @Test
+    void testRepeatedlyFailingFlushRejectsMutationsUntilItSucceeds() throws IOException {
+        LedgerEngine engine = start(1024 * 1024, 3, 100_000);
+        engine.credit("1001", Money.parse("1.00"));
+        store.failing = true;
+
+        engine.flushDurable();
+        engine.flushDurable();
+        assertTrue(engine.isHealthy());
+        engine.flushDurable();
+
+        assertFalse(engine.isHealthy());
+        assertThrows(IllegalStateException.class, () -> engine.credit("1001", Money.parse("1.00")));
+        assertThrows(IllegalStateException.class, () -> engine.transfer("1001", "1002", Money.parse("1.00")));
+        assertEquals(Optional.of(Money.parse("101.00")), engine.balance("1001"));
+
+        store.failing = false;
+        engine.flushDurable();
+
+        assertTrue(engine.isHealthy());
+        assertEquals(10_100L, store.balances.get("1001"));
+        assertEquals(Money.parse("102.00"), engine.credit("1001", Money.parse("1.00")));
+    }
+
+    @Test
+    void testFullBacklogRejectsMutations() throws IOException {
+        LedgerEngine engine = start(1024 * 1024, 100, 2);
+        engine.credit("1001", Money.parse("1.00"));
+        engine.credit("1001", Money.parse("1.00"));
+
+        assertEquals(2, engine.backlog());
+        assertThrows(IllegalStateException.class, () -> engine.credit("1001", Money.parse("1.00")));
+        assertEquals(Optional.of(Money.parse("102.00")), engine.balance("1001"));
+
+        engine.flushDurable();
+
+        assertEquals(0, engine.backlog());
+        assertEquals(Money.parse("103.00"), engine.credit("1001", Money.parse("1.00")));
+    }
+
+    @Test
+    void testDurableRecordsAreReplayedAfterACrash() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+        engine.credit("1001", Money.parse("5.00"));
+        engine.transfer("1001", "1002", Money.parse("25.00"));
+        // The database is unreachable until the process dies: the records only exist in the journal.
+        store.failing = true;
+        engine.close();
+        assertTrue(store.applied.isEmpty());
+        store.failing = false;
+
+        LedgerEngine restarted = start(1024 * 1024);
+
+        assertEquals(2, store.applied.size());
+        assertEquals(8_000L, store.balances.get("1001"));
+        assertEquals(2_500L, store.balances.get("1002"));
+        assertEquals(Money.parse("81.00"), restarted.credit("1001", Money.parse("1.00")));
+        restarted.flushDurable();
+        assertEquals(List.of(1L, 2L, 3L), store.applied.stream().map(LedgerRecord::sequence).toList());
+    }
+
+    @Test
+    void testRecordsCoveredByTheCheckpointAreNotReplayed() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+        engine.credit("1001", Money.parse("5.00"));
+        engine.close();
+        assertEquals(1, store.applied.size());
+
+        LedgerEngine restarted = start(1024 * 1024);
+
+        assertEquals(1, store.applied.size());
+        assertEquals(10_500L, store.balances.get("1001"));
+        restarted.credit("1001", Money.parse("1.00"));
+        restarted.flushDurable();
+        assertEquals(List.of(1L, 2L), store.applied.stream().map(LedgerRecord::sequence).toList());
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnRecovery() throws IOException {
+        LedgerEngine engine = start(1024 * 1024);
+        engine.credit("1001", Money.parse("5.00"));
+        engine.credit("1001", Money.parse("6.00"));
+        store.failing = true;
+        engine.close();
+        store.failing = false;
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        // A frame header promising more bytes than were written, as left by a crash in the middle of a write.
+        Files.write(segment, new byte[]{0, 0, 0, 60, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        LedgerEngine restarted = start(1024 * 1024);
+
+        assertEquals(intact, Files.size(segment));
+        assertEquals(2, store.applied.size());
+        assertEquals(11_100L, store.balances.get("1001"));
+        restarted.credit("1001", Money.parse("1.00"));
+        restarted.close();
+        assertEquals(11_200L, store.balances.get("1001"));
+    }
+
+    @Test
+    void testFlushedSegmentsAreDeleted() throws IOException {
+        // Every fsync batch starts a new segment.
+        LedgerEngine engine = start(1);
+        for (int i = 0; i < 5; i++) {
+            engine.credit("1001", Money.parse("1.00"));
+        }
+        assertEquals(5, segments().size());
+
+        engine.flushDurable();
+
+        assertEquals(1, segments().size());
+        assertEquals(10_500L, store.balances.get("1001"));
+    }
+
+    private LedgerEngine start(long segmentBytes) throws IOException {
+        return start(segmentBytes, 100, 100_000);
+    }
+
+    private LedgerEngine start(long segmentBytes, int flushMaxAttempts, int maxBacklog) throws IOException {
+        LedgerEngine engine = new LedgerEngine(store, directory, 4, segmentBytes, 100, NO_BACKGROUND_FLUSH, 100, 5_000,
+                flushMaxAttempts, maxBacklog, new SimpleMeterRegistry());
+        engines.add(engine);
+        engine.start();
+        return engine;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * A store that applies records to a map and skips those its checkpoint covers, like the database store.
+     */
+    private static class InMemoryLedgerStore implements LedgerStore {
+        final Map<String, Long> balances = new ConcurrentHashMap<>();
+        final List<LedgerRecord> applied = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean failing;
+        private volatile long checkpoint;
+
+        @Override
+        public long checkpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public Optional<Money> loadBalance(String accountNumber) {
+            return Optional.ofNullable(balances.get(accountNumber)).map(Money::ofMinor);
+        }
+
+        @Override
+        public synchronized void flush(List<LedgerRecord> records) {
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            for (LedgerRecord record : records) {
+                if (record.sequence() <= checkpoint) {
+                    continue;
+                }
+                switch (record.type()) {
+                    case CREDIT -> balances.merge(record.accountNumber(), record.amount(), Long::sum);
+                    case WITHDRAW -> balances.merge(record.accountNumber(), -record.amount(), Long::sum);
+                    case TRANSFER -> {
+                        balances.merge(record.accountNumber(), -record.amount(), Long::sum);
+                        balances.merge(record.counterparty(), record.amount(), Long::sum);
+                    }
+                }
+                applied.add(record);
+                checkpoint = record.sequence();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.app.account_service.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFailureAfterTheWriteFailsTheRecordAndRejectsFurtherAppends() throws Exception {
+        LedgerJournal journal = new LedgerJournal(directory, 1024 * 1024, 100, records -> {
+            throw new IllegalStateException("Consumer broke");
+        });
+        journal.recover(0);
+        journal.start();
+        try {
+            LedgerJournal.Pending pending = journal.append(LedgerRecord.Type.CREDIT, "1001", null, 100, 100, 0);
+
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> pending.durable().get(5, TimeUnit.SECONDS));
+            assertEquals("Consumer broke", failure.getCause().getMessage());
+            assertTrue(journal.isFailed());
+            assertThrows(IllegalStateException.class,
+                    () -> journal.append(LedgerRecord.Type.CREDIT, "1001", null, 100, 200, 0));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void testInterruptedWriterFailsTheJournal() throws IOException, InterruptedException {
+        LedgerJournal journal = new LedgerJournal(directory, 1024 * 1024, 100, records -> {
+            Thread.currentThread().interrupt();
+        });
+        journal.recover(0);
+        journal.start();
+        try {
+            // The first record is acknowledged; the interrupt then stops the writer at its next poll.
+            journal.append(LedgerRecord.Type.CREDIT, "1001", null, 100, 100, 0).durable().join();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!journal.isFailed() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertTrue(journal.isFailed());
+            assertThrows(IllegalStateException.class,
+                    () -> journal.append(LedgerRecord.Type.CREDIT, "1001", null, 100, 200, 0));
+        } finally {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.bank.app.account_service.loadtest;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: the full application on H2 and an embedded Kafka broker, with the outbox relay running,
+ * driven over HTTP by many concurrent clients with a weighted mix of operations at a fixed total request rate.
+ * <p>
+ * Requests are scheduled open-loop, and latency is measured from each request's scheduled start, so a stalled
+ * server shows up as latency instead of a lower request rate. Prints throughput, p50/p99/p999 latency,
+ * business rejections (4xx) and errors (5xx or I/O failures) per endpoint.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=EndToEndLoadTest}, tuned with system properties:
+ * {@code loadtest.rate} (requests/s, default 200), {@code loadtest.duration-seconds} (30), {@code loadtest.clients} (32),
+ * {@code loadtest.accounts} (200) and {@code loadtest.mix} (default {@code open=5,credit=35,withdraw=25,transfer=20,history=15}).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.auto-create=true",
+        "account.outbox.relay.enabled=true"
+})
+@EmbeddedKafka(partitions = 3, topics = {"account-service-topic", "transaction-service-topic"})
+@ActiveProfiles("test")
+class EndToEndLoadTest {
+
+    private static final BigDecimal OPENING_DEPOSIT = new BigDecimal("100000.00");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(8))
+            .build();
+
+    enum Operation { OPEN, CREDIT, WITHDRAW, TRANSFER, HISTORY }
+
+    @Test
+    void mixedLoad() throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        int accounts = Integer.getInteger("loadtest.accounts", 200);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix", "open=5,credit=35,withdraw=25,transfer=20,history=15"));
+
+        List<String> accountNumbers = seedAccounts(accounts);
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+
+        // Each client owns an equal share of the total rate and keeps its own fixed schedule.
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * clients / rate;
+        long requestsPerClient = (long) rate * durationSeconds / clients;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long startNanos = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            long offset = intervalNanos * c / clients;
+            futures.add(executor.submit(() -> {
+                for (long i = 0; i < requestsPerClient; i++) {
+                    long scheduled = startNanos + offset + i * intervalNanos;
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    Operation operation = pick(mix);
+                    int status = execute(operation, accountNumbers);
+                    stats.get(operation).record(System.nanoTime() - scheduled, status);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(durationSeconds * 10L + 60, TimeUnit.SECONDS);
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        executor.shutdown();
+
+        System.out.printf("target rate=%d/s clients=%d duration=%ds accounts=%d%n", rate, clients, durationSeconds, accounts);
+        System.out.printf("%-9s %8s %10s %9s %9s %9s %9s %7s%n", "endpoint", "count", "rate/s", "p50 ms", "p99 ms", "p999 ms", "rejected", "errors");
+        long errors = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            long[] latencies = endpoint.sortedLatencies();
+            if (latencies.length == 0) {
+                continue;
+            }
+            System.out.printf("%-9s %8d %10.1f %9.2f %9.2f %9.2f %9d %7d%n", entry.getKey(), latencies.length,
+                    latencies.length / elapsedSeconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), endpoint.rejected.get(), endpoint.errors.get());
+            errors += endpoint.errors.get();
+        }
+        System.out.printf("outbox events published=%.0f%n", meterRegistry.find("account.outbox.published").counter() == null
+                ? 0.0 : meterRegistry.get("account.outbox.published").counter().count());
+
+        assertTrue(errors == 0, "Server errors during the load test: " + errors);
+    }
+
+    private List<String> seedAccounts(int count) throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = send(post("/account/open", openRequest(i)));
+            String accountNumber = objectMapper.readValue(response.body(), Account.class).getAccountNumber();
+            accountNumbers.add(accountNumber);
+            send(post("/account/transaction", transaction(TransactionType.CREDIT, accountNumber, OPENING_DEPOSIT)));
+        }
+        return accountNumbers;
+    }
+
+    private int execute(Operation operation, List<String> accountNumbers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String accountNumber = accountNumbers.get(random.nextInt(accountNumbers.size()));
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 500));
+        try {
+            HttpRequest request = switch (operation) {
+                case OPEN -> post("/account/open", openRequest(random.nextInt(1_000_000)));
+                case CREDIT -> post("/account/transaction", transaction(TransactionType.CREDIT, accountNumber, amount));
+                case WITHDRAW -> post("/account/transaction", transaction(TransactionType.WITHDRAW, accountNumber, amount));
+                case TRANSFER -> {
+                    TransactionRequest transfer = new TransactionRequest();
+                    transfer.setFromAccount(accountNumber);
+                    transfer.setToAccount(accountNumbers.get(random.nextInt(accountNumbers.size())));
+                    transfer.setAmount(amount);
+                    yield post("/account/transactions", transfer);
+                }
+                case HISTORY -> HttpRequest.newBuilder(uri("/account/transaction/" + accountNumber + "/page?limit=20")).GET().build();
+            };
+            return send(request).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private Map<String, Object> openRequest(int user) {
+        Map<String, Object> account = new LinkedHashMap<>();
+        account.put("userId", (long) user);
+        account.put("accountType", "SAVINGS");
+        account.put("userName", "Load Test User " + user);
+        account.put("email", "user" + user + "@example.com");
+        return account;
+    }
+
+    private static TransactionRequest transaction(TransactionType type, String accountNumber, BigDecimal amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        request.setType(type);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private HttpRequest post(String path, Object body) throws Exception {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split("=");
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    private static final class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyNanos, int status) {
+            synchronized (latencies) {
+                latencies.add(latencyNanos);
+            }
+            if (status < 0 || status >= 500) {
+                errors.incrementAndGet();
+            } else if (status >= 400) {
+                rejected.incrementAndGet();
+            }
+        }
+
+        long[] sortedLatencies() {
+            synchronized (latencies) {
+                return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+        }
+    }
+}
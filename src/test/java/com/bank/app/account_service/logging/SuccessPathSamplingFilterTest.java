@@ -0,0 +1,80 @@
+package com.bank.app.account_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuccessPathSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SuccessPathSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SuccessPathSamplingFilter();
+        filter.setContext(context);
+        filter.addSample("com.bank.quiet=0");
+        filter.addSample("com.bank.sampled=0.5");
+        filter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void testSuccessPathMessagesAreDroppedAtRateZero() {
+        assertEquals(FilterReply.DENY, decide("com.bank.quiet.Service", Level.INFO, null));
+        assertEquals(FilterReply.DENY, decide("com.bank.quiet", Level.DEBUG, null));
+    }
+
+    @Test
+    void testWarningsErrorsAndExceptionsAreAlwaysLogged() {
+        assertEquals(FilterReply.NEUTRAL, decide("com.bank.quiet.Service", Level.WARN, null));
+        assertEquals(FilterReply.NEUTRAL, decide("com.bank.quiet.Service", Level.ERROR, null));
+        assertEquals(FilterReply.NEUTRAL, decide("com.bank.quiet.Service", Level.INFO, new RuntimeException()));
+    }
+
+    @Test
+    void testExceptionPassedAsLastArgumentIsAlwaysLogged() {
+        Logger logger = context.getLogger("com.bank.quiet.Service");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Retrying {}", new Object[]{"12345", new RuntimeException()}, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "Retrying {}", new Object[]{new RuntimeException(), "12345"}, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "Retrying", new Object[0], null));
+    }
+
+    @Test
+    void testOtherLoggersAndEnabledChecksAreNotSampled() {
+        assertEquals(FilterReply.NEUTRAL, decide("com.bank.other.Service", Level.INFO, null));
+        assertEquals(FilterReply.NEUTRAL, decide("com.bank.quietness", Level.INFO, null));
+        Logger logger = context.getLogger("com.bank.quiet.Service");
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, null, null, null));
+    }
+
+    @Test
+    void testDecisionIsConsistentWithinATrace() {
+        int kept = 0;
+        for (int i = 0; i < 1000; i++) {
+            MDC.put("traceId", Integer.toHexString(i * 7919));
+            FilterReply first = decide("com.bank.sampled.Controller", Level.INFO, null);
+            assertEquals(first, decide("com.bank.sampled.Service", Level.INFO, null));
+            if (first == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 400 && kept < 600, "kept " + kept);
+    }
+
+    private FilterReply decide(String loggerName, Level level, Throwable t) {
+        return filter.decide(null, context.getLogger(loggerName), level, "message {}", new Object[]{"12345"}, t);
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.app.account_service.monitoring;
+
+import com.bank.app.account_service.service.TransactionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordingContainsTransactionEvents() throws Exception {
+        JfrEndpoint endpoint = new JfrEndpoint(directory, Duration.ofMinutes(1));
+        TransactionMetrics transactionMetrics = new TransactionMetrics(new SimpleMeterRegistry());
+
+        assertEquals("RUNNING", endpoint.start("default", null).get("state"));
+        transactionMetrics.begin(TransactionMetrics.CREDIT, "12345", BigDecimal.valueOf(250));
+        transactionMetrics.record(TransactionMetrics.CREDIT, TransactionMetrics.BALANCE_UPDATE, 1_000);
+        transactionMetrics.record(TransactionMetrics.CREDIT, TransactionMetrics.TRANSACTION_INSERT, 2_000);
+        transactionMetrics.record(TransactionMetrics.CREDIT, TransactionMetrics.EVENT_PUBLISH, 500);
+        transactionMetrics.outcome(TransactionMetrics.CREDIT, TransactionMetrics.SUCCESS);
+        Map<String, Object> status = endpoint.stop();
+
+        assertEquals("STOPPED", status.get("state"));
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) status.get("destination"))).stream()
+                .filter(event -> event.getEventType().getName().equals("com.bank.account.Transaction"))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("credit", event.getString("operation"));
+        assertEquals(TransactionEvent.hash("12345"), event.getLong("accountHash"));
+        assertNotEquals("12345".hashCode(), event.getLong("accountHash"));
+        assertEquals("100-1k", event.getString("amountBucket"));
+        assertEquals(TransactionMetrics.SUCCESS, event.getString("outcome"));
+        assertEquals(Duration.ofNanos(3_000), event.getDuration("databaseTime"));
+        assertEquals(Duration.ofNanos(500), event.getDuration("publishTime"));
+    }
+
+    @Test
+    void testEventOfAFailedTransactionIsNotReusedByTheNextOutcome() throws Exception {
+        JfrEndpoint endpoint = new JfrEndpoint(directory, Duration.ofMinutes(1));
+        TransactionMetrics transactionMetrics = new TransactionMetrics(new SimpleMeterRegistry());
+
+        endpoint.start("default", null);
+        transactionMetrics.begin(TransactionMetrics.TRANSFER, "12345", BigDecimal.valueOf(250));
+        // The transaction failed with an exception that has no outcome.
+        transactionMetrics.end();
+        transactionMetrics.record(TransactionMetrics.CREDIT, TransactionMetrics.BALANCE_UPDATE, 1_000);
+        transactionMetrics.outcome(TransactionMetrics.CREDIT, TransactionMetrics.SUCCESS);
+        Map<String, Object> status = endpoint.stop();
+
+        assertTrue(RecordingFile.readAllEvents(Path.of((String) status.get("destination"))).stream()
+                .noneMatch(event -> event.getEventType().getName().equals("com.bank.account.Transaction")));
+    }
+
+    @Test
+    void testStopWithoutRecordingFails() {
+        JfrEndpoint endpoint = new JfrEndpoint(directory, Duration.ofMinutes(1));
+
+        assertEquals("NONE", endpoint.status().get("state"));
+        assertThrows(IllegalStateException.class, endpoint::stop);
+    }
+
+    @Test
+    void testAccountHashDependsOnTheKey() {
+        long randomKeyHash = TransactionEvent.hash("12345");
+        assertEquals(randomKeyHash, TransactionEvent.hash("12345"));
+        assertNotEquals(randomKeyHash, TransactionEvent.hash("12346"));
+
+        TransactionEvent.useHashKey("shared-secret");
+        long sharedKeyHash = TransactionEvent.hash("12345");
+        TransactionEvent.useHashKey("another-secret");
+
+        assertNotEquals(randomKeyHash, sharedKeyHash);
+        assertNotEquals(sharedKeyHash, TransactionEvent.hash("12345"));
+        assertEquals(0, TransactionEvent.hash(null));
+    }
+
+    @Test
+    void testBuckets() {
+        assertEquals("none", TransactionEvent.bucket(null));
+        assertEquals("<10", TransactionEvent.bucket(new BigDecimal("9.99")));
+        assertEquals("1k-10k", TransactionEvent.bucket(BigDecimal.valueOf(1_000)));
+        assertEquals(">=100k", TransactionEvent.bucket(BigDecimal.valueOf(5_000_000)));
+    }
+}
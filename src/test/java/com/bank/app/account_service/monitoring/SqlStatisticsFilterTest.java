@@ -0,0 +1,109 @@
+package com.bank.app.account_service.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlStatistics sqlStatistics;
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+    private final SqlSessionEventListener listener = new SqlSessionEventListener();
+    private final EntityLoadInterceptor interceptor = new EntityLoadInterceptor();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sqlStatistics = new SqlStatistics(meterRegistry, 3, Long.MAX_VALUE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStatisticsAreAggregatedPerEndpointPattern() throws Exception {
+        SqlStatisticsFilter filter = new SqlStatisticsFilter(sqlStatistics, Long.MAX_VALUE);
+
+        for (String accountNumber : List.of("12345", "67890")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/account/" + accountNumber);
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/account/{accountNumber}");
+                runStatement("select a from account a where a.account_number=?");
+                interceptor.onLoad(new Object(), 1L, null, null, null);
+                listener.flushEnd(1, 0);
+            });
+        }
+
+        Map<String, Object> endpoints = (Map<String, Object>) sqlStatistics.snapshot().get("endpoints");
+        Map<String, Object> stats = (Map<String, Object>) endpoints.get("GET /account/{accountNumber}");
+        assertEquals(2L, stats.get("requests"));
+        assertEquals(2L, stats.get("statements"));
+        assertEquals(2L, stats.get("entityLoads"));
+        assertEquals(2L, stats.get("flushes"));
+        assertEquals(2L, meterRegistry.get("account.sql.statements").tag("endpoint", "GET /account/{accountNumber}").summary().count());
+        assertNull(SqlRequestContext.current());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSlowQueriesAndStatementHeavyRequestsAreReported() throws Exception {
+        SqlStatisticsFilter filter = new SqlStatisticsFilter(sqlStatistics, 0);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/account/transactions");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/account/transactions");
+            for (int i = 0; i < 4; i++) {
+                runStatement("update account set balance=? where id=?");
+            }
+        });
+
+        Map<String, Object> snapshot = sqlStatistics.snapshot();
+        List<Map<String, Object>> slowQueries = (List<Map<String, Object>>) snapshot.get("recentSlowQueries");
+        assertEquals(4, slowQueries.size());
+        assertEquals(2, slowQueries.get(0).get("parameters"));
+        assertEquals("update account set balance=? where id=?", slowQueries.get(0).get("sql"));
+        assertEquals(1, ((List<?>) snapshot.get("recentExcessiveRequests")).size());
+        assertEquals(1.0, meterRegistry.get("account.sql.excessive.requests").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackgroundTasksAreTrackedUnderTheirName() {
+        sqlStatistics.trackTasks();
+
+        String result = SqlStatistics.trackTask("group-commit", () -> {
+            runStatement("update account set balance=? where id=?");
+            // Nested work is counted in the enclosing task.
+            SqlStatistics.runTask("outbox-relay", () -> runStatement("select o from outbox_events o"));
+            return "done";
+        });
+
+        assertEquals("done", result);
+        Map<String, Object> endpoints = (Map<String, Object>) sqlStatistics.snapshot().get("endpoints");
+        assertEquals(2L, ((Map<String, Object>) endpoints.get("TASK group-commit")).get("statements"));
+        assertFalse(endpoints.containsKey("TASK outbox-relay"));
+        assertNull(SqlRequestContext.current());
+    }
+
+    @Test
+    void testStatementsOutsideRequestsAreIgnored() {
+        assertEquals("select 1", inspector.inspect("select 1"));
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        assertTrue(((Map<?, ?>) sqlStatistics.snapshot().get("endpoints")).isEmpty());
+    }
+
+    private void runStatement(String sql) {
+        inspector.inspect(sql);
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+    }
+}
@@ -0,0 +1,135 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a single account from many threads to prove the atomic balance updates never lose a write.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountRepositoryConcurrencyTest {
+
+    private static final String ACCOUNT_NUMBER = "2024100001";
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentCreditsAreNotLost() throws Exception {
+        createAccount(BigDecimal.ZERO);
+        int creditsPerThread = 250;
+
+        runConcurrently(creditsPerThread, () ->
+                transactionTemplate.execute(status -> accountRepository.creditBalance(ACCOUNT_NUMBER, BigDecimal.ONE)));
+
+        BigDecimal expected = BigDecimal.valueOf((long) THREADS * creditsPerThread);
+        assertEquals(0, expected.compareTo(currentBalance()));
+    }
+
+    @Test
+    void testConcurrentDebitsNeverOverdraw() throws Exception {
+        createAccount(new BigDecimal("100.00"));
+        AtomicInteger succeeded = new AtomicInteger();
+
+        runConcurrently(10, () -> {
+            Integer rows = transactionTemplate.execute(status -> accountRepository.debitBalance(ACCOUNT_NUMBER, BigDecimal.TEN));
+            if (rows != null && rows == 1) {
+                succeeded.incrementAndGet();
+            }
+            return rows;
+        });
+
+        assertEquals(10, succeeded.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(currentBalance()));
+    }
+
+    @Test
+    void testMixedCreditsAndDebitsBalanceOut() throws Exception {
+        createAccount(new BigDecimal("1000.00"));
+
+        runConcurrently(200, () -> transactionTemplate.execute(status -> {
+            accountRepository.creditBalance(ACCOUNT_NUMBER, new BigDecimal("2.50"));
+            return accountRepository.debitBalance(ACCOUNT_NUMBER, new BigDecimal("2.50"));
+        }));
+
+        assertEquals(0, new BigDecimal("1000.00").compareTo(currentBalance()));
+    }
+
+    private void runConcurrently(int iterationsPerThread, Callable<?> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        operation.call();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private void createAccount(BigDecimal balance) {
+        accountRepository.save(Account.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountType("SAVINGS")
+                .balance(Money.of(balance))
+                .dateOpened(LocalDate.now())
+                .userId(1L)
+                .build());
+    }
+
+    private BigDecimal currentBalance() {
+        return accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow().getBalance().toBigDecimal();
+    }
+}
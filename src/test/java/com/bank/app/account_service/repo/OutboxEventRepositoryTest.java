@@ -0,0 +1,85 @@
+package com.bank.app.account_service.repo;
+
+import com.bank.app.account_service.entity.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that batched outbox inserts join the JPA transaction and keep their order.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxEventRepositoryTest {
+
+    private static final String KEY = "2024100001";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testInsertAllKeepsListOrder() {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.insertAll(events(0, 100)));
+
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+                outboxEventRepository.findBatchForPublishing(OutboxEvent.shardOf(KEY), PageRequest.of(0, 200)));
+
+        assertEquals(100, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals("{\"sequence\":" + i + "}", batch.get(i).getPayload());
+        }
+    }
+
+    @Test
+    void testInsertAllRollsBackWithTheTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.insertAll(events(0, 10));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    private static List<OutboxEvent> events(int first, int count) {
+        List<OutboxEvent> events = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            events.add(OutboxEvent.builder()
+                    .topic("transaction-service-topic")
+                    .messageKey(KEY)
+                    .shard(OutboxEvent.shardOf(KEY))
+                    .eventType("CREDIT")
+                    .payloadType(String.class.getName())
+                    .payload("{\"sequence\":" + i + "}")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private final AccountCache accountCache = new AccountCache(new ConcurrentMapCacheManager());
+
+    @Test
+    void testLoadedAccountIsCached() {
+        Account account = account("12345");
+
+        assertEquals(Optional.of(account), accountCache.getByAccountNumber("12345", number -> Optional.of(account)));
+        assertTrue(accountCache.containsAccountNumber("12345"));
+        assertFalse(accountCache.getByAccountNumber("54321", number -> Optional.empty()).isPresent());
+        assertFalse(accountCache.containsAccountNumber("54321"));
+    }
+
+    @Test
+    void testAccountLoadedBeforeAnInvalidationIsNotCached() {
+        Account stale = account("12345");
+
+        Optional<Account> loaded = accountCache.getByAccountNumber("12345", number -> {
+            // A writer commits and invalidates the account while the previous state is being loaded.
+            accountCache.evict(account("12345"));
+            return Optional.of(stale);
+        });
+
+        assertEquals(Optional.of(stale), loaded);
+        assertFalse(accountCache.containsAccountNumber("12345"));
+        Account fresh = account("12345");
+        assertSame(fresh, accountCache.getByAccountNumber("12345", number -> Optional.of(fresh)).orElseThrow());
+        assertTrue(accountCache.containsAccountNumber("12345"));
+    }
+
+    private static Account account(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        return account;
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.OutboxEvent;
+import com.bank.app.account_service.repo.OutboxEventRepository;
+import com.bank.core.entity.TransactionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class AccountEventProducerTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @InjectMocks
+    private AccountEventProducer accountEventProducer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSendWithdrawOrCreditBalanceMessageWritesOutbox() throws Exception {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        request.setAmount(new BigDecimal("10.00"));
+
+        accountEventProducer.sendWithdrawOrCreditBalanceMessage("CREDIT", request);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        OutboxEvent event = captor.getValue();
+        assertEquals("transaction-service-topic", event.getTopic());
+        assertEquals("12345", event.getMessageKey());
+        assertEquals("CREDIT", event.getEventType());
+        assertEquals(TransactionRequest.class.getName(), event.getPayloadType());
+        TransactionRequest payload = objectMapper.readValue(event.getPayload(), TransactionRequest.class);
+        assertEquals("12345", payload.getAccountNumber());
+        assertEquals(new BigDecimal("10.00"), payload.getAmount());
+    }
+
+    @Test
+    void testSendAccountCreatedMessageWritesOutbox() {
+        Account account = new Account();
+        account.setAccountNumber("2024123456");
+        account.setBalance(Money.ZERO);
+        account.setDateOpened(LocalDate.now());
+
+        accountEventProducer.sendAccountCreatedMessage(account);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        assertEquals("account-service-topic", captor.getValue().getTopic());
+        assertEquals("2024123456", captor.getValue().getMessageKey());
+        assertEquals("Open", captor.getValue().getEventType());
+    }
+
+    @Test
+    void testBatchOfMessagesIsOneBatchedInsert() {
+        TransactionRequest first = new TransactionRequest();
+        first.setAccountNumber("12345");
+        TransactionRequest second = new TransactionRequest();
+        second.setAccountNumber("67890");
+
+        accountEventProducer.sendWithdrawOrCreditBalanceMessages(List.of(first, second));
+
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository, times(1)).insertAll(captor.capture());
+        verify(outboxEventRepository, never()).save(any());
+        List<OutboxEvent> events = captor.getValue();
+        assertEquals(List.of("12345", "67890"), events.stream().map(OutboxEvent::getMessageKey).toList());
+        assertEquals(OutboxEvent.shardOf("67890"), events.get(1).getShard());
+    }
+}
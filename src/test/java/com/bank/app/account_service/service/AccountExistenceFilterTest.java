@@ -0,0 +1,123 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountExistenceFilterTest {
+
+    private static final int ACCOUNTS = 100_000;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testEveryLoadedAccountIsReportedAndMostUnknownOnesAreNot() {
+        AccountExistenceFilter filter = newFilter(60_000);
+        when(accountRepository.streamAccountNumbersAfter(0L)).thenReturn(accounts(1, ACCOUNTS));
+        filter.build();
+
+        for (long i = 1; i <= ACCOUNTS; i++) {
+            assertTrue(filter.mightExist(accountNumber(i)));
+        }
+        int falsePositives = 0;
+        for (long i = ACCOUNTS + 1; i <= 2L * ACCOUNTS; i++) {
+            if (filter.mightExist(accountNumber(i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < ACCOUNTS * 0.02, "false positives: " + falsePositives);
+        assertTrue(meterRegistry.get("account.filter.memory").gauge().value() > 0);
+        assertEquals(0.01, meterRegistry.get("account.filter.expected.false.positive.rate").gauge().value(), 0.005);
+    }
+
+    @Test
+    void testAddedAccountIsFoundImmediately() {
+        AccountExistenceFilter filter = newFilter(60_000);
+        when(accountRepository.streamAccountNumbersAfter(0L)).thenReturn(Stream.empty());
+        filter.build();
+
+        assertFalse(filter.mightExist("2024123456"));
+        filter.add("2024123456");
+        assertTrue(filter.mightExist("2024123456"));
+    }
+
+    @Test
+    void testReinsertedAccountsDoNotRaiseTheExpectedFalsePositiveRate() {
+        AccountExistenceFilter filter = newFilter(60_000);
+        when(accountRepository.streamAccountNumbersAfter(0L)).thenReturn(accounts(1, ACCOUNTS / 2));
+        filter.build();
+        double expected = meterRegistry.get("account.filter.expected.false.positive.rate").gauge().value();
+
+        // The catch-up overlap and repeated opens add accounts the filter already holds.
+        for (long i = 1; i <= ACCOUNTS / 2; i++) {
+            filter.add(accountNumber(i));
+        }
+
+        assertEquals(expected, meterRegistry.get("account.filter.expected.false.positive.rate").gauge().value());
+    }
+
+    @Test
+    void testStaleFilterCatchesUpBeforeAnsweringNo() {
+        AccountExistenceFilter filter = newFilter(0);
+        when(accountRepository.streamAccountNumbersAfter(anyLong()))
+                .thenReturn(accounts(1, 10))
+                .thenReturn(accounts(11, 11));
+        filter.build();
+
+        // Account 11 was opened on another instance after the build.
+        assertTrue(filter.mightExist(accountNumber(11)));
+        verify(accountRepository, times(2)).streamAccountNumbersAfter(anyLong());
+    }
+
+    @Test
+    void testEverythingMightExistUntilBuilt() {
+        AccountExistenceFilter filter = newFilter(60_000);
+
+        assertTrue(filter.mightExist("2024123456"));
+        verifyNoInteractions(accountRepository);
+    }
+
+    private AccountExistenceFilter newFilter(long maxStalenessMillis) {
+        return new AccountExistenceFilter(accountRepository, transactionManager, meterRegistry, ACCOUNTS, 0.01, maxStalenessMillis, 0);
+    }
+
+    private Stream<AccountRepository.AccountNumberView> accounts(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId).mapToObj(id -> new AccountRepository.AccountNumberView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getAccountNumber() {
+                return accountNumber(id);
+            }
+        });
+    }
+
+    private static String accountNumber(long id) {
+        return String.valueOf(2024000000L + id);
+    }
+}
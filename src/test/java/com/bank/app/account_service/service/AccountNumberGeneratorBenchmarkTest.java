@@ -0,0 +1,159 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.repo.AccountNumberBlockRepository;
+import com.bank.app.account_service.repo.AccountRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares account opening throughput of the random and block generators with 1,000,000 accounts already
+ * in the table, 600,000 of them issued by the random generator this year.
+ * Run with {@code mvn test -Pbenchmark -Dtest=AccountNumberGeneratorBenchmarkTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccountNumberGeneratorBenchmarkTest {
+
+    private static final int EXISTING_ACCOUNTS = 1_000_000;
+    private static final int EXISTING_THIS_YEAR = 600_000;
+    private static final int THREADS = 8;
+    private static final int OPENS_PER_THREAD = 2_500;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountNumberBlockRepository blockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedAccounts() {
+        accountRepository.deleteAll();
+        int year = LocalDate.now().getYear();
+        Random random = new Random(42);
+        // Distinct numbers of this year: a random permutation prefix of the 900,000 six-digit suffixes.
+        int[] suffixes = new int[900_000];
+        for (int i = 0; i < suffixes.length; i++) {
+            suffixes[i] = 100000 + i;
+        }
+        for (int i = 0; i < EXISTING_THIS_YEAR; i++) {
+            int j = i + random.nextInt(suffixes.length - i);
+            int swap = suffixes[i];
+            suffixes[i] = suffixes[j];
+            suffixes[j] = swap;
+        }
+
+        List<Object[]> batch = new ArrayList<>(10_000);
+        Date opened = Date.valueOf(LocalDate.now());
+        for (int i = 0; i < EXISTING_ACCOUNTS; i++) {
+            String accountNumber = i < EXISTING_THIS_YEAR
+                    ? String.valueOf(year) + suffixes[i]
+                    : String.valueOf(year - 1 - i % 5) + (100000 + i % 900_000);
+            batch.add(new Object[]{accountNumber, "SAVINGS", BigDecimal.ZERO, opened});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    @Test
+    void randomGenerator() throws Exception {
+        AtomicLong existenceChecks = new AtomicLong();
+        RandomAccountNumberGenerator generator = new RandomAccountNumberGenerator(candidate -> {
+            existenceChecks.incrementAndGet();
+            return accountRepository.existsByAccountNumber(candidate);
+        }, 10);
+        run("random", generator, existenceChecks);
+    }
+
+    @Test
+    void blockGenerator() throws Exception {
+        run("block", new BlockAccountNumberGenerator(blockRepository, transactionManager, 1000, true), new AtomicLong());
+    }
+
+    private void run(String name, AccountNumberGenerator generator, AtomicLong existenceChecks) throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPENS_PER_THREAD; i++) {
+                    try {
+                        accountRepository.save(Account.builder()
+                                .accountNumber(generator.nextAccountNumber())
+                                .accountType("SAVINGS")
+                                .balance(Money.ZERO)
+                                .dateOpened(LocalDate.now())
+                                .build());
+                        opened.incrementAndGet();
+                    } catch (IllegalStateException | DataIntegrityViolationException e) {
+                        // Out of attempts, or two threads drew the same free number.
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        assertEquals(THREADS * OPENS_PER_THREAD, opened.get() + failed.get());
+        System.out.printf("generator=%s existing=%d opened=%d failed=%d throughput=%.0f/s existenceChecksPerOpen=%.2f%n",
+                name, EXISTING_ACCOUNTS, opened.get(), failed.get(),
+                opened.get() / (elapsedNanos / 1_000_000_000.0),
+                opened.get() == 0 ? 0.0 : (double) existenceChecks.get() / opened.get());
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into account (account_number, account_type, balance, date_opened) values (?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
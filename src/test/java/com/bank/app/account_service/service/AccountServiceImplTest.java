@@ -1,22 +1,32 @@
 package com.bank.app.account_service.service;
 
+import com.bank.app.account_service.dto.TransactionResult;
 import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
 import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
 import com.bank.app.account_service.exception.AccountNotFoundException;
 import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.app.account_service.repo.AccountBalanceSlotRepository;
 import com.bank.app.account_service.repo.AccountRepository;
 import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
 import com.bank.app.account_service.service.impl.AccountServiceImpl;
 import com.bank.core.entity.TransactionRequest;
 import com.bank.core.entity.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,15 +39,38 @@ class AccountServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransferJournalRepository transferJournalRepository;
+
+    @Mock
+    private AccountBalanceSlotRepository accountBalanceSlotRepository;
+
     @Mock
     private AccountEventProducer accountEventProducer;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
+    private AccountCache accountCache;
+
+    private AccountExistenceFilter accountExistenceFilter;
+
     private AccountServiceImpl accountService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        TransferEngine transferEngine = new TransferEngine(accountRepository, transactionManager, new SimpleMeterRegistry(), 3, 0);
+        accountCache = new AccountCache(new ConcurrentMapCacheManager());
+        accountExistenceFilter = new AccountExistenceFilter(accountRepository, transactionManager, new SimpleMeterRegistry(), 1000, 0.01, 60_000, 0);
+        accountService = new AccountServiceImpl(accountRepository, transactionRepository, transferJournalRepository, accountEventProducer, transferEngine, accountCache, accountExistenceFilter, accountNumberGenerator, new TransactionMetrics(meterRegistry),
+                new HotAccountBalances(accountRepository, accountBalanceSlotRepository, transactionManager, new SimpleMeterRegistry(), 64, 60_000));
     }
 
     /**
@@ -49,6 +82,7 @@ class AccountServiceImplTest {
         // Arrange
         Account account = new Account();
         account.setUserId(1L);
+        when(accountNumberGenerator.nextAccountNumber()).thenReturn("100000000008");
         when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
             Account savedAccount = invocation.getArgument(0);
             savedAccount.setId(1L);
@@ -60,7 +94,8 @@ class AccountServiceImplTest {
 
         // Assert
         assertNotNull(createdAccount.getId());
-        assertEquals(BigDecimal.ZERO, createdAccount.getBalance());
+        assertEquals(Money.ZERO, createdAccount.getBalance());
+        assertEquals("100000000008", createdAccount.getAccountNumber());
         verify(accountRepository, times(1)).save(any(Account.class));
         verify(accountEventProducer, times(1)).sendAccountCreatedMessage(createdAccount);
     }
@@ -95,8 +130,9 @@ class AccountServiceImplTest {
 
         Account account = new Account();
         account.setAccountNumber("12345");
-        account.setBalance(new BigDecimal("200.00"));
+        account.setBalance(Money.parse("300.00"));
 
+        when(accountRepository.creditBalance("12345", new BigDecimal("100.00"))).thenReturn(1);
         when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
 
         // Act
@@ -104,9 +140,34 @@ class AccountServiceImplTest {
 
         // Assert
         assertEquals("Transaction successful", result);
-        assertEquals(new BigDecimal("300.00"), account.getBalance());
-        verify(accountRepository, times(1)).save(account);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(accountRepository, times(1)).creditBalance("12345", new BigDecimal("100.00"));
+        verify(accountRepository, never()).save(any(Account.class));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(Money.parse("300.00"), captor.getValue().getBalanceAfterTransaction());
+    }
+
+    @Test
+    void testProcessTransactionRecordsStageTimersAndOutcome() {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        request.setType(TransactionType.CREDIT);
+        request.setAmount(new BigDecimal("100.00"));
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        account.setBalance(Money.parse("100.00"));
+        when(accountRepository.creditBalance("12345", new BigDecimal("100.00"))).thenReturn(1);
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+
+        accountService.processTransaction(request);
+
+        for (String stage : List.of(TransactionMetrics.BALANCE_UPDATE, TransactionMetrics.ACCOUNT_LOAD,
+                TransactionMetrics.TRANSACTION_INSERT, TransactionMetrics.EVENT_PUBLISH)) {
+            assertEquals(1L, meterRegistry.get("account.transaction.stage")
+                    .tags("operation", TransactionMetrics.CREDIT, "stage", stage).timer().count());
+        }
+        assertEquals(1.0, meterRegistry.get("account.transaction.outcome")
+                .tags("operation", TransactionMetrics.CREDIT, "outcome", TransactionMetrics.SUCCESS).counter().count());
     }
 
     /**
@@ -122,8 +183,9 @@ class AccountServiceImplTest {
 
         Account account = new Account();
         account.setAccountNumber("12345");
-        account.setBalance(new BigDecimal("200.00"));
+        account.setBalance(Money.parse("150.00"));
 
+        when(accountRepository.debitBalance("12345", new BigDecimal("50.00"))).thenReturn(1);
         when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
 
         // Act
@@ -131,9 +193,11 @@ class AccountServiceImplTest {
 
         // Assert
         assertEquals("Transaction successful", result);
-        assertEquals(new BigDecimal("150.00"), account.getBalance());
-        verify(accountRepository, times(1)).save(account);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(accountRepository, times(1)).debitBalance("12345", new BigDecimal("50.00"));
+        verify(accountRepository, never()).save(any(Account.class));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(Money.parse("150.00"), captor.getValue().getBalanceAfterTransaction());
     }
 
     /**
@@ -147,16 +211,104 @@ class AccountServiceImplTest {
         request.setType(TransactionType.valueOf("WITHDRAW"));
         request.setAmount(new BigDecimal("300.00"));
 
-        Account account = new Account();
-        account.setAccountNumber("12345");
-        account.setBalance(new BigDecimal("200.00"));
-
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(accountRepository.debitBalance("12345", new BigDecimal("300.00"))).thenReturn(0);
+        when(accountRepository.existsByAccountNumber("12345")).thenReturn(true);
 
         // Act & Assert
         InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
                 () -> accountService.processTransaction(request));
         assertEquals("Insufficient funds", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        assertEquals(1.0, meterRegistry.get("account.transaction.outcome")
+                .tags("operation", TransactionMetrics.WITHDRAW, "outcome", TransactionMetrics.INSUFFICIENT_FUNDS).counter().count());
+    }
+
+    /**
+     * Test for a transaction on an account that does not exist.
+     */
+    @Test
+    void testProcessTransaction_AccountNotFound() {
+        // Arrange
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        request.setType(TransactionType.valueOf("CREDIT"));
+        request.setAmount(new BigDecimal("10.00"));
+
+        when(accountRepository.creditBalance("12345", new BigDecimal("10.00"))).thenReturn(0);
+        when(accountRepository.existsByAccountNumber("12345")).thenReturn(false);
+
+        // Act & Assert
+        AccountNotFoundException exception = assertThrows(AccountNotFoundException.class,
+                () -> accountService.processTransaction(request));
+        assertEquals("Account not found", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    /**
+     * Test that account lookups are served from the cache after the first load.
+     */
+    @Test
+    void testGetAccountByAccountNumberIsCached() {
+        // Arrange
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+
+        // Act
+        accountService.getAccountByAccountNumber("12345");
+        Account cached = accountService.getAccountByAccountNumber("12345");
+        accountService.validateAccountExists("12345");
+
+        // Assert
+        assertSame(account, cached);
+        verify(accountRepository, times(1)).findByAccountNumber("12345");
+        verify(accountRepository, never()).existsByAccountNumber("12345");
+    }
+
+    @Test
+    void testGetAccountByAccountNumberSumsBalanceSlots() {
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        account.setBalance(Money.parse("70.00"));
+        when(accountBalanceSlotRepository.countSlotRows()).thenReturn(List.of(slotRows("12345", 3)));
+        when(accountBalanceSlotRepository.sumBalances("12345")).thenReturn(new BigDecimal("30.00"));
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+
+        Account result = accountService.getAccountByAccountNumber("12345");
+
+        assertEquals(Money.parse("100.00"), result.getBalance());
+        assertEquals(Money.parse("70.00"), account.getBalance());
+    }
+
+    /**
+     * Test that a transaction invalidates the cached account and the user's account list.
+     */
+    @Test
+    void testProcessTransactionEvictsCachedAccount() {
+        // Arrange
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        account.setUserId(7L);
+        account.setBalance(Money.parse("110.00"));
+        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(account));
+        when(accountRepository.findByUserId(7L)).thenReturn(List.of(account));
+        when(accountRepository.creditBalance("12345", BigDecimal.TEN)).thenReturn(1);
+        accountService.getAccountByAccountNumber("12345");
+        accountService.getAccountsByUserId(7L);
+
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        request.setType(TransactionType.valueOf("CREDIT"));
+        request.setAmount(BigDecimal.TEN);
+
+        // Act
+        accountService.processTransaction(request);
+        accountService.getAccountByAccountNumber("12345");
+        accountService.getAccountsByUserId(7L);
+
+        // Assert
+        verify(accountRepository, times(3)).findByAccountNumber("12345");
+        verify(accountRepository, times(2)).findByUserId(7L);
     }
 
     /**
@@ -174,6 +326,20 @@ class AccountServiceImplTest {
         assertEquals("Account not found: 12345", exception.getMessage());
     }
 
+    /**
+     * Test that a definite miss in the account number filter is answered without a database query.
+     */
+    @Test
+    void testValidateAccountExists_FilterNegativeSkipsDatabase() {
+        // Arrange
+        when(accountRepository.streamAccountNumbersAfter(anyLong())).thenReturn(Stream.empty());
+        accountExistenceFilter.build();
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> accountService.validateAccountExists("99999"));
+        verify(accountRepository, never()).existsByAccountNumber("99999");
+    }
+
     @Test
     void testProcessTransactions_Success() {
         TransactionRequest request = new TransactionRequest();
@@ -183,28 +349,47 @@ class AccountServiceImplTest {
 
         Account fromAccount = new Account();
         fromAccount.setAccountNumber("12345");
-        fromAccount.setBalance(new BigDecimal("200.00"));
+        fromAccount.setBalance(Money.parse("200.00"));
         fromAccount.setUserName("John Doe");
         fromAccount.setEmail("john.doe@example.com");
 
         Account toAccount = new Account();
         toAccount.setAccountNumber("67890");
-        toAccount.setBalance(new BigDecimal("50.00"));
+        toAccount.setBalance(Money.parse("50.00"));
         toAccount.setUserName("Jane Doe");
         toAccount.setEmail("jane.doe@example.com");
 
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(fromAccount));
-        when(accountRepository.findByAccountNumber("67890")).thenReturn(Optional.of(toAccount));
+        when(accountRepository.findByAccountNumberForUpdate("12345")).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findByAccountNumberForUpdate("67890")).thenReturn(Optional.of(toAccount));
 
         String result = accountService.processTransactions(request);
 
         assertEquals("Transaction successful: 100.00 transferred from 12345 to 67890", result);
         verify(accountRepository, times(1)).save(fromAccount);
         verify(accountRepository, times(1)).save(toAccount);
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        ArgumentCaptor<TransferJournal> transfer = ArgumentCaptor.forClass(TransferJournal.class);
+        verify(transferJournalRepository).save(transfer.capture());
+        assertEquals("12345", transfer.getValue().getFromAccountNumber());
+        assertEquals("67890", transfer.getValue().getToAccountNumber());
+        assertEquals(Money.parse("100.00"), transfer.getValue().getAmount());
+        assertEquals(Money.parse("100.00"), transfer.getValue().getFromBalanceAfter());
+        assertEquals(Money.parse("150.00"), transfer.getValue().getToBalanceAfter());
         verify(accountEventProducer, times(2)).sendWithdrawOrCreditBalanceMessage(anyString(), any(TransactionRequest.class));
     }
 
+    @Test
+    void testProcessTransactions_SameAccountIsRejected() {
+        TransactionRequest request = new TransactionRequest();
+        request.setFromAccount("12345");
+        request.setToAccount("12345");
+        request.setAmount(new BigDecimal("100.00"));
+
+        assertThrows(IllegalArgumentException.class, () -> accountService.processTransactions(request));
+
+        verifyNoInteractions(accountRepository, transferJournalRepository);
+    }
+
     @Test
     void testProcessTransactions_AccountNotFoundException_FromAccount() {
         TransactionRequest request = new TransactionRequest();
@@ -212,7 +397,7 @@ class AccountServiceImplTest {
         request.setToAccount("67890");
         request.setAmount(new BigDecimal("100.00"));
 
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.empty());
+        when(accountRepository.findByAccountNumberForUpdate("12345")).thenReturn(Optional.empty());
 
         AccountNotFoundException exception = assertThrows(AccountNotFoundException.class, () -> {
             accountService.processTransactions(request);
@@ -221,6 +406,7 @@ class AccountServiceImplTest {
         assertEquals("Invalid from account No: 12345", exception.getMessage());
         verify(accountRepository, times(0)).save(any(Account.class));
         verify(transactionRepository, times(0)).save(any(Transaction.class));
+        verify(transferJournalRepository, never()).save(any(TransferJournal.class));
         verify(accountEventProducer, times(0)).sendWithdrawOrCreditBalanceMessage(anyString(), any(TransactionRequest.class));
     }
 
@@ -233,10 +419,10 @@ class AccountServiceImplTest {
 
         Account fromAccount = new Account();
         fromAccount.setAccountNumber("12345");
-        fromAccount.setBalance(new BigDecimal("200.00"));
+        fromAccount.setBalance(Money.parse("200.00"));
 
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(fromAccount));
-        when(accountRepository.findByAccountNumber("67890")).thenReturn(Optional.empty());
+        when(accountRepository.findByAccountNumberForUpdate("12345")).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findByAccountNumberForUpdate("67890")).thenReturn(Optional.empty());
 
         AccountNotFoundException exception = assertThrows(AccountNotFoundException.class, () -> {
             accountService.processTransactions(request);
@@ -245,6 +431,7 @@ class AccountServiceImplTest {
         assertEquals("Invalid Beneficiary account No: 67890", exception.getMessage());
         verify(accountRepository, times(0)).save(any(Account.class));
         verify(transactionRepository, times(0)).save(any(Transaction.class));
+        verify(transferJournalRepository, never()).save(any(TransferJournal.class));
         verify(accountEventProducer, times(0)).sendWithdrawOrCreditBalanceMessage(anyString(), any(TransactionRequest.class));
     }
 
@@ -257,9 +444,9 @@ class AccountServiceImplTest {
 
         Account fromAccount = new Account();
         fromAccount.setAccountNumber("12345");
-        fromAccount.setBalance(new BigDecimal("200.00"));
+        fromAccount.setBalance(Money.parse("200.00"));
 
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.findByAccountNumberForUpdate("12345")).thenReturn(Optional.of(fromAccount));
 
         InsufficientFundsException exception = assertThrows(InsufficientFundsException.class, () -> {
             accountService.processTransactions(request);
@@ -268,6 +455,129 @@ class AccountServiceImplTest {
         assertEquals("Insufficient funds in account: 12345", exception.getMessage());
         verify(accountRepository, times(0)).save(any(Account.class));
         verify(transactionRepository, times(0)).save(any(Transaction.class));
+        verify(transferJournalRepository, never()).save(any(TransferJournal.class));
         verify(accountEventProducer, times(0)).sendWithdrawOrCreditBalanceMessage(anyString(), any(TransactionRequest.class));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessTransactionBatch_ReportsEachItem() {
+        Account first = new Account();
+        first.setAccountNumber("12345");
+        first.setBalance(Money.parse("100.00"));
+        Account second = new Account();
+        second.setAccountNumber("67890");
+        second.setBalance(Money.parse("10.00"));
+        when(accountRepository.findAllByAccountNumberForUpdate(anyCollection())).thenReturn(List.of(first, second));
+
+        List<TransactionResult> results = accountService.processTransactionBatch(List.of(
+                batchItem("12345", TransactionType.CREDIT, "50.00"),
+                batchItem("67890", TransactionType.WITHDRAW, "20.00"),
+                batchItem("12345", TransactionType.WITHDRAW, "150.00"),
+                batchItem("99999", TransactionType.CREDIT, "5.00"),
+                batchItem("67890", TransactionType.CREDIT, "-1.00")));
+
+        assertEquals(5, results.size());
+        assertEquals(TransactionResult.Status.SUCCESS, results.get(0).getStatus());
+        assertEquals(Money.parse("150.00"), results.get(0).getBalanceAfterTransaction());
+        assertEquals(TransactionResult.Status.INSUFFICIENT_FUNDS, results.get(1).getStatus());
+        assertEquals(TransactionResult.Status.SUCCESS, results.get(2).getStatus());
+        assertEquals(Money.parse("0.00"), first.getBalance());
+        assertEquals(TransactionResult.Status.ACCOUNT_NOT_FOUND, results.get(3).getStatus());
+        assertEquals(TransactionResult.Status.INVALID_REQUEST, results.get(4).getStatus());
+        assertEquals(Money.parse("10.00"), second.getBalance());
+
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        verify(accountEventProducer).sendWithdrawOrCreditBalanceMessages(argThat(events -> events.size() == 2));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testProcessTransactionBatch_ReportsBalanceIncludingSlots() {
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        account.setBalance(Money.parse("70.00"));
+        when(accountBalanceSlotRepository.countSlotRows()).thenReturn(List.of(slotRows("12345", 3)));
+        when(accountBalanceSlotRepository.sumBalances("12345")).thenReturn(new BigDecimal("30.00"));
+        when(accountRepository.findAllByAccountNumberForUpdate(anyCollection())).thenReturn(List.of(account));
+
+        List<TransactionResult> results = accountService.processTransactionBatch(List.of(
+                batchItem("12345", TransactionType.CREDIT, "5.00")));
+
+        assertEquals(Money.parse("105.00"), results.get(0).getBalanceAfterTransaction());
+        assertEquals(Money.parse("75.00"), account.getBalance());
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(Money.parse("105.00"), saved.getValue().get(0).getBalanceAfterTransaction());
+        verify(accountEventProducer).sendWithdrawOrCreditBalanceMessages(argThat(events ->
+                events.get(0).getBalanceAfterTransaction().compareTo(new BigDecimal("105.00")) == 0));
+    }
+
+    @Test
+    void testProcessTransactionBatch_LocksAccountsOnceInSortedOrder() {
+        when(accountRepository.findAllByAccountNumberForUpdate(anyCollection())).thenReturn(List.of());
+
+        accountService.processTransactionBatch(List.of(
+                batchItem("67890", TransactionType.CREDIT, "1.00"),
+                batchItem("12345", TransactionType.CREDIT, "1.00"),
+                batchItem("67890", TransactionType.CREDIT, "1.00")));
+
+        verify(accountRepository).findAllByAccountNumberForUpdate(List.of("12345", "67890"));
+        verify(accountEventProducer, never()).sendWithdrawOrCreditBalanceMessages(anyList());
+    }
+
+    @Test
+    void testProcessTransaction_RejectsSubCentAmount() {
+        TransactionRequest request = batchItem("12345", TransactionType.CREDIT, "10.005");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> accountService.processTransaction(request));
+
+        assertEquals("Amount must have at most 2 decimal places", exception.getMessage());
+        verify(accountRepository, never()).creditBalance(anyString(), any(BigDecimal.class));
+        assertEquals(1.0, meterRegistry.get("account.transaction.outcome")
+                .tags("operation", TransactionMetrics.CREDIT, "outcome", TransactionMetrics.INVALID_AMOUNT).counter().count());
+    }
+
+    @Test
+    void testProcessTransactionBatch_RejectsSubCentAmount() {
+        Account account = new Account();
+        account.setAccountNumber("12345");
+        account.setBalance(Money.parse("100.00"));
+        when(accountRepository.findAllByAccountNumberForUpdate(anyCollection())).thenReturn(List.of(account));
+
+        List<TransactionResult> results = accountService.processTransactionBatch(List.of(
+                batchItem("12345", TransactionType.CREDIT, "0.001"),
+                batchItem("12345", TransactionType.CREDIT, "0.010")));
+
+        assertEquals(TransactionResult.Status.INVALID_REQUEST, results.get(0).getStatus());
+        assertEquals(TransactionResult.Status.SUCCESS, results.get(1).getStatus());
+        assertEquals(Money.ofMinor(10_001), account.getBalance());
+        assertEquals(1.0, meterRegistry.get("account.transaction.outcome")
+                .tags("operation", TransactionMetrics.CREDIT, "outcome", TransactionMetrics.INVALID_AMOUNT).counter().count());
+    }
+
+    private static TransactionRequest batchItem(String accountNumber, TransactionType type, String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        request.setType(type);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private static AccountBalanceSlotRepository.SlotRowsView slotRows(String accountNumber, long rows) {
+        return new AccountBalanceSlotRepository.SlotRowsView() {
+            @Override
+            public String getAccountNumber() {
+                return accountNumber;
+            }
+
+            @Override
+            public long getSlotRows() {
+                return rows;
+            }
+        };
+    }
 }
@@ -0,0 +1,209 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionSubmission;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AsyncTransactionSubmitterTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccountEventProducer accountEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private GroupCommitter groupCommitter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncTransactionSubmitter submitter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (submitter != null) {
+            submitter.stop();
+        }
+    }
+
+    @Test
+    void testSubmissionReturnsPendingAndRecordsTheOutcome() throws Exception {
+        when(accountService.processTransaction(any(TransactionRequest.class))).thenReturn("Transaction successful");
+        submitter = submitter(4, 100, false);
+
+        TransactionSubmission pending = submitter.submitTransaction(request(TransactionType.CREDIT, "10.00"));
+
+        assertEquals(TransactionSubmission.State.PENDING, pending.getState());
+        assertEquals("credit", pending.getOperation());
+        TransactionSubmission completed = awaitCompletion(pending.getTransactionId());
+        assertEquals(TransactionSubmission.State.SUCCEEDED, completed.getState());
+        assertEquals("Transaction successful", completed.getMessage());
+        assertNotNull(completed.getCompletedAt());
+        verify(accountService).validateAccountExists("12345");
+        verifyNoInteractions(accountEventProducer);
+    }
+
+    @Test
+    void testCreditsGoThroughGroupCommitWhenEnabled() throws Exception {
+        when(groupCommitter.process(any(TransactionRequest.class))).thenReturn("Transaction successful");
+        submitter = new AsyncTransactionSubmitter(accountService, Optional.of(groupCommitter), accountEventProducer, transactionManager,
+                meterRegistry, 4, 100, 3600, 10_000, false, 0);
+
+        TransactionSubmission pending = submitter.submitTransaction(request(TransactionType.CREDIT, "10.00"));
+
+        assertEquals(TransactionSubmission.State.SUCCEEDED, awaitCompletion(pending.getTransactionId()).getState());
+        verify(groupCommitter).process(any(TransactionRequest.class));
+        verify(accountService, never()).processTransaction(any());
+    }
+
+    @Test
+    void testBusinessFailureIsReportedAsRejected() throws Exception {
+        when(accountService.processTransaction(any(TransactionRequest.class))).thenThrow(new InsufficientFundsException("Insufficient funds"));
+        submitter = submitter(4, 100, false);
+
+        TransactionSubmission pending = submitter.submitTransaction(request(TransactionType.WITHDRAW, "10.00"));
+
+        TransactionSubmission completed = awaitCompletion(pending.getTransactionId());
+        assertEquals(TransactionSubmission.State.REJECTED, completed.getState());
+        assertEquals("Insufficient funds", completed.getMessage());
+        assertEquals(1.0, meterRegistry.get("account.async.completed").tag("state", "rejected").counter().count());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejectedBeforeQueueing() {
+        submitter = submitter(4, 100, false);
+        doThrow(new AccountNotFoundException("Account not found: 12345")).when(accountService).validateAccountExists("12345");
+
+        assertThrows(IllegalArgumentException.class, () -> submitter.submitTransaction(request(null, "10.00")));
+        assertThrows(IllegalArgumentException.class, () -> submitter.submitTransaction(request(TransactionType.CREDIT, "-1.00")));
+        assertThrows(IllegalArgumentException.class, () -> submitter.submitTransaction(request(TransactionType.CREDIT, "0.001")));
+        assertThrows(AccountNotFoundException.class, () -> submitter.submitTransaction(request(TransactionType.CREDIT, "10.00")));
+        TransactionRequest transfer = request(null, "10.00");
+        transfer.setFromAccount("12345");
+        transfer.setToAccount("12345");
+        assertThrows(IllegalArgumentException.class, () -> submitter.submitTransfer(transfer));
+
+        verify(accountService, never()).processTransaction(any());
+        verify(accountService, never()).processTransactions(any());
+    }
+
+    @Test
+    void testFullQueueRejectsSubmissions() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(accountService.processTransaction(any(TransactionRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "Transaction successful";
+        });
+        submitter = submitter(1, 1, false);
+
+        submitter.submitTransaction(request(TransactionType.CREDIT, "1.00"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        TransactionSubmission queued = submitter.submitTransaction(request(TransactionType.CREDIT, "1.00"));
+        assertEquals(1.0, meterRegistry.get("account.async.queue").gauge().value());
+
+        assertThrows(RejectedExecutionException.class, () -> submitter.submitTransaction(request(TransactionType.CREDIT, "1.00")));
+        assertEquals(1.0, meterRegistry.get("account.async.rejected").counter().count());
+
+        release.countDown();
+        assertEquals(TransactionSubmission.State.SUCCEEDED, awaitCompletion(queued.getTransactionId()).getState());
+    }
+
+    @Test
+    void testSubmissionsStillQueuedAtShutdownAreFailedAndPublished() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(accountService.processTransaction(any(TransactionRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "Transaction successful";
+        });
+        submitter = submitter(1, 10, true);
+        submitter.submitTransaction(request(TransactionType.CREDIT, "1.00"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        TransactionSubmission queued = submitter.submitTransaction(request(TransactionType.CREDIT, "2.00"));
+
+        submitter.stop();
+        release.countDown();
+
+        TransactionSubmission failed = submitter.status(queued.getTransactionId()).orElseThrow();
+        assertEquals(TransactionSubmission.State.FAILED, failed.getState());
+        assertEquals("Not processed before shutdown", failed.getMessage());
+        ArgumentCaptor<TransactionSubmission> captor = ArgumentCaptor.forClass(TransactionSubmission.class);
+        verify(accountEventProducer, atLeastOnce()).sendTransactionSubmissionResult(captor.capture());
+        assertTrue(captor.getAllValues().stream().anyMatch(result -> result.getTransactionId().equals(queued.getTransactionId())
+                && result.getState() == TransactionSubmission.State.FAILED));
+        verify(accountService).processTransaction(any(TransactionRequest.class));
+    }
+
+    @Test
+    void testTransferOutcomeIsPublishedWhenResultEventsAreEnabled() throws Exception {
+        when(accountService.processTransactions(any(TransactionRequest.class))).thenReturn("Transaction successful: 10.00 transferred from 12345 to 67890");
+        submitter = submitter(4, 100, true);
+        TransactionRequest transfer = request(null, "10.00");
+        transfer.setFromAccount("12345");
+        transfer.setToAccount("67890");
+
+        TransactionSubmission pending = submitter.submitTransfer(transfer);
+
+        ArgumentCaptor<TransactionSubmission> captor = ArgumentCaptor.forClass(TransactionSubmission.class);
+        verify(accountEventProducer, timeout(5000)).sendTransactionSubmissionResult(captor.capture());
+        assertEquals(pending.getTransactionId(), captor.getValue().getTransactionId());
+        assertEquals(TransactionSubmission.State.SUCCEEDED, captor.getValue().getState());
+        assertEquals("transfer", captor.getValue().getOperation());
+        assertEquals("12345", captor.getValue().getAccountNumber());
+    }
+
+    private AsyncTransactionSubmitter submitter(int threads, int queueCapacity, boolean resultEvents) {
+        return new AsyncTransactionSubmitter(accountService, Optional.empty(), accountEventProducer, transactionManager, meterRegistry,
+                threads, queueCapacity, 3600, 10_000, resultEvents, 0);
+    }
+
+    private TransactionSubmission awaitCompletion(String transactionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        TransactionSubmission submission = submitter.status(transactionId).orElseThrow();
+        while (submission.getState() == TransactionSubmission.State.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            submission = submitter.status(transactionId).orElseThrow();
+        }
+        return submission;
+    }
+
+    private static TransactionRequest request(TransactionType type, String amount) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        request.setType(type);
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.AccountNumberBlock;
+import com.bank.app.account_service.repo.AccountNumberBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BlockAccountNumberGeneratorTest {
+
+    @Mock
+    private AccountNumberBlockRepository blockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountNumberBlock counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        counter = new AccountNumberBlock(BlockAccountNumberGenerator.COUNTER_NAME, BlockAccountNumberGenerator.FIRST_VALUE);
+        when(blockRepository.findForUpdate(BlockAccountNumberGenerator.COUNTER_NAME)).thenReturn(Optional.of(counter));
+    }
+
+    @Test
+    void testNumbersComeFromLeasedBlocks() {
+        BlockAccountNumberGenerator generator = new BlockAccountNumberGenerator(blockRepository, transactionManager, 10, false);
+
+        for (int i = 0; i < 25; i++) {
+            assertEquals(String.valueOf(BlockAccountNumberGenerator.FIRST_VALUE + i), generator.nextAccountNumber());
+        }
+
+        verify(blockRepository, times(3)).findForUpdate(BlockAccountNumberGenerator.COUNTER_NAME);
+        assertEquals(BlockAccountNumberGenerator.FIRST_VALUE + 30, counter.getNextValue());
+    }
+
+    @Test
+    void testCounterIsCreatedOnFirstLease() {
+        when(blockRepository.findForUpdate(BlockAccountNumberGenerator.COUNTER_NAME)).thenReturn(Optional.empty());
+        when(blockRepository.saveAndFlush(any(AccountNumberBlock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        BlockAccountNumberGenerator generator = new BlockAccountNumberGenerator(blockRepository, transactionManager, 10, false);
+
+        assertEquals("10000000000", generator.nextAccountNumber());
+        verify(blockRepository).saveAndFlush(any(AccountNumberBlock.class));
+    }
+
+    @Test
+    void testCheckDigitIsAppendedAndValid() {
+        BlockAccountNumberGenerator generator = new BlockAccountNumberGenerator(blockRepository, transactionManager, 100, true);
+
+        for (int i = 0; i < 100; i++) {
+            String accountNumber = generator.nextAccountNumber();
+            assertEquals(12, accountNumber.length());
+            String payload = accountNumber.substring(0, accountNumber.length() - 1);
+            int checkDigit = accountNumber.charAt(accountNumber.length() - 1) - '0';
+            assertEquals(BlockAccountNumberGenerator.luhnCheckDigit(payload), checkDigit);
+        }
+        assertEquals(8, BlockAccountNumberGenerator.luhnCheckDigit("10000000000"));
+        assertEquals(3, BlockAccountNumberGenerator.luhnCheckDigit("7992739871"));
+    }
+
+    @Test
+    void testConcurrentCallersNeverReceiveTheSameNumber() throws Exception {
+        BlockAccountNumberGenerator generator = new BlockAccountNumberGenerator(blockRepository, transactionManager, 50, true);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(issued.add(generator.nextAccountNumber()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(8000, issued.size());
+        // 160 blocks were handed out, and the 161st was prefetched when the last one was half used.
+        verify(blockRepository, timeout(5000).times(161)).findForUpdate(BlockAccountNumberGenerator.COUNTER_NAME);
+    }
+
+    @Test
+    void testNextBlockIsLeasedAheadOnTheLeaseThread() {
+        Set<String> leaseThreads = ConcurrentHashMap.newKeySet();
+        when(blockRepository.findForUpdate(BlockAccountNumberGenerator.COUNTER_NAME)).thenAnswer(invocation -> {
+            leaseThreads.add(Thread.currentThread().getName());
+            return Optional.of(counter);
+        });
+        BlockAccountNumberGenerator generator = new BlockAccountNumberGenerator(blockRepository, transactionManager, 10, false);
+
+        for (int i = 0; i < 6; i++) {
+            generator.nextAccountNumber();
+        }
+
+        // Half of the first block is used, so the second one is leased before anyone needs it.
+        verify(blockRepository, timeout(5000).times(2)).save(counter);
+        assertEquals(BlockAccountNumberGenerator.FIRST_VALUE + 20, counter.getNextValue());
+        assertEquals(1, leaseThreads.size());
+        assertTrue(leaseThreads.iterator().next().startsWith("account-number-lease-"));
+        generator.stop();
+    }
+}
@@ -0,0 +1,162 @@
+package com.bank.app.account_service.service;
+
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks against a real broker, through the outbox and a multi-threaded relay, that keying by account number
+ * spreads transaction events over every partition and keeps the events of each account in order, while the
+ * legacy event type keys do not spread. The topic is created by the application's own topic definition.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.admin.auto-create=true",
+        "account.outbox.relay.enabled=true",
+        "account.outbox.relay.threads=4",
+        "account.outbox.relay.batch-size=50",
+        "account.kafka.topics.transaction.partitions=" + EventPartitioningKafkaTest.PARTITIONS
+})
+@EmbeddedKafka(partitions = EventPartitioningKafkaTest.PARTITIONS, topics = "account-service-topic")
+@ActiveProfiles("test")
+class EventPartitioningKafkaTest {
+
+    static final int PARTITIONS = 6;
+    private static final String TX_TOPIC = "transaction-service-topic";
+    private static final int ACCOUNTS = 300;
+    private static final int EVENTS_PER_ACCOUNT = 10;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private AccountEventProducer accountEventProducer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testAccountNumberKeysSpreadEvenlyAndKeepOrder() throws Exception {
+        long firstAccount = 2024100000L;
+        publish(firstAccount);
+        List<ConsumerRecord<String, String>> records = consume(firstAccount);
+
+        assertEquals(ACCOUNTS * EVENTS_PER_ACCOUNT, records.size());
+
+        int[] perPartition = new int[PARTITIONS];
+        Map<String, Integer> partitionOfAccount = new HashMap<>();
+        Map<String, Integer> lastSequence = new HashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            perPartition[record.partition()]++;
+            JsonNode event = objectMapper.readTree(record.value());
+            String accountNumber = event.get("accountNumber").asText();
+            int sequence = event.get("amount").asInt();
+
+            assertEquals(accountNumber, record.key());
+            Integer previousPartition = partitionOfAccount.putIfAbsent(accountNumber, record.partition());
+            assertTrue(previousPartition == null || previousPartition == record.partition(),
+                    "All events of account " + accountNumber + " must land on one partition");
+            int previous = lastSequence.getOrDefault(accountNumber, 0);
+            assertEquals(previous + 1, sequence, "Events of account " + accountNumber + " arrived out of order");
+            lastSequence.put(accountNumber, sequence);
+            assertTrue(new String(record.headers().lastHeader(EventPartitioning.EVENT_TYPE_HEADER).value(),
+                    StandardCharsets.UTF_8).matches("CREDIT|WITHDRAW"));
+        }
+
+        int expected = records.size() / PARTITIONS;
+        for (int count : perPartition) {
+            assertTrue(count > expected / 2 && count < expected * 2,
+                    "Partition load should be roughly even, got " + Arrays.toString(perPartition));
+        }
+    }
+
+    @Test
+    void testEventTypeKeysUseAtMostTwoPartitions() throws Exception {
+        long firstAccount = 2024200000L;
+        ReflectionTestUtils.setField(accountEventProducer, "partitioning", EventPartitioning.EVENT_TYPE);
+        try {
+            publish(firstAccount);
+        } finally {
+            ReflectionTestUtils.setField(accountEventProducer, "partitioning", EventPartitioning.ACCOUNT_NUMBER);
+        }
+        List<ConsumerRecord<String, String>> records = consume(firstAccount);
+
+        assertEquals(ACCOUNTS * EVENTS_PER_ACCOUNT, records.size());
+        long usedPartitions = records.stream().mapToInt(ConsumerRecord::partition).distinct().count();
+        assertTrue(usedPartitions <= 2);
+    }
+
+    /**
+     * Writes the events the way the transaction path does, one database transaction per round over all accounts,
+     * so the outbox interleaves accounts and the relay threads drain it concurrently. The amount is the sequence.
+     */
+    private void publish(long firstAccount) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int sequence = 1; sequence <= EVENTS_PER_ACCOUNT; sequence++) {
+            TransactionType type = sequence % 2 == 0 ? TransactionType.WITHDRAW : TransactionType.CREDIT;
+            BigDecimal amount = BigDecimal.valueOf(sequence);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int account = 0; account < ACCOUNTS; account++) {
+                    TransactionRequest request = new TransactionRequest();
+                    request.setAccountNumber(String.valueOf(firstAccount + account));
+                    request.setType(type);
+                    request.setAmount(amount);
+                    accountEventProducer.sendWithdrawOrCreditBalanceMessage(type.name(), request);
+                }
+            });
+        }
+    }
+
+    private List<ConsumerRecord<String, String>> consume(long firstAccount) throws Exception {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("partitioning-verifier-" + firstAccount, "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(TX_TOPIC));
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (records.size() < ACCOUNTS * EVENTS_PER_ACCOUNT && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(500))) {
+                    // Both tests share the topic; each one only looks at its own accounts.
+                    long accountNumber = Long.parseLong(objectMapper.readTree(record.value()).get("accountNumber").asText());
+                    if (accountNumber >= firstAccount && accountNumber < firstAccount + ACCOUNTS) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,119 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.bank.core.entity.TransactionRequest;
+import com.bank.core.entity.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Load benchmark of single credits with and without group commit, for several group windows.
+ * Prints throughput, latency percentiles and the mean group size for each configuration.
+ * Run with {@code mvn test -Pbenchmark -Dtest=GroupCommitBenchmarkTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupCommitBenchmarkTest {
+
+    private static final int ACCOUNTS = 100;
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 300;
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final long[] WINDOWS_MS = {1, 2, 5, 10, 20};
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void throughputAndLatencyVersusWindow() throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String accountNumber = "20248000" + String.format("%02d", i);
+            accountNumbers.add(accountNumber);
+            accountRepository.save(Account.builder()
+                    .accountNumber(accountNumber)
+                    .accountType("SAVINGS")
+                    .balance(Money.ZERO)
+                    .dateOpened(LocalDate.now())
+                    .build());
+        }
+
+        run("direct", accountNumbers, accountService::processTransaction, null);
+        for (long windowMs : WINDOWS_MS) {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            GroupCommitter groupCommitter = new GroupCommitter(accountService, meterRegistry, MAX_BATCH_SIZE, windowMs, THREADS * 4);
+            try {
+                run("group window=" + windowMs + "ms", accountNumbers, groupCommitter::process, meterRegistry);
+            } finally {
+                groupCommitter.stop();
+            }
+        }
+    }
+
+    private void run(String name, List<String> accountNumbers, Function<TransactionRequest, String> processor,
+                     SimpleMeterRegistry meterRegistry) throws Exception {
+        long[] latencies = new long[THREADS * REQUESTS_PER_THREAD];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    TransactionRequest request = new TransactionRequest();
+                    request.setAccountNumber(accountNumbers.get(random.nextInt(accountNumbers.size())));
+                    request.setType(TransactionType.CREDIT);
+                    request.setAmount(BigDecimal.ONE);
+                    long begin = System.nanoTime();
+                    processor.apply(request);
+                    latencies[thread * REQUESTS_PER_THREAD + i] = System.nanoTime() - begin;
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-22s throughput=%.0f/s p50=%.2fms p99=%.2fms max=%.2fms meanGroup=%.1f%n",
+                name,
+                latencies.length / (elapsedNanos / 1_000_000_000.0),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000.0,
+                meterRegistry == null ? 1.0 : meterRegistry.get("account.groupcommit.size").summary().mean());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,152 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.exception.AccountNotFoundException;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.core.entity.TransactionRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GroupCommitterTest {
+
+    @Mock
+    private AccountService accountService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GroupCommitter groupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (groupCommitter != null) {
+            groupCommitter.stop();
+        }
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneCommit() throws Exception {
+        when(accountService.processTransactionBatch(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequest> requests = invocation.getArgument(0);
+            List<TransactionResult> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(TransactionResult.success(i, requests.get(i).getAccountNumber(), null));
+            }
+            return results;
+        });
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 10, 200, 100);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(groupCommitter.submit(request("1234" + i)));
+        }
+        for (CompletableFuture<String> future : futures) {
+            assertEquals("Transaction successful", future.get(5, TimeUnit.SECONDS));
+        }
+
+        verify(accountService, times(1)).processTransactionBatch(argThat(requests -> requests.size() == 10));
+        assertEquals(10.0, meterRegistry.get("account.groupcommit.size").summary().max());
+    }
+
+    @Test
+    void testGroupIsCommittedWhenWindowCloses() throws Exception {
+        when(accountService.processTransactionBatch(anyList()))
+                .thenReturn(List.of(TransactionResult.success(0, "12345", null)));
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 100, 5, 100);
+
+        assertEquals("Transaction successful", groupCommitter.submit(request("12345")).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailedItemsCompleteWithServiceExceptions() {
+        when(accountService.processTransactionBatch(anyList())).thenReturn(List.of(
+                TransactionResult.failure(0, "12345", TransactionResult.Status.ACCOUNT_NOT_FOUND, "Account not found"),
+                TransactionResult.failure(1, "67890", TransactionResult.Status.INSUFFICIENT_FUNDS, "Insufficient funds"),
+                TransactionResult.failure(2, "67890", TransactionResult.Status.INVALID_REQUEST, "Invalid transaction type")));
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 3, 1000, 100);
+
+        CompletableFuture<String> notFound = groupCommitter.submit(request("12345"));
+        CompletableFuture<String> insufficient = groupCommitter.submit(request("67890"));
+        CompletableFuture<String> invalid = groupCommitter.submit(request("67890"));
+
+        assertCause(AccountNotFoundException.class, notFound);
+        assertCause(InsufficientFundsException.class, insufficient);
+        assertCause(IllegalArgumentException.class, invalid);
+    }
+
+    @Test
+    void testProcessRethrowsTheServiceException() {
+        when(accountService.processTransactionBatch(anyList())).thenReturn(List.of(
+                TransactionResult.failure(0, "12345", TransactionResult.Status.ACCOUNT_NOT_FOUND, "Account not found")));
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 1, 0, 10);
+
+        AccountNotFoundException exception = assertThrows(AccountNotFoundException.class, () -> groupCommitter.process(request("12345")));
+        assertEquals("Account not found", exception.getMessage());
+    }
+
+    @Test
+    void testWholeGroupFailsWhenCommitFails() {
+        when(accountService.processTransactionBatch(anyList())).thenThrow(new IllegalStateException("database down"));
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 2, 1000, 100);
+
+        CompletableFuture<String> first = groupCommitter.submit(request("12345"));
+        CompletableFuture<String> second = groupCommitter.submit(request("67890"));
+
+        assertCause(IllegalStateException.class, first);
+        assertCause(IllegalStateException.class, second);
+    }
+
+    @Test
+    void testFullQueueRejects() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountService.processTransactionBatch(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return List.of(TransactionResult.success(0, "12345", null));
+        });
+        groupCommitter = new GroupCommitter(accountService, meterRegistry, 1, 0, 1);
+
+        CompletableFuture<String> inFlight = groupCommitter.submit(request("12345"));
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = groupCommitter.submit(request("12345"));
+
+        assertThrows(RejectedExecutionException.class, () -> groupCommitter.submit(request("12345")));
+        assertEquals(1.0, meterRegistry.get("account.groupcommit.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("Transaction successful", inFlight.get(5, TimeUnit.SECONDS));
+        assertEquals("Transaction successful", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, CompletableFuture<String> future) {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(expected, exception.getCause());
+    }
+
+    private static TransactionRequest request(String accountNumber) {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber(accountNumber);
+        return request;
+    }
+}
@@ -0,0 +1,202 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.AccountBalanceSlot;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.repo.AccountBalanceSlotRepository;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotAccountBalancesTest {
+
+    private static final String HOT = "20240001";
+    private static final String PLAIN = "20240002";
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HotAccountBalances hotAccountBalances;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(slotRepository.countSlotRows()).thenReturn(List.of(slotRows(HOT, 3)));
+        hotAccountBalances = new HotAccountBalances(accountRepository, slotRepository, transactionManager,
+                new SimpleMeterRegistry(), 8, 60_000);
+    }
+
+    @Test
+    void testCreditOfPlainAccountUpdatesTheAccountRow() {
+        when(accountRepository.creditBalance(PLAIN, BigDecimal.TEN)).thenReturn(1);
+
+        assertEquals(1, hotAccountBalances.credit(PLAIN, BigDecimal.TEN));
+
+        verify(slotRepository, never()).creditSlot(anyString(), anyInt(), any());
+        assertEquals(Money.ZERO, hotAccountBalances.slotTotal(PLAIN));
+        verify(slotRepository, never()).sumBalances(anyString());
+    }
+
+    @Test
+    void testCreditsOfHotAccountAreSpreadOverSlots() {
+        when(slotRepository.creditSlot(eq(HOT), anyInt(), any())).thenReturn(1);
+        when(accountRepository.creditBalance(HOT, BigDecimal.ONE)).thenReturn(1);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(1, hotAccountBalances.credit(HOT, BigDecimal.ONE));
+        }
+
+        verify(slotRepository, atLeastOnce()).creditSlot(HOT, 1, BigDecimal.ONE);
+        verify(slotRepository, atLeastOnce()).creditSlot(HOT, 2, BigDecimal.ONE);
+        verify(slotRepository, never()).creditSlot(eq(HOT), intThat(slot -> slot < 1 || slot > 3), any());
+        verify(accountRepository, atLeastOnce()).creditBalance(HOT, BigDecimal.ONE);
+    }
+
+    @Test
+    void testCreditToMissingSlotFallsBackToTheAccountRow() {
+        when(slotRepository.creditSlot(eq(HOT), anyInt(), any())).thenReturn(0);
+        when(accountRepository.creditBalance(HOT, BigDecimal.ONE)).thenReturn(1);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(1, hotAccountBalances.credit(HOT, BigDecimal.ONE));
+        }
+
+        verify(accountRepository, times(20)).creditBalance(HOT, BigDecimal.ONE);
+    }
+
+    @Test
+    void testDebitDrainsSlotsWhenNoSingleSlotHoldsTheAmount() {
+        BigDecimal amount = new BigDecimal("10.00");
+        when(accountRepository.debitBalance(HOT, amount)).thenReturn(0, 1);
+        when(slotRepository.debitSlot(eq(HOT), anyInt(), eq(amount))).thenReturn(0);
+        when(slotRepository.lockBalances(HOT)).thenReturn(List.of(new BigDecimal("6.00"), new BigDecimal("7.00")));
+
+        assertEquals(1, hotAccountBalances.debit(HOT, amount));
+
+        verify(slotRepository).debitSlot(HOT, 1, amount);
+        verify(slotRepository).debitSlot(HOT, 2, amount);
+        verify(slotRepository).clearBalances(HOT);
+        verify(accountRepository).creditBalance(HOT, new BigDecimal("13.00"));
+        verify(accountRepository, times(2)).debitBalance(HOT, amount);
+    }
+
+    @Test
+    void testDebitOfPlainAccountOnlyChecksSlotRowsWhenTheRowIsShort() {
+        when(accountRepository.debitBalance(PLAIN, BigDecimal.ONE)).thenReturn(1);
+        when(accountRepository.debitBalance(PLAIN, BigDecimal.TEN)).thenReturn(0);
+        when(slotRepository.lockBalances(PLAIN)).thenReturn(List.of());
+
+        assertEquals(1, hotAccountBalances.debit(PLAIN, BigDecimal.ONE));
+        verify(slotRepository, never()).lockBalances(anyString());
+        assertEquals(0, hotAccountBalances.debit(PLAIN, BigDecimal.TEN));
+
+        verify(slotRepository, never()).debitSlot(anyString(), anyInt(), any());
+        verify(slotRepository, never()).clearBalances(anyString());
+        verify(accountRepository, times(1)).debitBalance(PLAIN, BigDecimal.TEN);
+    }
+
+    @Test
+    void testDebitFindsSlotsCreatedOnAnotherNode() {
+        // This node still counts one slot for PLAIN, but another node has split it and credited a slot.
+        BigDecimal amount = new BigDecimal("10.00");
+        when(accountRepository.debitBalance(PLAIN, amount)).thenReturn(0, 1);
+        when(slotRepository.lockBalances(PLAIN)).thenReturn(List.of(new BigDecimal("12.00")));
+
+        assertEquals(1, hotAccountBalances.debit(PLAIN, amount));
+
+        verify(slotRepository).clearBalances(PLAIN);
+        verify(accountRepository).creditBalance(PLAIN, new BigDecimal("12.00"));
+        verify(accountRepository, times(2)).debitBalance(PLAIN, amount);
+    }
+
+    @Test
+    void testSlotBalancesAreAddedOnlyForSplitAccounts() {
+        Account plain = new Account();
+        plain.setAccountNumber(PLAIN);
+        plain.setBalance(Money.parse("1.00"));
+        Account hot = new Account();
+        hot.setAccountNumber(HOT);
+        hot.setBalance(Money.parse("1.00"));
+        when(slotRepository.sumBalances(HOT)).thenReturn(new BigDecimal("4.00"));
+
+        assertSame(plain, hotAccountBalances.withSlotBalances(plain));
+        verify(slotRepository, never()).sumBalances(PLAIN);
+        Account view = hotAccountBalances.withSlotBalances(hot);
+        assertNotSame(hot, view);
+        assertEquals(Money.parse("5.00"), view.getBalance());
+        assertEquals(Money.parse("1.00"), hot.getBalance());
+    }
+
+    @Test
+    void testAbsorbSlotsMovesSlotBalancesIntoTheLockedAccount() {
+        Account account = new Account();
+        account.setAccountNumber(HOT);
+        account.setBalance(Money.parse("1.00"));
+        when(slotRepository.lockBalances(HOT)).thenReturn(List.of(new BigDecimal("2.50"), new BigDecimal("0.50")));
+
+        hotAccountBalances.absorbSlots(account);
+
+        assertEquals(Money.parse("4.00"), account.getBalance());
+        verify(slotRepository).clearBalances(HOT);
+    }
+
+    @Test
+    void testResizeDrainsIntoTheAccountAndCreatesMissingSlots() {
+        Account account = new Account();
+        account.setAccountNumber(PLAIN);
+        account.setBalance(Money.parse("5.00"));
+        when(accountRepository.findByAccountNumberForUpdate(PLAIN)).thenReturn(Optional.of(account));
+        when(slotRepository.lockBalances(PLAIN)).thenReturn(List.of());
+        when(slotRepository.findSlotNumbers(PLAIN)).thenReturn(List.of(1));
+
+        hotAccountBalances.resize(PLAIN, 4);
+
+        verify(slotRepository).deleteSlotsFrom(PLAIN, 4);
+        verify(slotRepository, times(2)).save(any(AccountBalanceSlot.class));
+        assertEquals(Money.parse("5.00"), account.getBalance());
+        assertEquals(4, hotAccountBalances.slots(PLAIN));
+        assertEquals(Map.of(HOT, 3, PLAIN, 4), hotAccountBalances.shardedAccounts());
+
+        hotAccountBalances.resize(PLAIN, 1);
+        assertEquals(1, hotAccountBalances.slots(PLAIN));
+    }
+
+    @Test
+    void testResizeRejectsOutOfRangeSlotCounts() {
+        assertThrows(IllegalArgumentException.class, () -> hotAccountBalances.resize(HOT, 0));
+        assertThrows(IllegalArgumentException.class, () -> hotAccountBalances.resize(HOT, 9));
+        verifyNoInteractions(accountRepository);
+    }
+
+    static AccountBalanceSlotRepository.SlotRowsView slotRows(String accountNumber, long rows) {
+        return new AccountBalanceSlotRepository.SlotRowsView() {
+            @Override
+            public String getAccountNumber() {
+                return accountNumber;
+            }
+
+            @Override
+            public long getSlotRows() {
+                return rows;
+            }
+        };
+    }
+}
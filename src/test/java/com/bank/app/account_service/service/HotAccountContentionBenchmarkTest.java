@@ -0,0 +1,127 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.repo.AccountBalanceSlotRepository;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark: many threads crediting one account, which is split into 1 (today's single row), 4 and 16
+ * balance slots, with a withdrawal every tenth request. Compare the printed throughput across slot counts.
+ * Run with {@code mvn test -Pbenchmark -Dtest=HotAccountContentionBenchmarkTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({HotAccountBalances.class, HotAccountContentionBenchmarkTest.MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotAccountContentionBenchmarkTest {
+
+    private static final String ACCOUNT_NUMBER = "2024900100";
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 250;
+    private static final BigDecimal CREDIT = new BigDecimal("2.00");
+    private static final BigDecimal DEBIT = new BigDecimal("1.00");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private HotAccountBalances hotAccountBalances;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest(name = "{0} slots")
+    @ValueSource(ints = {1, 4, 16})
+    void concurrentCreditsOnOneAccount(int slots) throws Exception {
+        slotRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountRepository.save(Account.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountType("CURRENT")
+                .balance(Money.ZERO)
+                .dateOpened(LocalDate.now())
+                .build());
+        hotAccountBalances.resize(ACCOUNT_NUMBER, slots);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int debits = 0;
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    boolean debit = i % 10 == 9;
+                    Integer rows = transactionTemplate.execute(status -> debit
+                            ? hotAccountBalances.debit(ACCOUNT_NUMBER, DEBIT)
+                            : hotAccountBalances.credit(ACCOUNT_NUMBER, CREDIT));
+                    if (debit && rows != null && rows == 1) {
+                        debits++;
+                    }
+                }
+                return debits;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        int debits = 0;
+        for (Future<Integer> future : futures) {
+            debits += future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        int requests = THREADS * REQUESTS_PER_THREAD;
+        int credits = requests - requests / 10;
+        Money expected = Money.ofMinor(credits * 200L - debits * 100L);
+        Account account = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).orElseThrow();
+        assertEquals(expected, account.getBalance().plus(hotAccountBalances.slotTotal(ACCOUNT_NUMBER)));
+
+        System.out.printf("slots=%d threads=%d requests=%d debits=%d throughput=%.0f/s%n",
+                slots, THREADS, requests, debits, requests / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.OutboxDeadLetter;
+import com.bank.app.account_service.entity.OutboxEvent;
+import com.bank.app.account_service.repo.OutboxDeadLetterRepository;
+import com.bank.app.account_service.repo.OutboxEventRepository;
+import com.bank.core.entity.TransactionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxDeadLetterRepository, kafkaTemplate, objectMapper,
+                transactionManager, meterRegistry, 100, 1, 100, 1000, 3);
+    }
+
+    @Test
+    void testDrainPublishesAndDeletesBatch() throws Exception {
+        TransactionRequest request = new TransactionRequest();
+        request.setAccountNumber("12345");
+        OutboxEvent event = OutboxEvent.builder()
+                .id(1L)
+                .topic("transaction-service-topic")
+                .messageKey("12345")
+                .eventType("CREDIT")
+                .payloadType(TransactionRequest.class.getName())
+                .payload(objectMapper.writeValueAsString(request))
+                .createdAt(LocalDateTime.now())
+                .build();
+        List<OutboxEvent> batch = List.of(event);
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(batch);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        int published = outboxRelay.drain(0);
+
+        assertEquals(1, published);
+        ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(1)).send(captor.capture());
+        ProducerRecord<String, Object> record = captor.getValue();
+        assertEquals("transaction-service-topic", record.topic());
+        assertEquals("12345", record.key());
+        assertEquals("12345", ((TransactionRequest) record.value()).getAccountNumber());
+        assertEquals("CREDIT", new String(record.headers().lastHeader("eventType").value(), StandardCharsets.UTF_8));
+        verify(outboxEventRepository, times(1)).deleteAllInBatch(batch);
+        assertEquals(1.0, meterRegistry.get("account.outbox.published").counter().count());
+        assertEquals(1L, meterRegistry.get("account.kafka.send").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void testDrainWithEmptyOutbox() {
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertEquals(0, outboxRelay.drain(0));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void testFailedSendKeepsEvents() throws Exception {
+        OutboxEvent event = OutboxEvent.builder()
+                .id(1L)
+                .topic("transaction-service-topic")
+                .messageKey("12345")
+                .eventType("WITHDRAW")
+                .payloadType(TransactionRequest.class.getName())
+                .payload(objectMapper.writeValueAsString(new TransactionRequest()))
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.drain(0));
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager, times(1)).rollback(any());
+        assertEquals(1L, meterRegistry.get("account.kafka.send").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void testFailedShardDoesNotHoldBackOtherShards() throws Exception {
+        OutboxEvent failing = event(1L, "11111");
+        OutboxEvent healthy = event(2L, "22222");
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(outboxEventRepository.findBatchForPublishing(eq(3), any(Pageable.class))).thenReturn(List.of(failing));
+        when(outboxEventRepository.findBatchForPublishing(eq(5), any(Pageable.class))).thenReturn(List.of(healthy));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, Object> record = invocation.getArgument(0);
+            return "11111".equals(record.key())
+                    ? CompletableFuture.failedFuture(new RuntimeException("broker unavailable"))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        // Worker 1 of 2 owns the odd shards.
+        outboxRelay.poll(1, 2);
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(List.of(failing));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(healthy));
+        verify(outboxEventRepository, never()).findBatchForPublishing(eq(2), any(Pageable.class));
+        assertEquals(1.0, meterRegistry.get("account.outbox.failures").counter().count());
+    }
+
+    @Test
+    void testLagIsTheOldestOfAllShards() throws Exception {
+        OutboxEvent old = event(1L, "11111");
+        old.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(outboxEventRepository.findBatchForPublishing(eq(3), any(Pageable.class))).thenReturn(List.of(old));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+
+        // Shard 3 fails and keeps its lag; the empty shards drained after it must not reset the gauge.
+        outboxRelay.poll(0, 1);
+
+        assertTrue(meterRegistry.get("account.outbox.lag").gauge().value() >= 299_000);
+    }
+
+    @Test
+    void testPoisonEventIsDeadLetteredAfterMaxAttempts() throws Exception {
+        OutboxEvent poison = event(1L, "11111");
+        poison.setPayloadType("com.example.Missing");
+        OutboxEvent next = event(2L, "11111");
+        int shard = OutboxEvent.shardOf("11111");
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(outboxEventRepository.findBatchForPublishing(eq(shard), any(Pageable.class)))
+                .thenReturn(List.of(poison, next), List.of(poison, next), List.of(poison, next), List.of(poison),
+                        List.of(next), List.of());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.poll(0, 1);
+        outboxRelay.poll(0, 1);
+        verifyNoInteractions(outboxDeadLetterRepository);
+        // The third failure isolates the head: the poison event is moved aside and draining stops there.
+        outboxRelay.poll(0, 1);
+
+        ArgumentCaptor<OutboxDeadLetter> deadLetter = ArgumentCaptor.forClass(OutboxDeadLetter.class);
+        verify(outboxDeadLetterRepository).save(deadLetter.capture());
+        assertEquals(1L, deadLetter.getValue().getOutboxId());
+        verify(outboxEventRepository).deleteAllInBatch(List.of(poison));
+        assertEquals(1.0, meterRegistry.get("account.outbox.dead.letters").counter().count());
+
+        outboxRelay.poll(0, 1);
+        verify(outboxEventRepository).deleteAllInBatch(List.of(next));
+    }
+
+    @Test
+    void testRetriableFailureIsNeverDeadLettered() throws Exception {
+        OutboxEvent event = event(1L, "11111");
+        when(outboxEventRepository.findBatchForPublishing(anyInt(), any(Pageable.class))).thenReturn(List.of(event));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(
+                new org.apache.kafka.common.errors.TimeoutException("broker unavailable")));
+
+        int shard = OutboxEvent.shardOf("11111");
+        for (int i = 0; i < 5; i++) {
+            outboxRelay.poll(shard, OutboxEvent.SHARDS);
+        }
+
+        verifyNoInteractions(outboxDeadLetterRepository);
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void testSameKeyAlwaysMapsToTheSameShard() {
+        assertEquals(OutboxEvent.shardOf("20240001"), OutboxEvent.shardOf("20240001"));
+        assertEquals(0, OutboxEvent.shardOf(null));
+        for (int i = 0; i < 1000; i++) {
+            int shard = OutboxEvent.shardOf(String.valueOf(20240000 + i));
+            assertTrue(shard >= 0 && shard < OutboxEvent.SHARDS);
+        }
+    }
+
+    private OutboxEvent event(long id, String key) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("transaction-service-topic")
+                .messageKey(key)
+                .shard(OutboxEvent.shardOf(key))
+                .eventType("CREDIT")
+                .payloadType(TransactionRequest.class.getName())
+                .payload(objectMapper.writeValueAsString(new TransactionRequest()))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.app.account_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomAccountNumberGeneratorTest {
+
+    @Test
+    void testGeneratesYearPrefixedNumber() {
+        RandomAccountNumberGenerator generator = new RandomAccountNumberGenerator(candidate -> false, 10);
+
+        String accountNumber = generator.nextAccountNumber();
+
+        assertEquals(10, accountNumber.length());
+        assertTrue(accountNumber.startsWith(String.valueOf(LocalDate.now().getYear())));
+    }
+
+    @Test
+    void testCollisionsAreRegenerated() {
+        AtomicInteger checks = new AtomicInteger();
+        RandomAccountNumberGenerator generator = new RandomAccountNumberGenerator(candidate -> checks.incrementAndGet() < 3, 10);
+
+        assertNotNull(generator.nextAccountNumber());
+        assertEquals(3, checks.get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        RandomAccountNumberGenerator generator = new RandomAccountNumberGenerator(candidate -> true, 5);
+
+        assertThrows(IllegalStateException.class, generator::nextAccountNumber);
+    }
+}
@@ -0,0 +1,157 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.repo.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the command consumer against an embedded broker: commands keyed by account number are applied in order per
+ * account, each gets one result event, and the consumer group's offsets are committed once they are applied.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "account.outbox.relay.enabled=true",
+        "account.kafka.commands.enabled=true",
+        "account.kafka.commands.concurrency=" + TransactionCommandKafkaTest.PARTITIONS,
+        "account.kafka.commands.max-poll-records=50"
+})
+@EmbeddedKafka(partitions = TransactionCommandKafkaTest.PARTITIONS, topics = {
+        TransactionCommandKafkaTest.COMMAND_TOPIC, AccountEventProducer.RESULT_TOPIC,
+        "transaction-service-topic", "account-service-topic"})
+@ActiveProfiles("test")
+class TransactionCommandKafkaTest {
+
+    static final int PARTITIONS = 3;
+    static final String COMMAND_TOPIC = "transaction-command-topic";
+    private static final int ACCOUNTS = 20;
+    private static final int ROUNDS = 25;
+    private static final int COMMANDS = ACCOUNTS * ROUNDS * 2 + 1;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCommandsAreAppliedInOrderPerAccountAndAnswered() throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String accountNumber = "20249100" + String.format("%02d", i);
+            accountNumbers.add(accountNumber);
+            accountRepository.save(Account.builder()
+                    .accountNumber(accountNumber)
+                    .accountType("SAVINGS")
+                    .balance(Money.ZERO)
+                    .dateOpened(LocalDate.now())
+                    .build());
+        }
+
+        // Every withdrawal is only covered by the credit just before it, so any reordering fails a withdrawal.
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put("key.serializer", StringSerializer.class);
+        producerProps.put("value.serializer", StringSerializer.class);
+        try (Producer<String, String> producer = new KafkaProducer<>(producerProps)) {
+            for (int round = 0; round < ROUNDS; round++) {
+                for (String accountNumber : accountNumbers) {
+                    producer.send(new ProducerRecord<>(COMMAND_TOPIC, accountNumber, command(accountNumber, "CREDIT")));
+                    producer.send(new ProducerRecord<>(COMMAND_TOPIC, accountNumber, command(accountNumber, "WITHDRAW")));
+                }
+            }
+            producer.send(new ProducerRecord<>(COMMAND_TOPIC, "garbage", "not a command"));
+            producer.flush();
+        }
+
+        List<JsonNode> results = consumeResults();
+
+        assertEquals(COMMANDS, results.size());
+        Map<String, Integer> successes = new HashMap<>();
+        int invalid = 0;
+        for (JsonNode result : results) {
+            if ("INVALID_REQUEST".equals(result.get("status").asText())) {
+                invalid++;
+                continue;
+            }
+            assertEquals("SUCCESS", result.get("status").asText(), "Commands of an account were applied out of order: " + result);
+            assertTrue(result.get("commandId").asText().startsWith(COMMAND_TOPIC + "-"));
+            successes.merge(result.get("accountNumber").asText(), 1, Integer::sum);
+        }
+        assertEquals(1, invalid);
+        for (String accountNumber : accountNumbers) {
+            assertEquals(ROUNDS * 2, successes.get(accountNumber));
+            assertEquals(Money.ZERO, accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance());
+        }
+        assertEquals(COMMANDS, committedOffsets());
+    }
+
+    private String command(String accountNumber, String type) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("accountNumber", accountNumber, "type", type, "amount", "10.00"));
+    }
+
+    private List<JsonNode> consumeResults() throws Exception {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("command-result-verifier", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        List<JsonNode> results = new ArrayList<>();
+        try (Consumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(AccountEventProducer.RESULT_TOPIC));
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (results.size() < COMMANDS && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(500))) {
+                    results.add(objectMapper.readTree(record.value()));
+                }
+            }
+        }
+        return results;
+    }
+
+    private long committedOffsets() throws Exception {
+        // Results are relayed after the database commit, so the acknowledgment may still be on its way.
+        long deadline = System.currentTimeMillis() + 30_000;
+        long committed;
+        do {
+            committed = 0;
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(),
+                        "account-service-commands", COMMAND_TOPIC, partition);
+                committed += offset == null ? 0 : offset.offset();
+            }
+            if (committed < COMMANDS) {
+                Thread.sleep(200);
+            }
+        } while (committed < COMMANDS && System.currentTimeMillis() < deadline);
+        return committed;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionResult;
+import com.bank.app.account_service.entity.Money;
+import com.bank.core.entity.TransactionRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionCommandListenerTest {
+
+    private static final String TOPIC = "transaction-command-topic";
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccountEventProducer accountEventProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionCommandListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new TransactionCommandListener(accountService, accountEventProducer, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void testBatchIsAppliedInOneTransactionAndAcknowledged() {
+        List<ConsumerRecord<String, TransactionRequest>> records = records("1001", "1002", "1003");
+        when(accountService.processTransactionBatch(anyList())).thenAnswer(invocation -> succeed(invocation.getArgument(0)));
+
+        listener.onCommands(records, acknowledgment);
+
+        verify(accountService, times(1)).processTransactionBatch(anyList());
+        verify(accountEventProducer, times(1)).sendTransactionCommandResults(argThat(results -> results.size() == 3
+                && results.get(2).getCommandId().equals(TOPIC + "-0@2")));
+        verify(acknowledgment).acknowledge();
+        assertEquals(3.0, meterRegistry.get("account.commands").tag("status", "success").counter().count());
+    }
+
+    @Test
+    void testFailingCommandIsIsolatedAndReportedByIndex() {
+        List<ConsumerRecord<String, TransactionRequest>> records = records("1001", "1002", "1003");
+        when(accountService.processTransactionBatch(anyList())).thenAnswer(invocation -> {
+            List<TransactionRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> "1002".equals(request.getAccountNumber()))) {
+                throw new ArithmeticException("long overflow");
+            }
+            return succeed(requests);
+        });
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> listener.onCommands(records, acknowledgment));
+
+        assertEquals(1, failure.getIndex());
+        assertInstanceOf(ArithmeticException.class, failure.getCause());
+        // The whole batch, then the first command on its own, then the failing one.
+        verify(accountService, times(3)).processTransactionBatch(anyList());
+        verify(accountEventProducer, times(1)).sendTransactionCommandResults(argThat(results -> results.size() == 1
+                && results.get(0).getCommandId().equals(TOPIC + "-0@0")));
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(1.0, meterRegistry.get("account.commands").tag("status", "success").counter().count());
+    }
+
+    private static List<TransactionResult> succeed(List<TransactionRequest> requests) {
+        List<TransactionResult> results = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            results.add(TransactionResult.success(index, requests.get(index).getAccountNumber(), Money.parse("10.00")));
+        }
+        return results;
+    }
+
+    private static List<ConsumerRecord<String, TransactionRequest>> records(String... accountNumbers) {
+        List<ConsumerRecord<String, TransactionRequest>> records = new ArrayList<>();
+        for (int offset = 0; offset < accountNumbers.length; offset++) {
+            TransactionRequest request = new TransactionRequest();
+            request.setAccountNumber(accountNumbers[offset]);
+            records.add(new ConsumerRecord<>(TOPIC, 0, offset, accountNumbers[offset], request));
+        }
+        return records;
+    }
+}
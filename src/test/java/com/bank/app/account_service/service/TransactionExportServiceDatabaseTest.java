@@ -0,0 +1,123 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports from the real repository streams on H2 and checks that the persistence context never holds
+ * more than the rows currently being merged, however long the history is.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionExportServiceDatabaseTest {
+
+    private static final String ACCOUNT_NUMBER = "2024200001";
+    private static final int TRANSACTIONS = 10_000;
+    private static final int TRANSFERS = 500;
+    // The row being written plus the next row of the transactions stream, held by the merge.
+    private static final int MAX_ROWS_HELD = 2;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransferJournalRepository transferJournalRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAllInBatch();
+        transferJournalRepository.deleteAllInBatch();
+        transactionExportService = new TransactionExportService(transactionRepository, transferJournalRepository, entityManager,
+                JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+                transactionManager);
+    }
+
+    @Test
+    void testExportKeepsOnlyTheCurrentRowsInThePersistenceContext() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                Transaction transaction = new Transaction(ACCOUNT_NUMBER, "CREDIT", Money.parse("1.00"), Money.ofMinor((i + 1) * 100L));
+                transaction.setTimestamp(start.plusSeconds(i));
+                entityManager.persist(transaction);
+                if (i < TRANSFERS) {
+                    TransferJournal transfer = new TransferJournal(ACCOUNT_NUMBER, "2024200002", Money.parse("0.50"),
+                            Money.parse("0.50"), Money.parse("0.50"));
+                    transfer.setTimestamp(start.plusSeconds(i).plusNanos(500_000_000));
+                    entityManager.persist(transfer);
+                }
+                if (i % 1_000 == 999) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        PersistenceContextSamplingOutputStream out = new PersistenceContextSamplingOutputStream();
+
+        long written = transactionExportService.export(ACCOUNT_NUMBER, TransactionExportService.Format.NDJSON, out);
+
+        assertEquals(TRANSACTIONS + TRANSFERS, written);
+        assertEquals(TRANSACTIONS + TRANSFERS, out.lines);
+        assertTrue(out.samples > 10, "samples: " + out.samples);
+        assertTrue(out.maxRowsHeld <= MAX_ROWS_HELD, "rows held: " + out.maxRowsHeld);
+    }
+
+    /**
+     * Counts the lines written and, every time the export's buffer is flushed into it, the entities managed by the
+     * export's persistence context, which is bound to the writing thread.
+     */
+    private class PersistenceContextSamplingOutputStream extends OutputStream {
+        private long lines;
+        private long samples;
+        private int maxRowsHeld;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+            samples++;
+            maxRowsHeld = Math.max(maxRowsHeld, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        }
+    }
+}
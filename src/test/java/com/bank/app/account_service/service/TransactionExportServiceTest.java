@@ -0,0 +1,142 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceTest {
+
+    private TransactionRepository transactionRepository;
+
+    private TransferJournalRepository transferJournalRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        transferJournalRepository = mock(TransferJournalRepository.class);
+        // stubOnly: a mock that records millions of detach() calls would itself exhaust the heap
+        entityManager = mock(EntityManager.class, withSettings().stubOnly());
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        transactionExportService = new TransactionExportService(transactionRepository, transferJournalRepository, entityManager, objectMapper,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testExportNdjson() {
+        when(transactionRepository.streamByAccountNumber("12345")).thenReturn(syntheticRows(2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = transactionExportService.export("12345", TransactionExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"accountNumber\":\"12345\""));
+    }
+
+    @Test
+    void testExportCsv() {
+        when(transactionRepository.streamByAccountNumber("12345")).thenReturn(syntheticRows(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transactionExportService.export("12345", TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,accountNumber,type,amount,balanceAfterTransaction,timestamp", lines[0]);
+        assertEquals("0,12345,CREDIT,1.00,1.00,2024-01-01T00:00", lines[1]);
+    }
+
+    @Test
+    void testExportMergesTransferLegsInOrder() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        TransferJournal out = new TransferJournal("12345", "67890", Money.parse("0.50"), Money.parse("0.50"), Money.parse("9.50"));
+        out.setId(1000L);
+        out.setTimestamp(start.plusNanos(500_000_000));
+        when(transactionRepository.streamByAccountNumber("12345")).thenReturn(syntheticRows(2));
+        when(transferJournalRepository.streamFrom("12345")).thenReturn(Stream.of(out));
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        long written = transactionExportService.export("12345", TransactionExportService.Format.CSV, csv);
+
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, written);
+        assertEquals("0,12345,CREDIT,1.00,1.00,2024-01-01T00:00", lines[1]);
+        assertEquals("1000,12345,WITHDRAW,0.50,0.50,2024-01-01T00:00:00.500", lines[2]);
+        assertTrue(lines[3].startsWith("1,12345,CREDIT,1.00,2.00,"));
+    }
+
+    /**
+     * Exports a few million rows. Runs in its own surefire execution with -Xmx64m, so any code path that
+     * materializes the history fails with OutOfMemoryError.
+     */
+    @Test
+    @Tag("low-memory")
+    void testExportOfMillionsOfRowsRunsInConstantMemory() {
+        long rows = 3_000_000;
+        when(transactionRepository.streamByAccountNumber("12345")).thenReturn(syntheticRows(rows));
+        CountingOutputStream out = new CountingOutputStream();
+
+        long written = transactionExportService.export("12345", TransactionExportService.Format.NDJSON, out);
+
+        assertEquals(rows, written);
+        assertEquals(rows, out.lines);
+    }
+
+    private Stream<Transaction> syntheticRows(long count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        return LongStream.range(0, count).mapToObj(i -> {
+            Transaction transaction = new Transaction("12345", "CREDIT", Money.parse("1.00"), Money.ofMinor((i + 1) * 100));
+            transaction.setId(i);
+            transaction.setTimestamp(start.plusSeconds(i));
+            return transaction;
+        });
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
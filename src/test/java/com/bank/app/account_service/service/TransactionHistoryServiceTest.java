@@ -0,0 +1,102 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.dto.TransactionCursor;
+import com.bank.app.account_service.dto.TransactionPage;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.entity.Transaction;
+import com.bank.app.account_service.entity.TransferJournal;
+import com.bank.app.account_service.repo.TransactionRepository;
+import com.bank.app.account_service.repo.TransferJournalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionHistoryServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransferJournalRepository transferJournalRepository;
+
+    private TransactionHistoryService transactionHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transactionHistoryService = new TransactionHistoryService(transactionRepository, transferJournalRepository, 50, 500);
+    }
+
+    @Test
+    void testFirstPageReturnsCursorWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<Transaction> rows = transactions(now, 3);
+        when(transactionRepository.findLatest("12345", PageRequest.of(0, 3))).thenReturn(rows);
+
+        TransactionPage page = transactionHistoryService.getPage("12345", 2, null);
+
+        assertEquals(2, page.getTransactions().size());
+        TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getTimestamp(), cursor.timestamp());
+        assertEquals(rows.get(1).getId(), cursor.id());
+    }
+
+    @Test
+    void testNextPageUsesKeysetPosition() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123456000);
+        String cursor = new TransactionCursor(timestamp, 42L).encode();
+        when(transactionRepository.findOlderThan("12345", timestamp, 42L, PageRequest.of(0, 11)))
+                .thenReturn(transactions(timestamp.minusSeconds(1), 4));
+
+        TransactionPage page = transactionHistoryService.getPage("12345", 10, cursor);
+
+        assertEquals(4, page.getTransactions().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testPageMergesTransferLegsNewestFirst() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        TransferJournal transfer = new TransferJournal("67890", "12345", Money.parse("5"), Money.parse("95"), Money.parse("15"));
+        transfer.setId(200L);
+        transfer.setTimestamp(now.minusSeconds(30));
+        when(transactionRepository.findLatest("12345", PageRequest.of(0, 3))).thenReturn(transactions(now, 3));
+        when(transferJournalRepository.findLatestTo("12345", PageRequest.of(0, 3))).thenReturn(List.of(transfer));
+
+        TransactionPage page = transactionHistoryService.getPage("12345", 2, null);
+
+        Transaction leg = page.getTransactions().get(1);
+        assertEquals(200L, leg.getTransferId());
+        assertEquals(TransferJournal.CREDIT_TYPE, leg.getType());
+        assertEquals(Money.parse("15"), leg.getBalanceAfterTransaction());
+        assertEquals(new TransactionCursor(leg.getTimestamp(), leg.getId()), TransactionCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void testInvalidLimitAndCursorAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> transactionHistoryService.getPage("12345", 0, null));
+        assertThrows(IllegalArgumentException.class, () -> transactionHistoryService.getPage("12345", 501, null));
+        assertThrows(IllegalArgumentException.class, () -> transactionHistoryService.getPage("12345", 10, "not-a-cursor"));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private List<Transaction> transactions(LocalDateTime newest, int count) {
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction("12345", "CREDIT", Money.parse("1"), Money.parse("10"));
+            transaction.setId(100L - i);
+            transaction.setTimestamp(newest.minusMinutes(i));
+            rows.add(transaction);
+        }
+        return rows;
+    }
+}
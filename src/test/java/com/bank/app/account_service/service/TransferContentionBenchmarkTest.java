@@ -0,0 +1,138 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.entity.Money;
+import com.bank.app.account_service.exception.InsufficientFundsException;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark: many threads doing random transfers in both directions over a handful of accounts.
+ * Run with {@code mvn test -Pbenchmark -Dtest=TransferContentionBenchmarkTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TransferEngine.class, TransferContentionBenchmarkTest.MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferContentionBenchmarkTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int THREADS = 32;
+    private static final int TRANSFERS_PER_THREAD = 200;
+    private static final Money OPENING_BALANCE = Money.parse("10000.00");
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void randomTransfersUnderContention() throws Exception {
+        accountRepository.deleteAll();
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String accountNumber = "20249000" + i;
+            accountNumbers.add(accountNumber);
+            accountRepository.save(Account.builder()
+                    .accountNumber(accountNumber)
+                    .accountType("SAVINGS")
+                    .balance(OPENING_BALANCE)
+                    .dateOpened(LocalDate.now())
+                    .build());
+        }
+
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    Money amount = Money.ofMinor(random.nextInt(1, 100) * 100L);
+                    try {
+                        transferEngine.execute(accountNumbers.get(from), accountNumbers.get(to), (fromAccount, toAccount) -> {
+                            Account debit = fromAccount.orElseThrow();
+                            Account credit = toAccount.orElseThrow();
+                            if (debit.getBalance().isLessThan(amount)) {
+                                throw new InsufficientFundsException("Insufficient funds in account: " + debit.getAccountNumber());
+                            }
+                            debit.setBalance(debit.getBalance().minus(amount));
+                            credit.setBalance(credit.getBalance().plus(amount));
+                            return null;
+                        });
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        executor.shutdown();
+
+        Money total = accountRepository.findAll().stream()
+                .map(Account::getBalance)
+                .reduce(Money.ZERO, Money::plus);
+        assertEquals(Money.ofMinor(OPENING_BALANCE.minorUnits() * ACCOUNTS), total);
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, completed.get() + rejected.get());
+
+        Timer lockWait = meterRegistry.get("account.transfer.lock.wait").timer();
+        System.out.printf("transfers=%d rejected=%d threads=%d accounts=%d throughput=%.0f/s lockWaitMean=%.3fms lockWaitMax=%.3fms retries=%.0f%n",
+                completed.get(), rejected.get(), THREADS, ACCOUNTS,
+                completed.get() / (elapsedNanos / 1_000_000_000.0),
+                lockWait.mean(TimeUnit.MILLISECONDS), lockWait.max(TimeUnit.MILLISECONDS),
+                meterRegistry.get("account.transfer.lock.retries").counter().count());
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.app.account_service.service;
+
+import com.bank.app.account_service.entity.Account;
+import com.bank.app.account_service.repo.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class TransferEngineTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransferEngine transferEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        transferEngine = new TransferEngine(accountRepository, transactionManager, meterRegistry, 3, 0);
+    }
+
+    @Test
+    void testLocksAreTakenInAccountNumberOrder() {
+        when(accountRepository.findByAccountNumberForUpdate(anyString())).thenReturn(Optional.of(new Account()));
+
+        transferEngine.execute("67890", "12345", (from, to) -> "done");
+        transferEngine.execute("12345", "67890", (from, to) -> "done");
+
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).findByAccountNumberForUpdate("12345");
+        inOrder.verify(accountRepository).findByAccountNumberForUpdate("67890");
+        inOrder.verify(accountRepository).findByAccountNumberForUpdate("12345");
+        inOrder.verify(accountRepository).findByAccountNumberForUpdate("67890");
+    }
+
+    @Test
+    void testAccountsArePassedInRequestOrder() {
+        Account low = new Account();
+        low.setAccountNumber("12345");
+        Account high = new Account();
+        high.setAccountNumber("67890");
+        when(accountRepository.findByAccountNumberForUpdate("12345")).thenReturn(Optional.of(low));
+        when(accountRepository.findByAccountNumberForUpdate("67890")).thenReturn(Optional.of(high));
+
+        String result = transferEngine.execute("67890", "12345",
+                (from, to) -> from.orElseThrow().getAccountNumber() + "->" + to.orElseThrow().getAccountNumber());
+
+        assertEquals("67890->12345", result);
+    }
+
+    @Test
+    void testLockTimeoutIsRetried() {
+        when(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .thenThrow(new CannotAcquireLockException("lock wait timeout"))
+                .thenReturn(Optional.of(new Account()));
+
+        String result = transferEngine.execute("12345", "67890", (from, to) -> "done");
+
+        assertEquals("done", result);
+        assertEquals(1.0, meterRegistry.get("account.transfer.lock.retries").counter().count());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        when(accountRepository.findByAccountNumberForUpdate(anyString()))
+                .thenThrow(new CannotAcquireLockException("lock wait timeout"));
+
+        assertThrows(CannotAcquireLockException.class,
+                () -> transferEngine.execute("12345", "67890", (from, to) -> "done"));
+
+        verify(accountRepository, times(3)).findByAccountNumberForUpdate("12345");
+        assertEquals(1.0, meterRegistry.get("account.transfer.lock.failures").counter().count());
+        assertEquals(3L, meterRegistry.get("account.transfer.lock.wait").timer().count());
+    }
+}
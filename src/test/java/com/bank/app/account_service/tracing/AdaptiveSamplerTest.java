@@ -0,0 +1,113 @@
+package com.bank.app.account_service.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveSamplerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveSampler sampler;
+    private final List<MutableSpan> reported = new ArrayList<>();
+    private TailSamplingSpanHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sampler = new AdaptiveSampler(new AdaptiveSampler.Rules(0, -1, Duration.ofMillis(500), true, Set.of("12345")), meterRegistry);
+        handler = new TailSamplingSpanHandler(sampler, new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                reported.add(span);
+                return true;
+            }
+        }, meterRegistry);
+    }
+
+    @Test
+    void testHeadDecisionFollowsProbabilityAndRateLimit() {
+        assertEquals(0, sampleCount(1000));
+
+        sampler.update(new AdaptiveSampler.Rules(1, -1, Duration.ZERO, false, Set.of()));
+        assertEquals(1000, sampleCount(1000));
+
+        sampler.update(new AdaptiveSampler.Rules(1, 10, Duration.ZERO, false, Set.of()));
+        long sampled = sampleCount(1000);
+        assertTrue(sampled > 0 && sampled <= 10, "sampled " + sampled);
+
+        assertEquals(3000, meterRegistry.get("account.tracing.sampler.decision").timer().count());
+        assertEquals(1000 + sampled, meterRegistry.get("account.tracing.sampler.decisions").tag("result", "sampled").counter().count());
+    }
+
+    @Test
+    void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sampler.update(new AdaptiveSampler.Rules(1.5f, -1, Duration.ZERO, false, Set.of())));
+        assertEquals(0, sampler.getRules().probability());
+    }
+
+    @Test
+    void testUnsampledSpansMatchingATailRuleAreReported() {
+        MutableSpan failed = span(10);
+        failed.error(new IllegalStateException());
+        MutableSpan slow = span(600);
+        MutableSpan investigated = span(10);
+        investigated.tag(TailSamplingSpanHandler.RULE_TAG, TailSamplingSpanHandler.ACCOUNT);
+        MutableSpan ordinary = span(10);
+
+        for (MutableSpan span : List.of(failed, slow, investigated, ordinary)) {
+            handler.end(context(false), span, SpanHandler.Cause.FINISHED);
+        }
+
+        assertEquals(List.of(failed, slow, investigated), reported);
+        assertEquals(TailSamplingSpanHandler.ERROR, failed.tag(TailSamplingSpanHandler.RULE_TAG));
+        assertEquals(TailSamplingSpanHandler.SLOW, slow.tag(TailSamplingSpanHandler.RULE_TAG));
+        assertEquals(1, meterRegistry.get("account.tracing.sampler.decisions").tag("result", "kept_slow").counter().count());
+    }
+
+    @Test
+    void testSampledSpansAndDisabledRulesAreLeftAlone() {
+        MutableSpan sampledFailure = span(10);
+        sampledFailure.error(new IllegalStateException());
+        handler.end(context(true), sampledFailure, SpanHandler.Cause.FINISHED);
+
+        sampler.update(new AdaptiveSampler.Rules(0, -1, Duration.ZERO, false, Set.of()));
+        MutableSpan unsampledFailure = span(10_000);
+        unsampledFailure.error(new IllegalStateException());
+        handler.end(context(false), unsampledFailure, SpanHandler.Cause.FINISHED);
+
+        assertTrue(reported.isEmpty());
+        assertFalse(sampler.isInvestigated("12345"));
+    }
+
+    private long sampleCount(int traces) {
+        long sampled = 0;
+        for (long traceId = 1; traceId <= traces; traceId++) {
+            if (sampler.isSampled(traceId * 0x9E3779B97F4A7C15L)) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+
+    private static MutableSpan span(long durationMillis) {
+        MutableSpan span = new MutableSpan();
+        span.startTimestamp(1_000_000);
+        span.finishTimestamp(1_000_000 + durationMillis * 1000);
+        return span;
+    }
+
+    private static TraceContext context(boolean sampled) {
+        return TraceContext.newBuilder().traceId(1).spanId(2).sampled(sampled).build();
+    }
+}